@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the nested loops that {@link StringUtils#indexOfAny(CharSequence, char...)}
+ * uses for short searches with the {@link CharSearcher} it compiles for long
+ * ones, and with a searcher compiled once and reused.
+ *
+ * <p>Each invocation searches the next of 256 random lower case strings for
+ * characters that are not in them, which is the worst case of the loops.</p>
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dbenchmark=CharSearcherBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharSearcherBenchmark {
+
+    private static final int STRINGS = 256;
+
+    @Param({"4", "16", "64"})
+    public int searchLength;
+
+    @Param({"16", "1000"})
+    public int length;
+
+    private final String[] strings = new String[STRINGS];
+    private char[] searchChars;
+    private CharSearcher searcher;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < STRINGS; i++) {
+            final char[] chars = new char[length];
+            for (int j = 0; j < length; j++) {
+                chars[j] = (char) ('a' + random.nextInt(26));
+            }
+            strings[i] = new String(chars);
+        }
+        searchChars = new char[searchLength];
+        for (int i = 0; i < searchLength; i++) {
+            // punctuation, digits and upper case letters
+            searchChars[i] = (char) ('!' + i);
+        }
+        searcher = new CharSearcher(searchChars);
+    }
+
+    private String next() {
+        return strings[index = index + 1 & STRINGS - 1];
+    }
+
+    @Benchmark
+    public int nestedLoops() {
+        final String cs = next();
+        for (int i = 0; i < cs.length(); i++) {
+            final char ch = cs.charAt(i);
+            for (final char searchChar : searchChars) {
+                if (searchChar == ch) {
+                    return i;
+                }
+            }
+        }
+        return StringUtils.INDEX_NOT_FOUND;
+    }
+
+    @Benchmark
+    public int indexOfAny() {
+        return StringUtils.indexOfAny(next(), searchChars);
+    }
+
+    @Benchmark
+    public int charSearcher() {
+        return searcher.indexIn(next());
+    }
+
+    @Benchmark
+    public int charSearcherCompiledPerCall() {
+        return new CharSearcher(searchChars).indexIn(next());
+    }
+
+    @Benchmark
+    public boolean containsNone() {
+        return StringUtils.containsNone(next(), searchChars);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link DateUtils} operations on calendars with those on epoch
+ * milliseconds, and with {@code java.time}, in one thread and in four threads.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dbenchmark=DateUtilsBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private static final int INSTANTS = FastDatePrinterBenchmark.INSTANTS;
+
+    private final TimeZone timeZone = FastDatePrinterBenchmark.TIME_ZONE;
+    private final ZoneId zoneId = timeZone.toZoneId();
+    private final long[] instants = new long[INSTANTS];
+
+    /**
+     * The state of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int index;
+
+        int next() {
+            return index = index + 1 & INSTANTS - 1;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < INSTANTS; i++) {
+            // from 1970 to 2033
+            instants[i] = (long) (random.nextDouble() * 2000000000000L);
+        }
+    }
+
+    @Benchmark
+    public Date truncateDate(final ThreadState state) {
+        final Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.setTimeInMillis(instants[state.next()]);
+        return DateUtils.truncate(calendar, Calendar.HOUR_OF_DAY).getTime();
+    }
+
+    @Benchmark
+    public long truncateMillis(final ThreadState state) {
+        return DateUtils.truncate(instants[state.next()], Calendar.HOUR_OF_DAY, timeZone);
+    }
+
+    @Benchmark
+    public long truncateZonedDateTime(final ThreadState state) {
+        return Instant.ofEpochMilli(instants[state.next()]).atZone(zoneId).truncatedTo(ChronoUnit.HOURS)
+                .toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date truncateDateContended(final ThreadState state) {
+        return truncateDate(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long truncateMillisContended(final ThreadState state) {
+        return truncateMillis(state);
+    }
+
+    @Benchmark
+    public long fragmentCalendar(final ThreadState state) {
+        final Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.setTimeInMillis(instants[state.next()]);
+        return DateUtils.getFragmentInMinutes(calendar, Calendar.YEAR);
+    }
+
+    @Benchmark
+    public long fragmentMillis(final ThreadState state) {
+        return DateUtils.getFragmentInMinutes(instants[state.next()], Calendar.YEAR, timeZone);
+    }
+
+    @Benchmark
+    public void iteratorCalendar(final ThreadState state, final Blackhole blackhole) {
+        final Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.setTimeInMillis(instants[state.next()]);
+        final Iterator<Calendar> days = DateUtils.iterator(calendar, DateUtils.RANGE_MONTH_MONDAY);
+        while (days.hasNext()) {
+            blackhole.consume(days.next());
+        }
+    }
+
+    @Benchmark
+    public void iteratorMillis(final ThreadState state, final Blackhole blackhole) {
+        final PrimitiveIterator.OfLong days =
+            DateUtils.iterator(instants[state.next()], DateUtils.RANGE_MONTH_MONDAY, timeZone);
+        while (days.hasNext()) {
+            blackhole.consume(days.nextLong());
+        }
+    }
+
+    @Benchmark
+    public void iteratorZonedDateTime(final ThreadState state, final Blackhole blackhole) {
+        ZonedDateTime day = Instant.ofEpochMilli(instants[state.next()]).atZone(zoneId).truncatedTo(ChronoUnit.DAYS);
+        final int month = day.getMonthValue();
+        for (day = day.withDayOfMonth(1); day.getMonthValue() == month; day = day.plusDays(1)) {
+            blackhole.consume(day.toInstant().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link DurationFormatUtils#formatPeriod(long, long, String, boolean, TimeZone)}
+ * in UTC, which computes the fields from epoch days, with the calendar
+ * implementation used for other time zones, and
+ * {@link DurationFormatUtils#formatDuration(long, String)} with formatting
+ * into a reused buffer through {@link DurationFormatter}.
+ *
+ * <p>Each invocation formats the next of about a million random ranges,
+ * from a few hours up to a few centuries long.</p>
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dbenchmark=DurationFormatUtilsBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurationFormatUtilsBenchmark {
+
+    private static final int RANGES = 1 << 20;
+
+    @Param({"y M d H m s S", "d H m s S"})
+    public String format;
+
+    private final TimeZone utc = TimeZone.getTimeZone("UTC");
+    private final long[] starts = new long[RANGES];
+    private final long[] ends = new long[RANGES];
+    private final StringBuilder buffer = new StringBuilder(64);
+    private DurationFormatter formatter;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < RANGES; i++) {
+            // from 1970 to 2033, up to 300 years long, mostly short
+            starts[i] = (long) (random.nextDouble() * 2000000000000L);
+            ends[i] = starts[i] + (long) (Math.pow(random.nextDouble(), 3) * 300 * 365 * DateUtils.MILLIS_PER_DAY);
+        }
+        formatter = DurationFormatter.getInstance(format);
+    }
+
+    private int next() {
+        return index = index + 1 & RANGES - 1;
+    }
+
+    @Benchmark
+    public String formatPeriodUtc() {
+        final int i = next();
+        return DurationFormatUtils.formatPeriod(starts[i], ends[i], format, true, utc);
+    }
+
+    @Benchmark
+    public String formatPeriodWithCalendar() {
+        final int i = next();
+        return DurationFormatUtils.formatPeriodWithCalendar(starts[i], ends[i], formatter, utc);
+    }
+
+    @Benchmark
+    public String formatDuration() {
+        final int i = next();
+        return DurationFormatUtils.formatDuration(ends[i] - starts[i], format);
+    }
+
+    @Benchmark
+    public StringBuilder formatDurationToBuilder() throws Exception {
+        final int i = next();
+        buffer.setLength(0);
+        return formatter.format(ends[i] - starts[i], buffer);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares parsing with {@link FastDateParser} to {@link SimpleDateFormat} and
+ * {@link DateTimeFormatter}, in one thread and in four threads sharing the parsers.
+ *
+ * <p>{@code SimpleDateFormat} is not thread-safe, so it is benchmarked both
+ * with an instance per thread and with a shared instance under a lock.</p>
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dbenchmark=FastDateParserBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastDateParserBenchmark {
+
+    private static final int SOURCES = FastDatePrinterBenchmark.INSTANTS;
+
+    private final DateParser fastDateParser = FastDateFormat.getInstance(FastDatePrinterBenchmark.PATTERN,
+            FastDatePrinterBenchmark.TIME_ZONE, Locale.US);
+    private final SimpleDateFormat sharedSimpleDateFormat = FastDatePrinterBenchmark.newSimpleDateFormat();
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(
+            FastDatePrinterBenchmark.PATTERN, Locale.US).withZone(FastDatePrinterBenchmark.TIME_ZONE.toZoneId());
+    private final String[] sources = new String[SOURCES];
+
+    /**
+     * The state of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SimpleDateFormat simpleDateFormat = FastDatePrinterBenchmark.newSimpleDateFormat();
+        int index;
+
+        int next() {
+            return index = index + 1 & SOURCES - 1;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final SimpleDateFormat format = FastDatePrinterBenchmark.newSimpleDateFormat();
+        for (int i = 0; i < SOURCES; i++) {
+            // from 1970 to 2033
+            sources[i] = format.format(new Date((long) (random.nextDouble() * 2000000000000L)));
+        }
+    }
+
+    @Benchmark
+    public Date fastDateParser(final ThreadState state) throws ParseException {
+        return fastDateParser.parse(sources[state.next()]);
+    }
+
+    @Benchmark
+    public Date simpleDateFormat(final ThreadState state) throws ParseException {
+        return state.simpleDateFormat.parse(sources[state.next()]);
+    }
+
+    @Benchmark
+    public ZonedDateTime dateTimeFormatter(final ThreadState state) {
+        return ZonedDateTime.parse(sources[state.next()], dateTimeFormatter);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date fastDateParserContended(final ThreadState state) throws ParseException {
+        return fastDateParser.parse(sources[state.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date simpleDateFormatContended(final ThreadState state) throws ParseException {
+        return state.simpleDateFormat.parse(sources[state.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date simpleDateFormatSharedContended(final ThreadState state) throws ParseException {
+        final String source = sources[state.next()];
+        synchronized (sharedSimpleDateFormat) {
+            return sharedSimpleDateFormat.parse(source);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ZonedDateTime dateTimeFormatterContended(final ThreadState state) {
+        return ZonedDateTime.parse(sources[state.next()], dateTimeFormatter);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares formatting with {@link FastDateFormat} and {@link FastDatePrinter} to
+ * {@link SimpleDateFormat} and {@link DateTimeFormatter}, in one thread and in
+ * four threads sharing the formatters.
+ *
+ * <p>{@code SimpleDateFormat} is not thread-safe, so it is benchmarked both
+ * with an instance per thread and with a shared instance under a lock.</p>
+ *
+ * <p>Run with {@code mvn test -Pbenchmark -Dbenchmark=FastDatePrinterBenchmark}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastDatePrinterBenchmark {
+
+    static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    static final TimeZone TIME_ZONE = TimeZone.getTimeZone("America/New_York");
+    static final int INSTANTS = 1024;
+
+    private final FastDateFormat fastDateFormat = FastDateFormat.getInstance(PATTERN, TIME_ZONE, Locale.US);
+    private final SimpleDateFormat sharedSimpleDateFormat = newSimpleDateFormat();
+    private final DateTimeFormatter dateTimeFormatter =
+        DateTimeFormatter.ofPattern(PATTERN, Locale.US).withZone(TIME_ZONE.toZoneId());
+    final long[] instants = new long[INSTANTS];
+
+    /**
+     * The state of a benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final SimpleDateFormat simpleDateFormat = newSimpleDateFormat();
+        final StringBuilder buffer = new StringBuilder(64);
+        int index;
+
+        int next() {
+            return index = index + 1 & INSTANTS - 1;
+        }
+    }
+
+    static SimpleDateFormat newSimpleDateFormat() {
+        final SimpleDateFormat format = new SimpleDateFormat(PATTERN, Locale.US);
+        format.setTimeZone(TIME_ZONE);
+        return format;
+    }
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < INSTANTS; i++) {
+            // from 1970 to 2033
+            instants[i] = (long) (random.nextDouble() * 2000000000000L);
+        }
+    }
+
+    @Benchmark
+    public String fastDateFormat(final ThreadState state) {
+        return fastDateFormat.format(instants[state.next()]);
+    }
+
+    @Benchmark
+    public StringBuilder fastDateFormatToBuilder(final ThreadState state) throws Exception {
+        state.buffer.setLength(0);
+        return fastDateFormat.format(instants[state.next()], state.buffer);
+    }
+
+    @Benchmark
+    public String simpleDateFormat(final ThreadState state) {
+        return state.simpleDateFormat.format(new Date(instants[state.next()]));
+    }
+
+    @Benchmark
+    public String dateTimeFormatter(final ThreadState state) {
+        return dateTimeFormatter.format(Instant.ofEpochMilli(instants[state.next()]));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String fastDateFormatContended(final ThreadState state) {
+        return fastDateFormat.format(instants[state.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String simpleDateFormatContended(final ThreadState state) {
+        return state.simpleDateFormat.format(new Date(instants[state.next()]));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String simpleDateFormatSharedContended(final ThreadState state) {
+        final Date date = new Date(instants[state.next()]);
+        synchronized (sharedSimpleDateFormat) {
+            return sharedSimpleDateFormat.format(date);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String dateTimeFormatterContended(final ThreadState state) {
+        return dateTimeFormatter.format(Instant.ofEpochMilli(instants[state.next()]));
+    }
+}
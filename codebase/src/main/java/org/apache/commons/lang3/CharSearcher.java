@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import java.util.Arrays;
+
+/**
+ * <p>Searches CharSequences for the characters of a set.</p>
+ *
+ * <p>The set is compiled into a bitmap when the searcher is created, so
+ * testing a character costs a shift and a mask however many characters the
+ * set holds. The ASCII characters are held in two {@code long}s. Other
+ * characters are held in a bitmap spanning from the lowest to the highest of
+ * them, or, if there are only a few of them, in a sorted array.</p>
+ *
+ * <pre>
+ * private static final CharSearcher SEPARATORS = new CharSearcher(" ,;:|\t");
+ * ...
+ * final int index = SEPARATORS.indexIn(line, start);
+ * </pre>
+ *
+ * <p>The searcher works on {@code char}s: each half of a surrogate pair is
+ * searched for on its own.</p>
+ *
+ * <p>This class is immutable and thread-safe.</p>
+ *
+ * @see StringUtils#indexOfAny(CharSequence, char...)
+ * @since 3.2
+ * @version $Id$
+ */
+public final class CharSearcher {
+
+    /**
+     * The most characters outside ASCII held in a sorted array rather than a bitmap.
+     */
+    private static final int MAX_SEARCHED = 16;
+
+    /** The bits of the characters 0 to 63. */
+    private final long low;
+    /** The bits of the characters 64 to 127. */
+    private final long high;
+    /** The lowest character outside ASCII, or {@code Character.MAX_VALUE} if there is none. */
+    private final char minOther;
+    /** The highest character outside ASCII, or 0 if there is none. */
+    private final char maxOther;
+    /** The characters outside ASCII in ascending order, or null if they are in the bitmap. */
+    private final char[] others;
+    /** The bitmap of the characters outside ASCII, from the word of the lowest, or null. */
+    private final long[] words;
+    /** Whether the set holds a high surrogate. */
+    private final boolean highSurrogates;
+
+    /**
+     * <p>Constructs a searcher for a set of characters.</p>
+     *
+     * @param chars  the characters to search for, null for none
+     */
+    public CharSearcher(final char... chars) {
+        long low = 0L;
+        long high = 0L;
+        char[] others = ArrayUtils.EMPTY_CHAR_ARRAY;
+        int count = 0;
+        if (chars != null) {
+            for (final char c : chars) {
+                if (c < 64) {
+                    low |= 1L << c;
+                } else if (c < 128) {
+                    high |= 1L << c;
+                } else {
+                    if (count == others.length) {
+                        others = Arrays.copyOf(others, Math.max(8, count * 2));
+                    }
+                    others[count++] = c;
+                }
+            }
+        }
+        this.low = low;
+        this.high = high;
+        Arrays.sort(others, 0, count);
+        minOther = count == 0 ? Character.MAX_VALUE : others[0];
+        maxOther = count == 0 ? 0 : others[count - 1];
+        highSurrogates = hasHighSurrogate(others, count);
+        if (count <= MAX_SEARCHED) {
+            this.others = Arrays.copyOf(others, count);
+            words = null;
+        } else {
+            this.others = null;
+            words = new long[(maxOther >>> 6) - (minOther >>> 6) + 1];
+            for (int i = 0; i < count; i++) {
+                words[(others[i] >>> 6) - (minOther >>> 6)] |= 1L << others[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Constructs a searcher for the characters of a CharSequence.</p>
+     *
+     * @param chars  the characters to search for, null for none
+     */
+    public CharSearcher(final CharSequence chars) {
+        this(chars == null ? null : CharSequenceUtils.toCharArray(chars));
+    }
+
+    /**
+     * <p>Tests whether a character is in the set.</p>
+     *
+     * @param c  the character
+     * @return true if the set holds the character
+     */
+    public boolean contains(final char c) {
+        if (c < 128) {
+            // the shift distance is taken modulo 64
+            return ((c < 64 ? low : high) & 1L << c) != 0;
+        }
+        if (c < minOther || c > maxOther) {
+            return false;
+        }
+        if (words != null) {
+            return (words[(c >>> 6) - (minOther >>> 6)] & 1L << c) != 0;
+        }
+        return Arrays.binarySearch(others, c) >= 0;
+    }
+
+    /**
+     * <p>Finds the first index of a character of the set in a CharSequence.</p>
+     *
+     * @param cs  the CharSequence to search, may be null
+     * @return the index of the first character in the set, -1 if there is none or null input
+     */
+    public int indexIn(final CharSequence cs) {
+        return indexIn(cs, 0);
+    }
+
+    /**
+     * <p>Finds the first index of a character of the set in a CharSequence,
+     * from a start position.</p>
+     *
+     * @param cs  the CharSequence to search, may be null
+     * @param start  the index to start from, negative treated as zero
+     * @return the index of the first character in the set, -1 if there is none or null input
+     */
+    public int indexIn(final CharSequence cs, final int start) {
+        if (cs == null) {
+            return StringUtils.INDEX_NOT_FOUND;
+        }
+        final int length = cs.length();
+        for (int i = Math.max(start, 0); i < length; i++) {
+            if (contains(cs.charAt(i))) {
+                return i;
+            }
+        }
+        return StringUtils.INDEX_NOT_FOUND;
+    }
+
+    /**
+     * <p>Finds the first index of a character not in the set in a CharSequence,
+     * from a start position.</p>
+     *
+     * @param cs  the CharSequence to search, may be null
+     * @param start  the index to start from, negative treated as zero
+     * @return the index of the first character not in the set, -1 if there is none or null input
+     */
+    public int indexNotIn(final CharSequence cs, final int start) {
+        if (cs == null) {
+            return StringUtils.INDEX_NOT_FOUND;
+        }
+        final int length = cs.length();
+        for (int i = Math.max(start, 0); i < length; i++) {
+            if (!contains(cs.charAt(i))) {
+                return i;
+            }
+        }
+        return StringUtils.INDEX_NOT_FOUND;
+    }
+
+    /**
+     * <p>Tests whether the set holds a high surrogate, which
+     * {@link StringUtils} matches together with the following character.</p>
+     *
+     * @return true if a character of the set is a high surrogate
+     */
+    boolean containsHighSurrogate() {
+        return highSurrogates;
+    }
+
+    /**
+     * <p>Tests whether some characters hold a high surrogate.</p>
+     *
+     * @param chars  the characters
+     * @param count  the number of characters to test
+     * @return true if one of the characters is a high surrogate
+     */
+    private static boolean hasHighSurrogate(final char[] chars, final int count) {
+        for (int i = 0; i < count; i++) {
+            if (Character.isHighSurrogate(chars[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
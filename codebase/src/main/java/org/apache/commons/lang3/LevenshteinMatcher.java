@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import java.util.Arrays;
+
+/**
+ * <p>Finds the Levenshtein distance between a query and many candidates.</p>
+ *
+ * <p>The distance is computed with the bit-parallel algorithm of Myers, in
+ * the formulation of Hyyr&ouml;, which processes 64 characters of the query
+ * with a few operations on a {@code long} for each character of a candidate.
+ * Queries longer than 64 characters are processed in blocks of 64. The bit
+ * masks of the query's characters are computed once when the matcher is
+ * created, so a matcher should be created once for a query and reused.</p>
+ *
+ * <pre>
+ * final LevenshteinMatcher matcher = new LevenshteinMatcher(name);
+ * final int[] distances = new int[candidates.length];
+ * matcher.distances(candidates, 2, distances);
+ * </pre>
+ *
+ * <p>Scoring a candidate against a query of up to 64 characters creates no
+ * objects, and neither does scoring an array of candidates after the first.</p>
+ *
+ * <p>This class is immutable and thread-safe.</p>
+ *
+ * @see StringUtils#getLevenshteinDistance(CharSequence, CharSequence)
+ * @since 3.2
+ * @version $Id$
+ */
+public final class LevenshteinMatcher {
+
+    /**
+     * The number of characters whose masks are held in a table, rather than
+     * searched for.
+     */
+    private static final int DIRECT_CHARS = 128;
+
+    /** The query. */
+    private final String query;
+    /** The number of 64 character blocks of the query. */
+    private final int blocks;
+    /** The bit of the last character of the query in the last block. */
+    private final long lastBit;
+    /** The distinct characters of the query, in ascending order. */
+    private final char[] chars;
+    /** The masks of the query's positions holding each of the distinct characters, by block. */
+    private final long[] masks;
+    /** The masks of the first characters, by block, or null. */
+    private final long[] directMasks;
+
+    /**
+     * <p>Constructs a matcher for a query.</p>
+     *
+     * @param query  the query, must not be null
+     * @throws IllegalArgumentException if the query is {@code null}
+     */
+    public LevenshteinMatcher(final CharSequence query) {
+        this(query, true);
+    }
+
+    /**
+     * <p>Constructs a matcher for a query.</p>
+     *
+     * @param query  the query, must not be null
+     * @param direct  whether to hold the masks of the first characters in a
+     *  table, which is worth it for a matcher that is reused
+     * @throws IllegalArgumentException if the query is {@code null}
+     */
+    LevenshteinMatcher(final CharSequence query, final boolean direct) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query must not be null");
+        }
+        this.query = query.toString();
+        final int length = this.query.length();
+        blocks = (length + 63) >>> 6;
+        lastBit = length == 0 ? 0 : 1L << (length - 1 & 63);
+
+        final char[] sorted = this.query.toCharArray();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        chars = Arrays.copyOf(sorted, distinct);
+        masks = new long[distinct * blocks];
+        for (int i = 0; i < length; i++) {
+            final int k = Arrays.binarySearch(chars, this.query.charAt(i));
+            masks[k * blocks + (i >>> 6)] |= 1L << (i & 63);
+        }
+        if (direct) {
+            directMasks = new long[DIRECT_CHARS * blocks];
+            for (int k = 0; k < distinct && chars[k] < DIRECT_CHARS; k++) {
+                System.arraycopy(masks, k * blocks, directMasks, chars[k] * blocks, blocks);
+            }
+        } else {
+            directMasks = null;
+        }
+    }
+
+    /**
+     * <p>Gets the query.</p>
+     *
+     * @return the query, not null
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * <p>Finds the Levenshtein distance between the query and a candidate.</p>
+     *
+     * @param candidate  the candidate, must not be null
+     * @return the distance
+     * @throws IllegalArgumentException if the candidate is {@code null}
+     */
+    public int distance(final CharSequence candidate) {
+        return distance(candidate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>Finds the Levenshtein distance between the query and a candidate if
+     * it's less than or equal to a given threshold.</p>
+     *
+     * @param candidate  the candidate, must not be null
+     * @param threshold  the target threshold, must not be negative
+     * @return the distance, or {@code -1} if the distance would be greater
+     *  than the threshold
+     * @throws IllegalArgumentException if the candidate is {@code null} or the
+     *  threshold negative
+     */
+    public int distance(final CharSequence candidate, final int threshold) {
+        if (candidate == null) {
+            throw new IllegalArgumentException("Strings must not be null");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        if (blocks > 1) {
+            return distance(candidate, threshold, new long[blocks], new long[blocks]);
+        }
+        return distance(candidate, threshold, null, null);
+    }
+
+    /**
+     * <p>Finds the Levenshtein distances between the query and each of an
+     * array of candidates.</p>
+     *
+     * @param candidates  the candidates, must not be null or contain {@code null}
+     * @param distances  the array to store the distances in, by the index of
+     *  the candidate, at least as long as the candidates
+     * @throws IllegalArgumentException if a candidate is {@code null}, or the
+     *  distances array is too short
+     */
+    public void distances(final CharSequence[] candidates, final int[] distances) {
+        distances(candidates, Integer.MAX_VALUE, distances);
+    }
+
+    /**
+     * <p>Finds the Levenshtein distances between the query and each of an
+     * array of candidates, where they are less than or equal to a given
+     * threshold.</p>
+     *
+     * @param candidates  the candidates, must not be null or contain {@code null}
+     * @param threshold  the target threshold, must not be negative
+     * @param distances  the array to store the distances in, by the index of
+     *  the candidate, at least as long as the candidates; a distance is
+     *  {@code -1} if it would be greater than the threshold
+     * @throws IllegalArgumentException if a candidate is {@code null}, the
+     *  threshold negative or the distances array too short
+     */
+    public void distances(final CharSequence[] candidates, final int threshold, final int[] distances) {
+        Validate.notNull(candidates, "The candidates must not be null");
+        Validate.notNull(distances, "The distances must not be null");
+        Validate.isTrue(distances.length >= candidates.length, "The distances array is shorter than the candidates");
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+        final long[] positive = blocks > 1 ? new long[blocks] : null;
+        final long[] negative = blocks > 1 ? new long[blocks] : null;
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] == null) {
+                throw new IllegalArgumentException("Strings must not be null");
+            }
+            distances[i] = distance(candidates[i], threshold, positive, negative);
+        }
+    }
+
+    /**
+     * <p>Finds the Levenshtein distance between the query and a candidate if
+     * it's less than or equal to a given threshold.</p>
+     *
+     * @param candidate  the candidate, not null
+     * @param threshold  the target threshold, not negative
+     * @param positive  the vertical positive deltas of each block, used if there is more than one
+     * @param negative  the vertical negative deltas of each block, used if there is more than one
+     * @return the distance, or {@code -1} if it would be greater than the threshold
+     */
+    private int distance(final CharSequence candidate, final int threshold, final long[] positive,
+            final long[] negative) {
+        final int m = query.length();
+        final int n = candidate.length();
+        if (Math.abs(n - m) > threshold) {
+            return -1;
+        }
+        if (m == 0) {
+            return n;
+        }
+        return blocks == 1 ? distance64(candidate, threshold) : distanceBlocked(candidate, threshold, positive, negative);
+    }
+
+    /**
+     * <p>Finds the distance with a query of up to 64 characters.</p>
+     *
+     * <p>Each column of the cost table, for a character of the candidate, is
+     * held as the bits of its positive and negative differences between
+     * consecutive rows. Only the cost of the last row is kept as a number.</p>
+     *
+     * @param candidate  the candidate, not null
+     * @param threshold  the target threshold, not negative
+     * @return the distance, or {@code -1} if it would be greater than the threshold
+     */
+    private int distance64(final CharSequence candidate, final int threshold) {
+        final int n = candidate.length();
+        long positive = -1L;
+        long negative = 0L;
+        int score = query.length();
+        for (int j = 0; j < n; j++) {
+            final long equal = getMask(candidate.charAt(j));
+            final long vertical = equal | negative;
+            final long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+            long horizontalPositive = negative | ~(horizontal | positive);
+            long horizontalNegative = positive & horizontal;
+            if ((horizontalPositive & lastBit) != 0) {
+                score++;
+            } else if ((horizontalNegative & lastBit) != 0) {
+                score--;
+            }
+            // the rest of the candidate can lower the cost by one per character at most
+            if (score - (n - j - 1) > threshold) {
+                return -1;
+            }
+            // the first row of the table is the index of the column
+            horizontalPositive = horizontalPositive << 1 | 1;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(vertical | horizontalPositive);
+            negative = horizontalPositive & vertical;
+        }
+        return score <= threshold ? score : -1;
+    }
+
+    /**
+     * <p>Finds the distance with a query of more than 64 characters, block by
+     * block. Each block passes the difference along its last row to the next.</p>
+     *
+     * @param candidate  the candidate, not null
+     * @param threshold  the target threshold, not negative
+     * @param positive  the vertical positive deltas of each block
+     * @param negative  the vertical negative deltas of each block
+     * @return the distance, or {@code -1} if it would be greater than the threshold
+     */
+    private int distanceBlocked(final CharSequence candidate, final int threshold, final long[] positive,
+            final long[] negative) {
+        Arrays.fill(positive, -1L);
+        Arrays.fill(negative, 0L);
+        final int n = candidate.length();
+        int score = query.length();
+        for (int j = 0; j < n; j++) {
+            final char c = candidate.charAt(j);
+            final long[] table;
+            int base;
+            if (directMasks != null && c < DIRECT_CHARS) {
+                table = directMasks;
+                base = c * blocks;
+            } else {
+                final int k = Arrays.binarySearch(chars, c);
+                table = k < 0 ? null : masks;
+                base = k * blocks;
+            }
+            // the first row of the table is the index of the column
+            int carry = 1;
+            for (int b = 0; b < blocks; b++) {
+                long equal = table == null ? 0L : table[base + b];
+                final long p = positive[b];
+                final long vertical = equal | negative[b];
+                if (carry < 0) {
+                    equal |= 1;
+                }
+                final long horizontal = (((equal & p) + p) ^ p) | equal;
+                long horizontalPositive = negative[b] | ~(horizontal | p);
+                long horizontalNegative = p & horizontal;
+                final long high = b == blocks - 1 ? lastBit : Long.MIN_VALUE;
+                final int out = (horizontalPositive & high) != 0 ? 1 : (horizontalNegative & high) != 0 ? -1 : 0;
+                horizontalPositive <<= 1;
+                horizontalNegative <<= 1;
+                if (carry < 0) {
+                    horizontalNegative |= 1;
+                } else if (carry > 0) {
+                    horizontalPositive |= 1;
+                }
+                positive[b] = horizontalNegative | ~(vertical | horizontalPositive);
+                negative[b] = horizontalPositive & vertical;
+                carry = out;
+            }
+            score += carry;
+            // the rest of the candidate can lower the cost by one per character at most
+            if (score - (n - j - 1) > threshold) {
+                return -1;
+            }
+        }
+        return score <= threshold ? score : -1;
+    }
+
+    /**
+     * <p>Gets the mask of the positions of a character in a query of up to
+     * 64 characters.</p>
+     *
+     * @param c  the character
+     * @return the mask, with a bit set for each position holding the character
+     */
+    private long getMask(final char c) {
+        if (directMasks != null && c < DIRECT_CHARS) {
+            return directMasks[c];
+        }
+        final int k = Arrays.binarySearch(chars, c);
+        return k < 0 ? 0L : masks[k];
+    }
+
+}
@@ -0,0 +1,298 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replaces all occurrences of several Strings within other Strings, scanning
+ * each String once whatever the number of search strings.
+ * <p>
+ * The search strings are compiled into an Aho-Corasick automaton when the
+ * replacer is created, so a replacer should be created once for a dictionary
+ * and reused. The results are those of
+ * {@link StringUtils#replaceEach(String, String[], String[])}
+ * and {@link StringUtils#replaceEachRepeatedly(String, String[], String[])}:
+ * the earliest occurrence is replaced first, the first in the search list
+ * wins if several occur at the same index, and a search string or replacement
+ * that is null, or a search string that is empty, is ignored.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @since 3.2
+ * @version $Id$
+ */
+public final class MultiPatternReplacer {
+
+    /**
+     * The number of characters whose transitions from the initial state are
+     * held in a table, rather than searched for.
+     */
+    private static final int DIRECT_CHARS = 128;
+
+    /** The search strings, as given. */
+    private final String[] searchList;
+    /** The replacements, as given. */
+    private final String[] replacementList;
+    /** The length of the longest search string. */
+    private final int longest;
+    /** The estimated growth of a String, as used by StringUtils.replaceEach. */
+    private final int increase;
+
+    /** The characters of the transitions of each state, from edgeOffsets[state], in ascending order. */
+    private final char[] edgeChars;
+    /** The states the transitions lead to. */
+    private final int[] edgeTargets;
+    /** The index of the first transition of each state, and the number of transitions at the end. */
+    private final int[] edgeOffsets;
+    /** The transitions from the initial state for the first characters, or 0 for none. */
+    private final int[] directTargets = new int[DIRECT_CHARS];
+    /** The state of the longest proper suffix of each state that is also a state. */
+    private final int[] failures;
+    /** The index of the longest search string ending at each state, or -1. */
+    private final int[] outputs;
+
+    /**
+     * Constructs a replacer.
+     *
+     * @param searchList  the Strings to search for, no-op if null
+     * @param replacementList  the Strings to replace them with, no-op if null
+     * @throws IllegalArgumentException if the lengths of the arrays are not the same
+     *  (null is ok, and/or size 0)
+     */
+    public MultiPatternReplacer(final String[] searchList, final String[] replacementList) {
+        if (searchList == null || replacementList == null) {
+            this.searchList = new String[0];
+            this.replacementList = this.searchList;
+        } else {
+            if (searchList.length != replacementList.length) {
+                throw new IllegalArgumentException("Search and Replace array lengths don't match: "
+                    + searchList.length
+                    + " vs "
+                    + replacementList.length);
+            }
+            this.searchList = searchList.clone();
+            this.replacementList = replacementList.clone();
+        }
+
+        // the trie of the search strings
+        final List<TreeMap<Character, Integer>> trie = new ArrayList<TreeMap<Character, Integer>>();
+        final List<Integer> terminals = new ArrayList<Integer>();
+        trie.add(new TreeMap<Character, Integer>());
+        terminals.add(Integer.valueOf(-1));
+        int longest = 0;
+        int increase = 0;
+        for (int i = 0; i < this.searchList.length; i++) {
+            final String search = this.searchList[i];
+            final String replacement = this.replacementList[i];
+            if (search == null || search.isEmpty() || replacement == null) {
+                continue;
+            }
+            int state = 0;
+            for (int j = 0; j < search.length(); j++) {
+                final Character c = Character.valueOf(search.charAt(j));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = Integer.valueOf(trie.size());
+                    trie.get(state).put(c, next);
+                    trie.add(new TreeMap<Character, Integer>());
+                    terminals.add(Integer.valueOf(-1));
+                }
+                state = next.intValue();
+            }
+            // the first of equal search strings wins
+            if (terminals.get(state).intValue() < 0) {
+                terminals.set(state, Integer.valueOf(i));
+            }
+            longest = Math.max(longest, search.length());
+            final int greater = replacement.length() - search.length();
+            if (greater > 0) {
+                increase += 3 * greater; // assume 3 matches
+            }
+        }
+        this.longest = longest;
+        this.increase = increase;
+
+        final int states = trie.size();
+        edgeOffsets = new int[states + 1];
+        edgeChars = new char[states - 1];
+        edgeTargets = new int[states - 1];
+        int edge = 0;
+        for (int state = 0; state < states; state++) {
+            edgeOffsets[state] = edge;
+            for (final Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                edgeChars[edge] = entry.getKey().charValue();
+                edgeTargets[edge] = entry.getValue().intValue();
+                if (state == 0 && edgeChars[edge] < DIRECT_CHARS) {
+                    directTargets[edgeChars[edge]] = edgeTargets[edge];
+                }
+                edge++;
+            }
+        }
+        edgeOffsets[states] = edge;
+
+        // failure links and outputs, breadth first so that shorter states are done first
+        failures = new int[states];
+        outputs = new int[states];
+        outputs[0] = -1;
+        final int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            final int state = queue[head++];
+            for (int e = edgeOffsets[state]; e < edgeOffsets[state + 1]; e++) {
+                final int target = edgeTargets[e];
+                if (state != 0) {
+                    int failure = failures[state];
+                    int next = getTransition(failure, edgeChars[e]);
+                    while (next < 0 && failure != 0) {
+                        failure = failures[failure];
+                        next = getTransition(failure, edgeChars[e]);
+                    }
+                    failures[target] = next < 0 ? 0 : next;
+                }
+                final int terminal = terminals.get(target).intValue();
+                outputs[target] = terminal >= 0 ? terminal : outputs[failures[target]];
+                queue[tail++] = target;
+            }
+        }
+    }
+
+    /**
+     * Gets the state reached from a state by a character.
+     *
+     * @param state  the state
+     * @param c  the character
+     * @return the next state, or -1 if the state has no transition for the character
+     */
+    private int getTransition(final int state, final char c) {
+        if (state == 0 && c < DIRECT_CHARS) {
+            final int target = directTargets[c];
+            return target == 0 ? -1 : target;
+        }
+        final int from = edgeOffsets[state];
+        final int i = Arrays.binarySearch(edgeChars, from, edgeOffsets[state + 1], c);
+        return i < 0 ? -1 : edgeTargets[i];
+    }
+
+    /**
+     * Replaces all occurrences of the search strings, without repeating.
+     *
+     * @param text  text to search and replace in, no-op if null
+     * @return the text with any replacements processed, the same String if
+     *  there were none, {@code null} if null String input
+     * @see StringUtils#replaceEach(String, String[], String[])
+     */
+    public String replace(final String text) {
+        if (text == null) {
+            return null;
+        }
+        final int length = text.length();
+        StringBuilder buf = null;
+        // the start of the text not yet appended
+        int start = 0;
+        int state = 0;
+        int index = 0;
+        // the earliest occurrence found so far
+        int match = -1;
+        int matchIndex = -1;
+        while (true) {
+            if (match >= 0 && (index == length || index - longest >= matchIndex)) {
+                // no occurrence ending from here on can start at or before the match
+                if (buf == null) {
+                    buf = new StringBuilder(length + Math.min(increase, length / 5));
+                }
+                buf.append(text, start, matchIndex).append(replacementList[match]);
+                start = matchIndex + searchList[match].length();
+                index = start;
+                state = 0;
+                match = -1;
+                continue;
+            }
+            if (index == length) {
+                break;
+            }
+            final char c = text.charAt(index++);
+            int next = getTransition(state, c);
+            while (next < 0 && state != 0) {
+                state = failures[state];
+                next = getTransition(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            final int output = outputs[state];
+            if (output >= 0) {
+                final int outputIndex = index - searchList[output].length();
+                if (match < 0 || outputIndex < matchIndex || outputIndex == matchIndex && output < match) {
+                    match = output;
+                    matchIndex = outputIndex;
+                }
+            }
+        }
+        if (buf == null) {
+            return text;
+        }
+        return buf.append(text, start, length).toString();
+    }
+
+    /**
+     * Replaces all occurrences of the search strings, repeating until there
+     * are no more.
+     *
+     * @param text  text to search and replace in, no-op if null
+     * @return the text with any replacements processed, {@code null} if
+     *  null String input
+     * @throws IllegalStateException if there is an endless loop due to
+     *  outputs of one being inputs to another
+     * @see StringUtils#replaceEachRepeatedly(String, String[], String[])
+     */
+    public String replaceRepeatedly(final String text) {
+        // as StringUtils.replaceEachRepeatedly
+        return replaceRepeatedly(text, searchList.length);
+    }
+
+    /**
+     * Replaces all occurrences of the search strings, repeating until there
+     * are no more or the passes run out.
+     *
+     * @param text  text to search and replace in, no-op if null
+     * @param timeToLive  the number of further passes allowed
+     * @return the text with any replacements processed, {@code null} if
+     *  null String input
+     * @throws IllegalStateException if the passes run out
+     */
+    String replaceRepeatedly(final String text, final int timeToLive) {
+        String result = text;
+        for (int passes = timeToLive; result != null && !result.isEmpty(); passes--) {
+            if (passes < 0) {
+                throw new IllegalStateException("Aborting to protect against StackOverflowError - " +
+                                                "output of one loop is the input of another");
+            }
+            final String replaced = replace(result);
+            if (replaced == result) {
+                break;
+            }
+            result = replaced;
+        }
+        return result;
+    }
+
+}
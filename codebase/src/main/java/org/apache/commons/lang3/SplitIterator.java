@@ -0,0 +1,405 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import java.nio.CharBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Splits a CharSequence lazily, with the separators of the
+ * {@code split} methods of {@link StringUtils}.</p>
+ *
+ * <p>The {@code StringUtils} methods copy every token into a String and
+ * collect them in an array. This iterator finds one token at a time and
+ * copies nothing: {@link #next()} returns a read-only view of the input,
+ * and {@link #nextToken()} only moves to the next token, whose bounds are
+ * then given by {@link #start()} and {@link #end()}. Reading one field of
+ * a delimited line creates no objects for the fields before it.</p>
+ *
+ * <pre>
+ * final SplitIterator fields = SplitIterator.splitPreserveAllTokens(line, ',');
+ * for (int i = 0; i &lt; 3 &amp;&amp; fields.nextToken(); i++) {
+ *     // skip
+ * }
+ * final int amount = Integer.parseInt(line.substring(fields.start(), fields.end()));
+ * </pre>
+ *
+ * <p>The tokens are the same as those of the {@code StringUtils} method
+ * of the same name. A {@code null} input has no tokens. The input must not
+ * be changed while it is being split.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ *
+ * @see StringUtils#split(String, String, int)
+ * @since 3.2
+ * @version $Id$
+ */
+public final class SplitIterator implements Iterator<CharSequence> {
+
+    /** The input. */
+    private final CharSequence input;
+    /** The length of the input. */
+    private final int length;
+    /** The separator characters, or null to split on whitespace or a whole separator. */
+    private final CharSearcher separatorChars;
+    /** The whole separator, or null to split on characters. */
+    private final String separator;
+    /** The maximum number of tokens, zero or negative for no limit. */
+    private final int max;
+    /** Whether adjacent separators make empty tokens. */
+    private final boolean preserveAllTokens;
+
+    /** The index of the next character to read. */
+    private int pos;
+    /** The start of the token being read. */
+    private int tokenStart;
+    /** The number of tokens found, plus one. */
+    private int sizePlus1 = 1;
+    /** Whether a character that is not a separator has been read since the last token. */
+    private boolean match;
+    /** Whether the last character read was a separator that ended a token. */
+    private boolean lastMatch;
+    /** Whether the end of the input has been reached. */
+    private boolean finished;
+
+    /** Whether the next token has been found. */
+    private boolean pending;
+    /** The start of the next token. */
+    private int pendingStart;
+    /** The end of the next token. */
+    private int pendingEnd;
+
+    /** The start of the current token, -1 before the first. */
+    private int start = -1;
+    /** The end of the current token, -1 before the first. */
+    private int end = -1;
+
+    /**
+     * <p>Constructs an iterator.</p>
+     *
+     * @param input  the CharSequence to split, may be null
+     * @param separatorChars  the separator characters, null for whitespace or a whole separator
+     * @param separator  the whole separator, null to split on characters
+     * @param max  the maximum number of tokens, zero or negative for no limit
+     * @param preserveAllTokens  whether adjacent separators make empty tokens
+     */
+    private SplitIterator(final CharSequence input, final CharSearcher separatorChars, final String separator,
+            final int max, final boolean preserveAllTokens) {
+        this.input = input;
+        this.length = input == null ? 0 : input.length();
+        this.separatorChars = separatorChars;
+        this.separator = separator;
+        this.max = max;
+        this.preserveAllTokens = preserveAllTokens;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Splits on whitespace, as defined by {@link Character#isWhitespace(char)}.
+     * Adjacent separators are treated as one separator.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @return an iterator over the tokens
+     * @see StringUtils#split(String)
+     */
+    public static SplitIterator split(final CharSequence str) {
+        return split(str, null, -1);
+    }
+
+    /**
+     * <p>Splits on a separator character. Adjacent separators are treated
+     * as one separator.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separatorChar  the separator character
+     * @return an iterator over the tokens
+     * @see StringUtils#split(String, char)
+     */
+    public static SplitIterator split(final CharSequence str, final char separatorChar) {
+        return new SplitIterator(str, new CharSearcher(separatorChar), null, -1, false);
+    }
+
+    /**
+     * <p>Splits on any of some separator characters, into at most
+     * {@code max} tokens. Adjacent separators are treated as one separator.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separatorChars  the separator characters, null splits on whitespace
+     * @param max  the maximum number of tokens, the last holding the rest of
+     *  the input; zero or negative for no limit
+     * @return an iterator over the tokens
+     * @see StringUtils#split(String, String, int)
+     */
+    public static SplitIterator split(final CharSequence str, final String separatorChars, final int max) {
+        return new SplitIterator(str, separatorChars == null ? null : new CharSearcher(separatorChars), null,
+            max, false);
+    }
+
+    /**
+     * <p>Splits on a separator character. Adjacent separators are treated
+     * as separators for empty tokens.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separatorChar  the separator character
+     * @return an iterator over the tokens
+     * @see StringUtils#splitPreserveAllTokens(String, char)
+     */
+    public static SplitIterator splitPreserveAllTokens(final CharSequence str, final char separatorChar) {
+        return new SplitIterator(str, new CharSearcher(separatorChar), null, -1, true);
+    }
+
+    /**
+     * <p>Splits on any of some separator characters, into at most
+     * {@code max} tokens. Adjacent separators are treated as separators for
+     * empty tokens.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separatorChars  the separator characters, null splits on whitespace
+     * @param max  the maximum number of tokens, the last holding the rest of
+     *  the input; zero or negative for no limit
+     * @return an iterator over the tokens
+     * @see StringUtils#splitPreserveAllTokens(String, String, int)
+     */
+    public static SplitIterator splitPreserveAllTokens(final CharSequence str, final String separatorChars,
+            final int max) {
+        return new SplitIterator(str, separatorChars == null ? null : new CharSearcher(separatorChars), null,
+            max, true);
+    }
+
+    /**
+     * <p>Splits on a whole separator, into at most {@code max} tokens.
+     * Adjacent separators are treated as one separator.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separator  the separator, null or empty splits on whitespace
+     * @param max  the maximum number of tokens, the last holding the rest of
+     *  the input; zero or negative for no limit
+     * @return an iterator over the tokens
+     * @see StringUtils#splitByWholeSeparator(String, String, int)
+     */
+    public static SplitIterator splitByWholeSeparator(final CharSequence str, final String separator,
+            final int max) {
+        return new SplitIterator(str, null, StringUtils.isEmpty(separator) ? null : separator, max, false);
+    }
+
+    /**
+     * <p>Splits on a whole separator, into at most {@code max} tokens.
+     * Adjacent separators are treated as separators for empty tokens.</p>
+     *
+     * @param str  the CharSequence to split, may be null
+     * @param separator  the separator, null or empty splits on whitespace
+     * @param max  the maximum number of tokens, the last holding the rest of
+     *  the input; zero or negative for no limit
+     * @return an iterator over the tokens
+     * @see StringUtils#splitByWholeSeparatorPreserveAllTokens(String, String, int)
+     */
+    public static SplitIterator splitByWholeSeparatorPreserveAllTokens(final CharSequence str,
+            final String separator, final int max) {
+        return new SplitIterator(str, null, StringUtils.isEmpty(separator) ? null : separator, max, true);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Checks whether there is another token.</p>
+     *
+     * @return true if there is another token
+     */
+    @Override
+    public boolean hasNext() {
+        if (!pending) {
+            pending = separator == null ? findNextSplit() : findNextWholeSplit();
+        }
+        return pending;
+    }
+
+    /**
+     * <p>Moves to the next token and returns a view of it.</p>
+     *
+     * <p>The view shares the characters of the input; its {@code toString()}
+     * copies them into a String.</p>
+     *
+     * @return the next token, a read-only view of the input
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    @Override
+    public CharSequence next() {
+        if (!nextToken()) {
+            throw new NoSuchElementException();
+        }
+        return CharBuffer.wrap(input, start, end);
+    }
+
+    /**
+     * <p>Moves to the next token, if there is one, without creating a view
+     * of it.</p>
+     *
+     * @return true if there was another token, false at the end of the input
+     */
+    public boolean nextToken() {
+        if (!hasNext()) {
+            return false;
+        }
+        pending = false;
+        start = pendingStart;
+        end = pendingEnd;
+        return true;
+    }
+
+    /**
+     * <p>Gets the index in the input of the start of the current token.</p>
+     *
+     * @return the index of the first character of the token
+     * @throws IllegalStateException if there is no current token
+     */
+    public int start() {
+        checkToken();
+        return start;
+    }
+
+    /**
+     * <p>Gets the index in the input of the end of the current token.</p>
+     *
+     * @return the index after the last character of the token
+     * @throws IllegalStateException if there is no current token
+     */
+    public int end() {
+        checkToken();
+        return end;
+    }
+
+    /**
+     * <p>Unsupported, the input is not changed.</p>
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is unsupported");
+    }
+
+    /**
+     * <p>Checks that a token has been moved to.</p>
+     *
+     * @throws IllegalStateException if there is no current token
+     */
+    private void checkToken() {
+        if (start < 0) {
+            throw new IllegalStateException("No token has been read");
+        }
+    }
+
+    /**
+     * <p>Records the next token.</p>
+     *
+     * @param tokenStart  the start of the token
+     * @param tokenEnd  the end of the token
+     * @return true
+     */
+    private boolean found(final int tokenStart, final int tokenEnd) {
+        pendingStart = tokenStart;
+        pendingEnd = tokenEnd;
+        return true;
+    }
+
+    /**
+     * <p>Finds the next token between separator characters, as
+     * {@code StringUtils.splitWorker} does.</p>
+     *
+     * @return true if there is another token
+     */
+    private boolean findNextSplit() {
+        while (pos < length) {
+            final char c = input.charAt(pos);
+            if (separatorChars == null ? Character.isWhitespace(c) : separatorChars.contains(c)) {
+                if (match || preserveAllTokens) {
+                    lastMatch = true;
+                    int tokenEnd = pos;
+                    if (sizePlus1++ == max) {
+                        tokenEnd = pos = length;
+                        lastMatch = false;
+                    }
+                    match = false;
+                    final int token = tokenStart;
+                    tokenStart = ++pos;
+                    return found(token, tokenEnd);
+                }
+                tokenStart = ++pos;
+                continue;
+            }
+            lastMatch = false;
+            match = true;
+            pos++;
+        }
+        if (!finished) {
+            finished = true;
+            if (match || preserveAllTokens && lastMatch) {
+                return found(tokenStart, pos);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>Finds the next token between whole separators, as
+     * {@code StringUtils.splitByWholeSeparatorWorker} does.</p>
+     *
+     * @return true if there is another token
+     */
+    private boolean findNextWholeSplit() {
+        while (pos < length) {
+            pos = indexOfSeparator(tokenStart);
+            if (pos > -1) {
+                if (pos > tokenStart || preserveAllTokens) {
+                    final int token = tokenStart;
+                    if (sizePlus1++ == max) {
+                        pos = length;
+                        return found(token, length);
+                    }
+                    tokenStart = pos + separator.length();
+                    return found(token, pos);
+                }
+                // consecutive separators are treated as one
+                tokenStart = pos + separator.length();
+            } else {
+                pos = length;
+                return found(tokenStart, length);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>Finds the next whole separator.</p>
+     *
+     * @param from  the index to search from
+     * @return the index of the separator, -1 if there is none
+     */
+    private int indexOfSeparator(final int from) {
+        if (input instanceof String) {
+            return ((String) input).indexOf(separator, from);
+        }
+        final int last = length - separator.length();
+        for (int i = from; i <= last; i++) {
+            if (CharSequenceUtils.regionMatches(input, false, i, separator, 0, separator.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
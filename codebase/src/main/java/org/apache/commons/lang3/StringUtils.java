@@ -16,10 +16,12 @@
  */
 package org.apache.commons.lang3;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -170,6 +172,57 @@ public class StringUtils {
      */
     private static final int PAD_LIMIT = 8192;
 
+    /**
+     * <p>The number of search strings from which replaceEach scans the text
+     * once with a {@link MultiPatternReplacer}, rather than once per search
+     * string.</p>
+     */
+    private static final int REPLACE_EACH_AUTOMATON_THRESHOLD = 32;
+
+    /**
+     * <p>The length of text from which replaceEach uses a {@link MultiPatternReplacer}
+     * for many search strings. The replacer is built on each call, which costs
+     * more than it saves on shorter text.</p>
+     */
+    private static final int REPLACE_EACH_AUTOMATON_MIN_LENGTH = 2048;
+
+    /**
+     * <p>The number of characters to search for from which indexOfAny,
+     * indexOfAnyBut, containsAny and containsNone compile them into a
+     * {@link CharSearcher}.</p>
+     */
+    private static final int CHAR_SEARCHER_MIN_CHARS = 4;
+
+    /**
+     * <p>The product of the lengths of the CharSequence and of the characters
+     * to search for from which a {@link CharSearcher} is compiled.</p>
+     */
+    private static final int CHAR_SEARCHER_MIN_WORK = 256;
+
+    /**
+     * <p>The number of characters that the {@code Appendable} variants of
+     * join buffer before appending them.</p>
+     */
+    private static final int JOIN_CHUNK_SIZE = 8192;
+
+    /**
+     * <p>The number of elements from which the primitive and collection
+     * variants of join estimate the length of the String of each element.</p>
+     */
+    private static final int JOIN_SAMPLE_SIZE = 8;
+
+    /**
+     * <p>The length of the longest String of a double, such as
+     * {@code -1.2345678901234567E-300}.</p>
+     */
+    private static final int MAX_DOUBLE_LENGTH = 24;
+
+    /**
+     * <p>The length of the longest String of a float, such as
+     * {@code -1.2345678E-30}.</p>
+     */
+    private static final int MAX_FLOAT_LENGTH = 15;
+
     /**
      * A regex pattern for recognizing blocks of whitespace characters.
      * The apparent convolutedness of the pattern serves the purpose of
@@ -1434,6 +1487,10 @@ public class StringUtils {
         if (isEmpty(cs) || ArrayUtils.isEmpty(searchChars)) {
             return INDEX_NOT_FOUND;
         }
+        final CharSearcher searcher = getCharSearcher(cs, searchChars);
+        if (searcher != null) {
+            return searcher.indexIn(cs, 0);
+        }
         final int csLen = cs.length();
         final int csLast = csLen - 1;
         final int searchLen = searchChars.length;
@@ -1516,6 +1573,10 @@ public class StringUtils {
         if (isEmpty(cs) || ArrayUtils.isEmpty(searchChars)) {
             return false;
         }
+        final CharSearcher searcher = getCharSearcher(cs, searchChars);
+        if (searcher != null) {
+            return searcher.indexIn(cs, 0) != INDEX_NOT_FOUND;
+        }
         final int csLength = cs.length();
         final int searchLength = searchChars.length;
         final int csLast = csLength - 1;
@@ -1607,6 +1668,10 @@ public class StringUtils {
         if (isEmpty(cs) || ArrayUtils.isEmpty(searchChars)) {
             return INDEX_NOT_FOUND;
         }
+        final CharSearcher searcher = getCharSearcher(cs, searchChars);
+        if (searcher != null) {
+            return searcher.indexNotIn(cs, 0);
+        }
         final int csLen = cs.length();
         final int csLast = csLen - 1;
         final int searchLen = searchChars.length;
@@ -1658,6 +1723,19 @@ public class StringUtils {
             return INDEX_NOT_FOUND;
         }
         final int strLen = seq.length();
+        final CharSearcher searcher = getCharSearcher(seq, searchChars);
+        if (searcher != null) {
+            int i = 0;
+            while ((i = searcher.indexNotIn(seq, i)) != INDEX_NOT_FOUND) {
+                // a high surrogate that is not found is passed over for its low surrogate, as below
+                if (i + 1 < strLen && Character.isHighSurrogate(seq.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                return i;
+            }
+            return INDEX_NOT_FOUND;
+        }
         for (int i = 0; i < strLen; i++) {
             final char ch = seq.charAt(i);
             final boolean chFound = CharSequenceUtils.indexOf(searchChars, ch, 0) >= 0;
@@ -1772,6 +1850,10 @@ public class StringUtils {
         if (cs == null || searchChars == null) {
             return true;
         }
+        final CharSearcher searcher = getCharSearcher(cs, searchChars);
+        if (searcher != null) {
+            return searcher.indexIn(cs, 0) == INDEX_NOT_FOUND;
+        }
         final int csLen = cs.length();
         final int csLast = csLen - 1;
         final int searchLen = searchChars.length;
@@ -1828,6 +1910,45 @@ public class StringUtils {
         return containsNone(cs, invalidChars.toCharArray());
     }
 
+    /**
+     * <p>Compiles the characters searched for by the methods above into a
+     * {@link CharSearcher} if the search is long enough for it to pay off.</p>
+     *
+     * <p>The searcher tests each character on its own, so it is only used
+     * when the characters hold no high surrogate, which these methods match
+     * together with the character after it.</p>
+     *
+     * @param cs  the CharSequence to search, not null
+     * @param searchChars  the characters to search for, not null
+     * @return the searcher, or null to search with nested loops
+     */
+    private static CharSearcher getCharSearcher(final CharSequence cs, final char[] searchChars) {
+        if (searchChars.length < CHAR_SEARCHER_MIN_CHARS
+                || (long) cs.length() * searchChars.length < CHAR_SEARCHER_MIN_WORK) {
+            return null;
+        }
+        final CharSearcher searcher = new CharSearcher(searchChars);
+        return searcher.containsHighSurrogate() ? null : searcher;
+    }
+
+    /**
+     * <p>Compiles the characters searched for by the methods above into a
+     * {@link CharSearcher} if the search is long enough for it to pay off.</p>
+     *
+     * @param cs  the CharSequence to search, not null
+     * @param searchChars  the characters to search for, not null
+     * @return the searcher, or null to search with nested loops
+     * @see #getCharSearcher(CharSequence, char[])
+     */
+    private static CharSearcher getCharSearcher(final CharSequence cs, final CharSequence searchChars) {
+        if (searchChars.length() < CHAR_SEARCHER_MIN_CHARS
+                || (long) cs.length() * searchChars.length() < CHAR_SEARCHER_MIN_WORK) {
+            return null;
+        }
+        final CharSearcher searcher = new CharSearcher(searchChars);
+        return searcher.containsHighSurrogate() ? null : searcher;
+    }
+
     // IndexOfAny strings
     //-----------------------------------------------------------------------
     /**
@@ -2552,6 +2673,9 @@ public class StringUtils {
      * StringUtils.split("ab:cd:ef", ":", 2)    = ["ab", "cd:ef"]
      * </pre>
      *
+     * <p>{@link SplitIterator} finds the same tokens one at a time, without
+     * copying them.</p>
+     *
      * @param str  the String to parse, may be null
      * @param separatorChars  the characters used as the delimiters,
      *  {@code null} splits on whitespace
@@ -3463,7 +3587,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex, 1)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3514,7 +3638,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3563,7 +3687,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3612,7 +3736,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3661,7 +3785,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3710,7 +3834,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(noOfItems * 2 - 1);
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3759,7 +3883,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3808,7 +3932,7 @@ public class StringUtils {
         if (noOfItems <= 0) {
             return EMPTY;
         }
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(capacity(estimateLength(array, startIndex, endIndex)));
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
                 buf.append(separator);
@@ -3892,14 +4016,13 @@ public class StringUtils {
             separator = EMPTY;
         }
 
-        // endIndex - startIndex > 0:   Len = NofStrings *(len(firstString) + len(separator))
-        //           (Assuming that all Strings are roughly equally long)
         final int noOfItems = endIndex - startIndex;
         if (noOfItems <= 0) {
             return EMPTY;
         }
 
-        final StringBuilder buf = new StringBuilder(noOfItems * 16);
+        final StringBuilder buf = new StringBuilder(
+            capacity(estimateLength(array, startIndex, endIndex, separator.length())));
 
         for (int i = startIndex; i < endIndex; i++) {
             if (i > startIndex) {
@@ -3927,6 +4050,23 @@ public class StringUtils {
      * @since 2.0
      */
     public static String join(final Iterator<?> iterator, final char separator) {
+        return join(iterator, separator, 0);
+    }
+
+    /**
+     * <p>Joins the elements of the provided {@code Iterator} into
+     * a single String containing the provided elements.</p>
+     *
+     * <p>Once the first few elements are appended, the buffer is grown to
+     * the length their Strings suggest for all the elements, if the number
+     * of elements is known.</p>
+     *
+     * @param iterator  the {@code Iterator} of values to join together, may be null
+     * @param separator  the separator character to use
+     * @param noOfItems  the number of elements of the iterator, zero if unknown
+     * @return the joined String, {@code null} if null iterator input
+     */
+    private static String join(final Iterator<?> iterator, final char separator, final int noOfItems) {
 
         // handle null, zero and one elements before building a buffer
         if (iterator == null) {
@@ -3946,12 +4086,16 @@ public class StringUtils {
             buf.append(first);
         }
 
+        int count = 1;
         while (iterator.hasNext()) {
             buf.append(separator);
             final Object obj = iterator.next();
             if (obj != null) {
                 buf.append(obj);
             }
+            if (++count == JOIN_SAMPLE_SIZE && noOfItems > count) {
+                buf.ensureCapacity(capacity((long) buf.length() * noOfItems / count));
+            }
         }
 
         return buf.toString();
@@ -3971,6 +4115,23 @@ public class StringUtils {
      * @return the joined String, {@code null} if null iterator input
      */
     public static String join(final Iterator<?> iterator, final String separator) {
+        return join(iterator, separator, 0);
+    }
+
+    /**
+     * <p>Joins the elements of the provided {@code Iterator} into
+     * a single String containing the provided elements.</p>
+     *
+     * <p>Once the first few elements are appended, the buffer is grown to
+     * the length their Strings suggest for all the elements, if the number
+     * of elements is known.</p>
+     *
+     * @param iterator  the {@code Iterator} of values to join together, may be null
+     * @param separator  the separator character to use, null treated as ""
+     * @param noOfItems  the number of elements of the iterator, zero if unknown
+     * @return the joined String, {@code null} if null iterator input
+     */
+    private static String join(final Iterator<?> iterator, final String separator, final int noOfItems) {
 
         // handle null, zero and one elements before building a buffer
         if (iterator == null) {
@@ -3990,6 +4151,7 @@ public class StringUtils {
             buf.append(first);
         }
 
+        int count = 1;
         while (iterator.hasNext()) {
             if (separator != null) {
                 buf.append(separator);
@@ -3998,6 +4160,9 @@ public class StringUtils {
             if (obj != null) {
                 buf.append(obj);
             }
+            if (++count == JOIN_SAMPLE_SIZE && noOfItems > count) {
+                buf.ensureCapacity(capacity((long) buf.length() * noOfItems / count));
+            }
         }
         return buf.toString();
     }
@@ -4020,7 +4185,8 @@ public class StringUtils {
         if (iterable == null) {
             return null;
         }
-        return join(iterable.iterator(), separator);
+        return join(iterable.iterator(), separator,
+            iterable instanceof Collection ? ((Collection<?>) iterable).size() : 0);
     }
 
     /**
@@ -4041,7 +4207,437 @@ public class StringUtils {
         if (iterable == null) {
             return null;
         }
-        return join(iterable.iterator(), separator);
+        return join(iterable.iterator(), separator,
+            iterable instanceof Collection ? ((Collection<?>) iterable).size() : 0);
+    }
+
+    /**
+     * <p>Joins the elements of the provided array onto an {@code Appendable},
+     * such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>The digits are buffered, and appended a few thousand characters at a
+     * time, so that a large array can be joined straight to a {@code Writer}
+     * without building a String of it.</p>
+     *
+     * <pre>
+     * StringUtils.join(null, *, out)       = out, unchanged
+     * StringUtils.join([], *, out)         = out, unchanged
+     * StringUtils.join([1, 2, 3], ';', sb) = sb with "1;2;3" appended
+     * </pre>
+     *
+     * @param <A>  the type of the Appendable
+     * @param array  the array of values to join together, may be null
+     * @param separator  the separator character to use
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final long[] array, final char separator, final A out)
+            throws IOException {
+        final StringBuilder chunk = getJoinChunk(out, array == null || array.length == 0 ? 0 : estimateLength(array, 0, array.length));
+        if (array != null) {
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    chunk.append(separator);
+                }
+                chunk.append(array[i]);
+                flushJoinChunk(chunk, out, false);
+            }
+        }
+        flushJoinChunk(chunk, out, true);
+        return out;
+    }
+
+    /**
+     * <p>Joins the elements of the provided array onto an {@code Appendable},
+     * such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>See the examples here: {@link #join(long[],char,Appendable)}. </p>
+     *
+     * @param <A>  the type of the Appendable
+     * @param array  the array of values to join together, may be null
+     * @param separator  the separator character to use
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final int[] array, final char separator, final A out)
+            throws IOException {
+        final StringBuilder chunk = getJoinChunk(out, array == null || array.length == 0 ? 0 : estimateLength(array, 0, array.length));
+        if (array != null) {
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    chunk.append(separator);
+                }
+                chunk.append(array[i]);
+                flushJoinChunk(chunk, out, false);
+            }
+        }
+        flushJoinChunk(chunk, out, true);
+        return out;
+    }
+
+    /**
+     * <p>Joins the elements of the provided array onto an {@code Appendable},
+     * such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>See the examples here: {@link #join(long[],char,Appendable)}. </p>
+     *
+     * @param <A>  the type of the Appendable
+     * @param array  the array of values to join together, may be null
+     * @param separator  the separator character to use
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final double[] array, final char separator, final A out)
+            throws IOException {
+        final StringBuilder chunk = getJoinChunk(out, array == null || array.length == 0 ? 0 : estimateLength(array, 0, array.length));
+        if (array != null) {
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    chunk.append(separator);
+                }
+                chunk.append(array[i]);
+                flushJoinChunk(chunk, out, false);
+            }
+        }
+        flushJoinChunk(chunk, out, true);
+        return out;
+    }
+
+    /**
+     * <p>Joins the elements of the provided array onto an {@code Appendable},
+     * such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>Null objects or empty strings within the array are represented by
+     * empty strings. A {@code null} separator is the same as an empty String ("").</p>
+     *
+     * <p>See the examples here: {@link #join(Object[],String)}. </p>
+     *
+     * @param <A>  the type of the Appendable
+     * @param array  the array of values to join together, may be null
+     * @param separator  the separator to use, null treated as ""
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final Object[] array, final String separator, final A out)
+            throws IOException {
+        return join(array == null ? null : Arrays.asList(array).iterator(), separator, out);
+    }
+
+    /**
+     * <p>Joins the elements of the provided {@code Iterable} onto an
+     * {@code Appendable}, such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>Null objects or empty strings within the iteration are represented by
+     * empty strings. A {@code null} separator is the same as an empty String ("").</p>
+     *
+     * <p>See the examples here: {@link #join(Object[],String)}. </p>
+     *
+     * @param <A>  the type of the Appendable
+     * @param iterable  the {@code Iterable} providing the values to join together, may be null
+     * @param separator  the separator to use, null treated as ""
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final Iterable<?> iterable, final String separator, final A out)
+            throws IOException {
+        return join(iterable == null ? null : iterable.iterator(), separator, out);
+    }
+
+    /**
+     * <p>Joins the elements of the provided {@code Iterator} onto an
+     * {@code Appendable}, such as a {@code Writer} or a {@code StringBuilder}.</p>
+     *
+     * <p>Null objects or empty strings within the iteration are represented by
+     * empty strings. A {@code null} separator is the same as an empty String ("").</p>
+     *
+     * <p>See the examples here: {@link #join(Object[],String)}. </p>
+     *
+     * @param <A>  the type of the Appendable
+     * @param iterator  the {@code Iterator} of values to join together, may be null
+     * @param separator  the separator to use, null treated as ""
+     * @param out  the Appendable to append to, must not be null
+     * @return the Appendable
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     * @throws IOException if the Appendable throws one
+     * @since 3.2
+     */
+    public static <A extends Appendable> A join(final Iterator<?> iterator, final String separator, final A out)
+            throws IOException {
+        final StringBuilder chunk = getJoinChunk(out, 256);
+        if (iterator != null) {
+            boolean first = true;
+            while (iterator.hasNext()) {
+                if (!first && separator != null) {
+                    chunk.append(separator);
+                }
+                first = false;
+                final Object obj = iterator.next();
+                if (obj != null) {
+                    chunk.append(obj);
+                }
+                flushJoinChunk(chunk, out, false);
+            }
+        }
+        flushJoinChunk(chunk, out, true);
+        return out;
+    }
+
+    /**
+     * <p>Gets the buffer that the {@code Appendable} variants of join build
+     * their output in, which is the {@code Appendable} itself if it is a
+     * {@code StringBuilder}.</p>
+     *
+     * @param out  the Appendable to append to
+     * @param length  the estimated length of the output
+     * @return the buffer
+     * @throws IllegalArgumentException if the Appendable is {@code null}
+     */
+    private static StringBuilder getJoinChunk(final Appendable out, final long length) {
+        if (out == null) {
+            throw new IllegalArgumentException("The Appendable must not be null");
+        }
+        if (out instanceof StringBuilder) {
+            final StringBuilder builder = (StringBuilder) out;
+            builder.ensureCapacity(capacity(builder.length() + length));
+            return builder;
+        }
+        return new StringBuilder((int) Math.min(length + 32, JOIN_CHUNK_SIZE + 32));
+    }
+
+    /**
+     * <p>Appends the buffer of an {@code Appendable} variant of join to the
+     * {@code Appendable} once it is full, and empties it.</p>
+     *
+     * @param chunk  the buffer
+     * @param out  the Appendable to append to
+     * @param force  whether to append the buffer however full it is
+     * @throws IOException if the Appendable throws one
+     */
+    private static void flushJoinChunk(final StringBuilder chunk, final Appendable out, final boolean force)
+            throws IOException {
+        if (chunk != out && (force || chunk.length() >= JOIN_CHUNK_SIZE) && chunk.length() > 0) {
+            out.append(chunk);
+            chunk.setLength(0);
+        }
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements, from the lengths of the CharSequences among them and a
+     * guess for the others.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @param separatorLength  the length of the separator
+     * @return the estimated length
+     */
+    private static long estimateLength(final Object[] array, final int startIndex, final int endIndex,
+            final int separatorLength) {
+        long length = (long) (endIndex - startIndex - 1) * separatorLength;
+        for (int i = startIndex; i < endIndex; i++) {
+            length += estimateLength(array[i]);
+        }
+        return length;
+    }
+
+    /**
+     * <p>Estimates the length of the String of an element that join appends.</p>
+     *
+     * @param obj  the element, may be null
+     * @return the length of a CharSequence, zero for null, and a guess otherwise
+     */
+    private static int estimateLength(final Object obj) {
+        if (obj == null) {
+            return 0;
+        }
+        return obj instanceof CharSequence ? ((CharSequence) obj).length() : 16;
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * <p>The lengths of the first few elements are taken as those of the
+     * others, which avoids both sizing for the longest possible Strings and
+     * converting every element twice.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     */
+    private static long estimateLength(final long[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i]);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     * @see #estimateLength(long[], int, int)
+     */
+    private static long estimateLength(final int[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i]);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     * @see #estimateLength(long[], int, int)
+     */
+    private static long estimateLength(final short[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i]);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     * @see #estimateLength(long[], int, int)
+     */
+    private static long estimateLength(final byte[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i]);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     * @see #estimateLength(long[], int, int)
+     */
+    private static long estimateLength(final double[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i], MAX_DOUBLE_LENGTH);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Estimates the length of the String that join makes of some array
+     * elements with a single character separator.</p>
+     *
+     * @param array  the array, not null
+     * @param startIndex  the first index to join
+     * @param endIndex  the index to stop joining at (exclusive), after startIndex
+     * @return the estimated length
+     * @see #estimateLength(long[], int, int)
+     */
+    private static long estimateLength(final float[] array, final int startIndex, final int endIndex) {
+        final int sampleEnd = Math.min(endIndex, startIndex + JOIN_SAMPLE_SIZE);
+        long sampleLength = 0;
+        for (int i = startIndex; i < sampleEnd; i++) {
+            sampleLength += stringLength(array[i], MAX_FLOAT_LENGTH);
+        }
+        return sampledLength(sampleLength, sampleEnd - startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * <p>Scales the length of the Strings of a sample of elements, and their
+     * separators, up to all the elements.</p>
+     *
+     * @param sampleLength  the total length of the Strings of the sample
+     * @param sampleSize  the number of elements in the sample, positive
+     * @param noOfItems  the number of elements to join, at least sampleSize
+     * @return the estimated length
+     */
+    private static long sampledLength(final long sampleLength, final int sampleSize, final int noOfItems) {
+        return (sampleLength * noOfItems + sampleSize - 1) / sampleSize + noOfItems - 1;
+    }
+
+    /**
+     * <p>Gets the length of the String of a long.</p>
+     *
+     * @param value  the value
+     * @return the number of characters, including any minus sign
+     */
+    private static int stringLength(final long value) {
+        int length = value < 0 ? 2 : 1;
+        // negated to cover Long.MIN_VALUE
+        for (long rest = value < 0 ? value : -value; rest <= -10; rest /= 10) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * <p>Estimates the length of the String of a double or a float.</p>
+     *
+     * @param value  the value
+     * @param maxLength  the length of the longest String of the type
+     * @return the exact length for a whole number below ten million, where
+     *  the String has no exponent, and maxLength otherwise
+     */
+    private static int stringLength(final double value, final int maxLength) {
+        if (value == (long) value && Math.abs(value) < 1e7) {
+            // with ".0"
+            return stringLength((long) value) + 2;
+        }
+        return maxLength;
+    }
+
+    /**
+     * <p>Gets the capacity of a buffer for a String of an estimated length.</p>
+     *
+     * @param length  the estimated length, not negative
+     * @return the length, capped below the largest array size
+     */
+    private static int capacity(final long length) {
+        return (int) Math.min(length, Integer.MAX_VALUE - 8);
     }
 
     // Delete
@@ -4602,6 +5198,11 @@ public class StringUtils {
                 + replacementLength);
         }
 
+        if (searchLength >= REPLACE_EACH_AUTOMATON_THRESHOLD && text.length() >= REPLACE_EACH_AUTOMATON_MIN_LENGTH) {
+            final MultiPatternReplacer replacer = new MultiPatternReplacer(searchList, replacementList);
+            return repeat ? replacer.replaceRepeatedly(text, timeToLive) : replacer.replace(text);
+        }
+
         // keep track of which still have matches
         final boolean[] noMoreMatchesForReplIndex = new boolean[searchLength];
 
@@ -6602,13 +7203,9 @@ public class StringUtils {
      * another, where each change is a single character modification (deletion,
      * insertion or substitution).</p>
      *
-     * <p>The previous implementation of the Levenshtein distance algorithm
-     * was from <a href="http://www.merriampark.com/ld.htm">http://www.merriampark.com/ld.htm</a></p>
-     *
-     * <p>Chas Emerick has written an implementation in Java, which avoids an OutOfMemoryError
-     * which can occur when my Java implementation is used with very large strings.<br>
-     * This implementation of the Levenshtein distance algorithm
-     * is from <a href="http://www.merriampark.com/ldjava.htm">http://www.merriampark.com/ldjava.htm</a></p>
+     * <p>This implementation is the bit-parallel algorithm of Myers, which
+     * processes 64 characters of the shorter String at a time. To compare one
+     * String with many others, create a {@link LevenshteinMatcher} for it once.</p>
      *
      * <pre>
      * StringUtils.getLevenshteinDistance(null, *)             = IllegalArgumentException
@@ -6631,81 +7228,15 @@ public class StringUtils {
      * @since 3.0 Changed signature from getLevenshteinDistance(String, String) to
      * getLevenshteinDistance(CharSequence, CharSequence)
      */
-    public static int getLevenshteinDistance(CharSequence s, CharSequence t) {
+    public static int getLevenshteinDistance(final CharSequence s, final CharSequence t) {
         if (s == null || t == null) {
             throw new IllegalArgumentException("Strings must not be null");
         }
-
-        /*
-           The difference between this impl. and the previous is that, rather
-           than creating and retaining a matrix of size s.length() + 1 by t.length() + 1,
-           we maintain two single-dimensional arrays of length s.length() + 1.  The first, d,
-           is the 'current working' distance array that maintains the newest distance cost
-           counts as we iterate through the characters of String s.  Each time we increment
-           the index of String t we are comparing, d is copied to p, the second int[].  Doing so
-           allows us to retain the previous cost counts as required by the algorithm (taking
-           the minimum of the cost count to the left, up one, and diagonally up and to the left
-           of the current cost count being calculated).  (Note that the arrays aren't really
-           copied anymore, just switched...this is clearly much better than cloning an array
-           or doing a System.arraycopy() each time  through the outer loop.)
-
-           Effectively, the difference between the two implementations is this one does not
-           cause an out of memory condition when calculating the LD over two very large strings.
-         */
-
-        int n = s.length(); // length of s
-        int m = t.length(); // length of t
-
-        if (n == 0) {
-            return m;
-        } else if (m == 0) {
-            return n;
-        }
-
-        if (n > m) {
-            // swap the input strings to consume less memory
-            final CharSequence tmp = s;
-            s = t;
-            t = tmp;
-            n = m;
-            m = t.length();
-        }
-
-        int p[] = new int[n + 1]; //'previous' cost array, horizontally
-        int d[] = new int[n + 1]; // cost array, horizontally
-        int _d[]; //placeholder to assist in swapping p and d
-
-        // indexes into strings s and t
-        int i; // iterates through s
-        int j; // iterates through t
-
-        char t_j; // jth character of t
-
-        int cost; // cost
-
-        for (i = 0; i <= n; i++) {
-            p[i] = i;
+        // the masks are built for the shorter String, to consume less memory
+        if (s.length() > t.length()) {
+            return new LevenshteinMatcher(t, false).distance(s);
         }
-
-        for (j = 1; j <= m; j++) {
-            t_j = t.charAt(j - 1);
-            d[0] = j;
-
-            for (i = 1; i <= n; i++) {
-                cost = s.charAt(i - 1) == t_j ? 0 : 1;
-                // minimum of cell to the left+1, to the top+1, diagonally left and up +cost
-                d[i] = Math.min(Math.min(d[i - 1] + 1, p[i] + 1), p[i - 1] + cost);
-            }
-
-            // copy current distance counts to 'previous row' distance counts
-            _d = p;
-            p = d;
-            d = _d;
-        }
-
-        // our last action in the above loop was to switch d and p, so p now
-        // actually has the most recent cost counts
-        return p[n];
+        return new LevenshteinMatcher(s, false).distance(t);
     }
 
     /**
@@ -6720,6 +7251,10 @@ public class StringUtils {
      * and Chas Emerick's implementation of the Levenshtein distance algorithm from
      * <a href="http://www.merriampark.com/ld.htm">http://www.merriampark.com/ld.htm</a></p>
      *
+     * <p>Unless the threshold is much smaller than the shorter String, the distance is
+     * computed with the bit-parallel algorithm of {@link LevenshteinMatcher}, which
+     * stops as soon as the threshold can no longer be met.</p>
+     *
      * <pre>
      * StringUtils.getLevenshteinDistance(null, *, *)             = IllegalArgumentException
      * StringUtils.getLevenshteinDistance(*, null, *)             = IllegalArgumentException
@@ -6748,6 +7283,15 @@ public class StringUtils {
             throw new IllegalArgumentException("Threshold must not be negative");
         }
 
+        // a cell of the stripe below costs about a third of a 64 character block of the bit-parallel algorithm
+        final int shorter = Math.min(s.length(), t.length());
+        if (2L * threshold + 1 >= 3L * ((shorter + 63) >>> 6)) {
+            if (s.length() > t.length()) {
+                return new LevenshteinMatcher(t, false).distance(s, threshold);
+            }
+            return new LevenshteinMatcher(s, false).distance(t, threshold);
+        }
+
         /*
         This implementation only computes the distance if it's less than or equal to the
         threshold value, returning -1 if it's greater.  The advantage is performance: unbounded
@@ -17,8 +17,11 @@
 package org.apache.commons.lang3.text.translate;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Locale;
 
 /**
@@ -31,6 +34,18 @@ import java.util.Locale;
  */
 public abstract class CharSequenceTranslator {
 
+    /**
+     * The number of characters buffered by {@link #translateStream(Reader, Writer)}.
+     */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * Whether the answers of {@link #translates(char)} can be relied on. A subclass 
+     * from another package may override the translate methods without knowing of 
+     * it, so only the classes of this package are trusted.
+     */
+    private final boolean dispatchable = getClass().getPackage() == CharSequenceTranslator.class.getPackage();
+
     /**
      * Translate a set of codepoints, represented by an int index into a CharSequence, 
      * into another set of codepoints. The number of codepoints consumed must be returned, 
@@ -45,15 +60,53 @@ public abstract class CharSequenceTranslator {
      */
     public abstract int translate(CharSequence input, int index, Writer out) throws IOException;
 
+    /**
+     * Tests whether this translator may consume or write anything at a position 
+     * of the input holding the given character. A translator that answers false 
+     * must return 0 from {@link #translate(CharSequence, int, Writer)} there without 
+     * writing. This implementation returns true, which is always safe.
+     *
+     * @param c the character at the current point of translation
+     * @return false if nothing is translated at a position holding the character
+     */
+    boolean translates(final char c) {
+        return true;
+    }
+
+    /**
+     * Gets the number of characters from the current point of translation, 
+     * including the character there, that this translator may read. This 
+     * implementation returns {@code Integer.MAX_VALUE}, for no limit.
+     *
+     * @return the most characters a translation may depend on
+     */
+    int getLookahead() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Tests whether {@link #translates(char)} can be relied on for this translator, 
+     * which is the case for the classes of this package.
+     *
+     * @return whether characters this translator does not translate may be skipped
+     */
+    final boolean isDispatchable() {
+        return dispatchable;
+    }
+
     /**
      * Helper for non-Writer usage. 
      * @param input CharSequence to be translated
-     * @return String output of translation
+     * @return String output of translation, which is the input itself if it is 
+     *  a String that needs no translating
      */
     public final String translate(final CharSequence input) {
         if (input == null) {
             return null;
         }
+        if (input instanceof String && skipUntranslated(input, 0, input.length()) == input.length()) {
+            return (String) input;
+        }
         try {
             final StringWriter writer = new StringWriter(input.length() * 2);
             translate(input, writer);
@@ -68,6 +121,9 @@ public abstract class CharSequenceTranslator {
      * Translate an input onto a Writer. This is intentionally final as its algorithm is 
      * tightly coupled with the abstract method of this class. 
      *
+     * <p>Runs of characters that this translator does not translate are written 
+     * with a single call to the Writer.</p>
+     *
      * @param input CharSequence that is being translated
      * @param out Writer to translate the text to
      * @throws IOException if and only if the Writer produces an IOException
@@ -80,20 +136,202 @@ public abstract class CharSequenceTranslator {
             return;
         }
         int pos = 0;
+        // the start of the characters read but not yet written
+        int unwritten = 0;
         final int len = input.length();
         while (pos < len) {
+            pos = skipUntranslated(input, pos, len);
+            if (pos == len) {
+                break;
+            }
+            write(input, unwritten, pos, out);
             final int consumed = translate(input, pos, out);
             if (consumed == 0) {
-                final char[] c = Character.toChars(Character.codePointAt(input, pos));
-                out.write(c);
-                pos+= c.length;
+                // left for the next run
+                unwritten = pos;
+                pos += Character.charCount(Character.codePointAt(input, pos));
                 continue;
             }
 //          // contract with translators is that they have to understand codepoints 
 //          // and they just took care of a surrogate pair
-            for (int pt = 0; pt < consumed; pt++) {
-                pos += Character.charCount(Character.codePointAt(input, pt));
+            pos = advance(input, pos, consumed);
+            unwritten = pos;
+        }
+        write(input, unwritten, len, out);
+    }
+
+    /**
+     * Translate the characters of a Reader onto a Writer, holding no more than a 
+     * fixed number of them in memory.
+     *
+     * <p>The result is the same as translating the whole input with 
+     * {@link #translate(CharSequence, Writer)} as long as each translation depends 
+     * on no more than the next 4096 characters. That is always the case for the 
+     * {@link LookupTranslator} and {@link CodePointTranslator} classes of this package, 
+     * and for entities and escapes of sensible length. Translators that depend on the 
+     * whole input, such as the CSV escapers of {@code StringEscapeUtils}, translate 
+     * each buffer as if it was a separate input.</p>
+     *
+     * <p>Neither the Reader nor the Writer is closed.</p>
+     *
+     * @param input Reader to translate the text from
+     * @param out Writer to translate the text to
+     * @throws IOException if and only if the Reader or the Writer produces an IOException
+     * @since 3.2
+     */
+    public final void translateStream(final Reader input, final Writer out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("The Writer must not be null");
+        }
+        if (input == null) {
+            return;
+        }
+        final char[] buffer = new char[STREAM_BUFFER_SIZE];
+        final CharBuffer window = CharBuffer.wrap(buffer);
+        // the characters that must be buffered after a position before it is translated
+        final int lookahead = isDispatchable() ? Math.max(2, Math.min(getLookahead(), STREAM_BUFFER_SIZE / 2))
+                : STREAM_BUFFER_SIZE / 2;
+        int filled = fill(input, buffer, 0);
+        boolean eof = filled < buffer.length;
+        // consumed codepoints are counted from the start of the input, see advance
+        final CharSequence head = CharBuffer.wrap(Arrays.copyOf(buffer, filled));
+        int pos = 0;
+        int unwritten = 0;
+        while (true) {
+            window.limit(filled);
+            // a surrogate pair may be split at the end of the buffer
+            final int end = eof ? filled : filled - 1;
+            if (pos < end) {
+                pos = skipUntranslated(window, pos, end);
+            }
+            if (pos < end && (eof || pos + lookahead <= filled)) {
+                write(window, unwritten, pos, out);
+                final int consumed = translate(window, pos, out);
+                if (consumed == 0) {
+                    unwritten = pos;
+                    pos += Character.charCount(Character.codePointAt(window, pos));
+                } else {
+                    pos = advance(head, pos, consumed);
+                    unwritten = pos;
+                }
+                continue;
             }
+            if (eof) {
+                write(window, unwritten, Math.min(pos, filled), out);
+                return;
+            }
+            // move the unwritten characters to the start of the buffer, and read more
+            write(window, unwritten, pos, out);
+            if (pos > filled) {
+                skip(input, pos - filled);
+                pos = filled;
+            }
+            filled -= pos;
+            System.arraycopy(buffer, pos, buffer, 0, filled);
+            pos = 0;
+            unwritten = 0;
+            filled = fill(input, buffer, filled);
+            eof = filled < buffer.length;
+        }
+    }
+
+    /**
+     * Advances past the codepoints consumed by a translator. As always in 
+     * {@link #translate(CharSequence, Writer)}, the size of each consumed 
+     * codepoint is taken from the start of the input.
+     *
+     * @param input CharSequence that is being translated, from its start
+     * @param pos the current point of translation
+     * @param consumed the count of codepoints consumed
+     * @return the next point of translation
+     */
+    private static int advance(final CharSequence input, final int pos, final int consumed) {
+        int next = pos;
+//      // contract with translators is that they have to understand codepoints 
+//      // and they just took care of a surrogate pair
+        for (int pt = 0; pt < consumed; pt++) {
+            next += Character.charCount(Character.codePointAt(input, pt));
+        }
+        return next;
+    }
+
+    /**
+     * Reads from a Reader until a buffer is full or the Reader is exhausted.
+     *
+     * @param input the Reader
+     * @param buffer the buffer
+     * @param filled the number of characters already in the buffer
+     * @return the number of characters in the buffer, less than its length only at the end of the input
+     * @throws IOException if the Reader produces an IOException
+     */
+    private static int fill(final Reader input, final char[] buffer, final int filled) throws IOException {
+        int count = filled;
+        int n;
+        while (count < buffer.length && (n = input.read(buffer, count, buffer.length - count)) != -1) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Skips characters of a Reader consumed by a translation beyond the buffer.
+     *
+     * @param input the Reader
+     * @param count the number of characters to skip
+     * @throws IOException if the Reader produces an IOException
+     */
+    private static void skip(final Reader input, final long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0 && input.read() != -1) {
+            remaining--;
+        }
+    }
+
+    /**
+     * Finds the next position of the input where this translator may translate.
+     *
+     * @param input CharSequence that is being translated
+     * @param index int representing the current point of translation
+     * @param end the index to stop at
+     * @return the index of the next codepoint that may be translated, or the 
+     *  index of the first codepoint at or after the end if there is none
+     */
+    private int skipUntranslated(final CharSequence input, final int index, final int end) {
+        if (!dispatchable) {
+            return index;
+        }
+        int pos = index;
+        while (pos < end) {
+            final char c = input.charAt(pos);
+            if (translates(c)) {
+                return pos;
+            }
+            pos += Character.isHighSurrogate(c) ? Character.charCount(Character.codePointAt(input, pos)) : 1;
+        }
+        return pos;
+    }
+
+    /**
+     * Writes a range of the input unchanged.
+     *
+     * @param input CharSequence that is being translated
+     * @param start the index of the first character to write
+     * @param end the index after the last character to write
+     * @param out Writer to translate the text to
+     * @throws IOException if and only if the Writer produces an IOException
+     */
+    private static void write(final CharSequence input, final int start, final int end, final Writer out) 
+            throws IOException {
+        if (start >= end) {
+            return;
+        }
+        if (input instanceof String) {
+            out.write((String) input, start, end - start);
+        } else if (input instanceof CharBuffer && ((CharBuffer) input).hasArray()) {
+            final CharBuffer buffer = (CharBuffer) input;
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position() + start, end - start);
+        } else {
+            out.append(input, start, end);
         }
     }
 
@@ -28,6 +28,22 @@ import java.io.Writer;
  */
 public abstract class CodePointTranslator extends CharSequenceTranslator {
 
+    /**
+     * Upper case hexadecimal digits, by value.
+     */
+    static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * The buffer of each thread for writing escapes, long enough for the longest 
+     * of them.
+     */
+    private static final ThreadLocal<char[]> BUFFERS = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[16];
+        }
+    };
+
     /**
      * Implementation of translate that maps onto the abstract translate(int, Writer) method. 
      * {@inheritDoc}
@@ -43,6 +59,15 @@ public abstract class CodePointTranslator extends CharSequenceTranslator {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getLookahead() {
+        // a surrogate pair
+        return 2;
+    }
+
     /**
      * Translate the specified codepoint into another. 
      * 
@@ -53,4 +78,31 @@ public abstract class CodePointTranslator extends CharSequenceTranslator {
      */
     public abstract boolean translate(int codepoint, Writer out) throws IOException;
 
+    /**
+     * Gets the buffer of the calling thread for writing escapes.
+     *
+     * @return a buffer of 16 characters
+     */
+    static char[] getBuffer() {
+        return BUFFERS.get();
+    }
+
+    /**
+     * Puts {@code "\\u"} and four upper case hexadecimal digits in a buffer.
+     *
+     * @param c the UTF-16 character to escape
+     * @param buffer the buffer
+     * @param index the index to put the escape at
+     * @return the index after the escape
+     */
+    static int putUnicodeEscape(final char c, final char[] buffer, final int index) {
+        buffer[index] = '\\';
+        buffer[index + 1] = 'u';
+        buffer[index + 2] = HEX_DIGITS[c >> 12];
+        buffer[index + 3] = HEX_DIGITS[c >> 8 & 0xf];
+        buffer[index + 4] = HEX_DIGITS[c >> 4 & 0xf];
+        buffer[index + 5] = HEX_DIGITS[c & 0xf];
+        return index + 6;
+    }
+
 }
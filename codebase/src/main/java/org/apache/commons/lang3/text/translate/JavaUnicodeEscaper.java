@@ -16,6 +16,9 @@
  */
 package org.apache.commons.lang3.text.translate;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * Translates codepoints to their Unicode escaped value suitable for Java source.
  * 
@@ -111,4 +114,19 @@ public class JavaUnicodeEscaper extends UnicodeEscaper {
         return "\\u" + hex(surrogatePair[0]) + "\\u" + hex(surrogatePair[1]);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void writeUtf16Escape(final int codepoint, final Writer out) throws IOException {
+        if (getClass() != JavaUnicodeEscaper.class) {
+            // a subclass may override toUtf16Escape
+            super.writeUtf16Escape(codepoint, out);
+            return;
+        }
+        final char[] buffer = getBuffer();
+        final int index = putUnicodeEscape(Character.highSurrogate(codepoint), buffer, 0);
+        out.write(buffer, 0, putUnicodeEscape(Character.lowSurrogate(codepoint), buffer, index));
+    }
+
 }
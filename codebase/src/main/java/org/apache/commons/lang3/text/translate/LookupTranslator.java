@@ -18,17 +18,28 @@ package org.apache.commons.lang3.text.translate;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.HashMap;
+import java.util.Arrays;
 
 /**
  * Translates a value using a lookup table.
  *
+ * <p>The keys of the table are held in a trie of characters, so the longest
+ * key at a position is found in one pass over the input, without creating
+ * any objects.</p>
+ *
  * @since 3.0
  * @version $Id$
  */
 public class LookupTranslator extends CharSequenceTranslator {
 
-    private final HashMap<String, CharSequence> lookupMap;
+    /**
+     * The number of first characters whose nodes are held in a table,
+     * rather than searched for.
+     */
+    private static final int DIRECT_CHARS = 128;
+
+    private final Node root = new Node();
+    private final Node[] directNodes = new Node[DIRECT_CHARS];
     private final int shortest;
     private final int longest;
 
@@ -40,16 +51,23 @@ public class LookupTranslator extends CharSequenceTranslator {
      * This is because we need the key to support hashCode and equals(Object), 
      * allowing it to be the key for a HashMap. See LANG-882.
      *
+     * As of Lang 3.2, the keys are copied into a trie and the values are
+     * converted to java.lang.String when the translator is created.
+     *
      * @param lookup CharSequence[][] table of size [*][2]
      */
     public LookupTranslator(final CharSequence[]... lookup) {
-        lookupMap = new HashMap<String, CharSequence>();
         int _shortest = Integer.MAX_VALUE;
         int _longest = 0;
         if (lookup != null) {
             for (final CharSequence[] seq : lookup) {
-                this.lookupMap.put(seq[0].toString(), seq[1]);
-                final int sz = seq[0].length();
+                final CharSequence key = seq[0];
+                Node node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.getOrAddChild(key.charAt(i));
+                }
+                node.value = seq[1].toString();
+                final int sz = key.length();
                 if (sz < _shortest) {
                     _shortest = sz;
                 }
@@ -60,6 +78,9 @@ public class LookupTranslator extends CharSequenceTranslator {
         }
         shortest = _shortest;
         longest = _longest;
+        for (int i = 0; i < root.keys.length && root.keys[i] < DIRECT_CHARS; i++) {
+            directNodes[root.keys[i]] = root.children[i];
+        }
     }
 
     /**
@@ -67,19 +88,97 @@ public class LookupTranslator extends CharSequenceTranslator {
      */
     @Override
     public int translate(final CharSequence input, final int index, final Writer out) throws IOException {
-        int max = longest;
-        if (index + longest > input.length()) {
-            max = input.length() - index;
+        final int length = input.length();
+        if (length - index < shortest) {
+            return 0;
+        }
+        // the longest key is in the last node on the path with a value
+        String result = root.value;
+        int consumed = 0;
+        int pos = index;
+        if (pos < length) {
+            final char first = input.charAt(pos);
+            Node node = first < DIRECT_CHARS ? directNodes[first] : root.getChild(first);
+            while (node != null) {
+                pos++;
+                if (node.value != null) {
+                    result = node.value;
+                    consumed = pos - index;
+                }
+                if (pos == length) {
+                    break;
+                }
+                node = node.getChild(input.charAt(pos));
+            }
+        }
+        if (result != null) {
+            out.write(result);
+        }
+        return consumed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        return root.value != null || (c < DIRECT_CHARS ? directNodes[c] : root.getChild(c)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int getLookahead() {
+        return longest;
+    }
+
+    /**
+     * A node of the trie, reached by a sequence of characters.
+     */
+    private static final class Node {
+
+        /** The characters leading to the children, in ascending order. */
+        char[] keys = new char[0];
+        /** The children, in the order of their characters. */
+        Node[] children = new Node[0];
+        /** The translation of the key ending at this node, or null. */
+        String value;
+
+        /**
+         * Gets the child reached by a character.
+         *
+         * @param c  the next character of the input
+         * @return the child, or null if no key continues with the character
+         */
+        Node getChild(final char c) {
+            final int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
         }
-        // descend so as to get a greedy algorithm
-        for (int i = max; i >= shortest; i--) {
-            final CharSequence subSeq = input.subSequence(index, index + i);
-            final CharSequence result = lookupMap.get(subSeq.toString());
-            if (result != null) {
-                out.write(result.toString());
-                return i;
+
+        /**
+         * Gets the child reached by a character, adding it if necessary.
+         *
+         * @param c  the next character of a key
+         * @return the child
+         */
+        Node getOrAddChild(final char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
             }
+            i = -i - 1;
+            final char[] newKeys = new char[keys.length + 1];
+            final Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, keys.length - i);
+            newKeys[i] = c;
+            newChildren[i] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[i];
         }
-        return 0;
     }
 }
@@ -96,6 +96,18 @@ public class NumericEntityEscaper extends CodePointTranslator {
         return new NumericEntityEscaper(codepointLow, codepointHigh, false);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        // a surrogate may start any supplementary codepoint
+        if (Character.isSurrogate(c)) {
+            return true;
+        }
+        return between ? c >= below && c <= above : c < below || c > above;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -111,9 +123,25 @@ public class NumericEntityEscaper extends CodePointTranslator {
             }
         }
 
-        out.write("&#");
-        out.write(Integer.toString(codepoint, 10));
-        out.write(';');
+        if (codepoint < 0) {
+            out.write("&#");
+            out.write(Integer.toString(codepoint, 10));
+            out.write(';');
+            return true;
+        }
+        int digits = 1;
+        for (int value = codepoint; value >= 10; value /= 10) {
+            digits++;
+        }
+        final char[] buffer = getBuffer();
+        buffer[0] = '&';
+        buffer[1] = '#';
+        int index = digits + 2;
+        buffer[index] = ';';
+        for (int value = codepoint; index > 2; value /= 10) {
+            buffer[--index] = (char) (value % 10 + '0');
+        }
+        out.write(buffer, 0, digits + 3);
         return true;
     }
 }
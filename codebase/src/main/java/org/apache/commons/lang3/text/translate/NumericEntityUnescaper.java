@@ -136,4 +136,12 @@ public class NumericEntityUnescaper extends CharSequenceTranslator {
         }
         return 0;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        return c == '&';
+    }
 }
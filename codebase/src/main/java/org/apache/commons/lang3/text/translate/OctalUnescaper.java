@@ -57,4 +57,12 @@ public class OctalUnescaper extends CharSequenceTranslator {
         }
         return 0;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        return c == '\\';
+    }
 }
@@ -89,6 +89,18 @@ public class UnicodeEscaper extends CodePointTranslator {
         return new UnicodeEscaper(codepointLow, codepointHigh, true);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        // a surrogate may start any supplementary codepoint
+        if (Character.isSurrogate(c)) {
+            return true;
+        }
+        return between ? c >= below && c <= above : c < below || c > above;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -106,19 +118,28 @@ public class UnicodeEscaper extends CodePointTranslator {
 
         // TODO: Handle potential + sign per various Unicode escape implementations
         if (codepoint > 0xffff) {
-            out.write(toUtf16Escape(codepoint));
-        } else if (codepoint > 0xfff) {
-            out.write("\\u" + hex(codepoint));
-        } else if (codepoint > 0xff) {
-            out.write("\\u0" + hex(codepoint));
-        } else if (codepoint > 0xf) {
-            out.write("\\u00" + hex(codepoint));
+            writeUtf16Escape(codepoint, out);
+        } else if (codepoint >= 0) {
+            final char[] buffer = getBuffer();
+            out.write(buffer, 0, putUnicodeEscape((char) codepoint, buffer, 0));
         } else {
             out.write("\\u000" + hex(codepoint));
         }
         return true;
     }
 
+    /**
+     * Writes the escape of a supplementary codepoint, as returned by 
+     * {@link #toUtf16Escape(int)}.
+     *
+     * @param codepoint a supplementary Unicode code point
+     * @param out Writer to push the escape to
+     * @throws IOException if and only if the Writer produces an IOException
+     */
+    void writeUtf16Escape(final int codepoint, final Writer out) throws IOException {
+        out.write(toUtf16Escape(codepoint));
+    }
+
     /**
      * Converts the given codepoint to a hex string of the form {@code "\\uXXXX"}
      * 
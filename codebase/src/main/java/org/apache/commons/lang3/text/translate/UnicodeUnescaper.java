@@ -63,4 +63,12 @@ public class UnicodeUnescaper extends CharSequenceTranslator {
         }
         return 0;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean translates(final char c) {
+        return c == '\\';
+    }
 }
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.text.FieldPosition;
+import java.time.temporal.TemporalAccessor;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * <p>CachingDatePrinter is a {@link DatePrinter} that remembers the text of
+ * the most recently formatted second.</p>
+ *
+ * <p>Applications such as access logs often format many instants within the
+ * same second. This printer renders the text of that second once, or of the
+ * minute when the pattern has no seconds field, and then only formats the
+ * millisecond digits of each instant. Instants outside the cached period
+ * replace the cache, so the saving is greatest when instants are formatted
+ * in roughly increasing order.</p>
+ *
+ * <p>The cached text is held in an immutable snapshot that is replaced
+ * atomically, so this class is thread-safe.</p>
+ *
+ * <p>Only {@code long} and {@code Date} values use the cache. {@code Calendar}
+ * and temporal values are formatted by the underlying {@link FastDatePrinter}.</p>
+ *
+ * @since 3.2
+ */
+public class CachingDatePrinter implements DatePrinter, Serializable {
+
+    /**
+     * Required for serialization support.
+     *
+     * @see java.io.Serializable
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The printer used to render the cached text.
+     */
+    private final FastDatePrinter mPrinter;
+    /**
+     * The text of the most recently formatted period.
+     */
+    private transient volatile FastDatePrinter.PeriodTemplate mTemplate;
+
+    /**
+     * <p>Constructs a new CachingDatePrinter.</p>
+     *
+     * @param pattern  {@link java.text.SimpleDateFormat} compatible pattern
+     * @param timeZone  non-null time zone to use
+     * @param locale  non-null locale to use
+     * @throws NullPointerException if pattern, timeZone, or locale is null.
+     * @throws IllegalArgumentException if pattern is invalid
+     */
+    public CachingDatePrinter(final String pattern, final TimeZone timeZone, final Locale locale) {
+        this(new FastDatePrinter(pattern, timeZone, locale));
+    }
+
+    /**
+     * <p>Constructs a new CachingDatePrinter wrapping an existing printer.</p>
+     *
+     * @param printer  the printer to wrap, not null
+     * @throws IllegalArgumentException if the printer is null
+     */
+    public CachingDatePrinter(final FastDatePrinter printer) {
+        if (printer == null) {
+            throw new IllegalArgumentException("The printer must not be null");
+        }
+        mPrinter = printer;
+    }
+
+    /**
+     * <p>Gets the text of the period containing the specified instant,
+     * replacing the cached period if necessary.</p>
+     *
+     * @param millis  the instant, in milliseconds since the epoch
+     * @return the text of the period, or {@code null} if it cannot be cached
+     */
+    private FastDatePrinter.PeriodTemplate getTemplate(final long millis) {
+        FastDatePrinter.PeriodTemplate template = mTemplate;
+        if (template == null || millis < template.mStart || millis >= template.mEnd) {
+            template = mPrinter.getPeriodTemplate(millis);
+            if (template != null) {
+                mTemplate = template;
+            }
+        }
+        return template;
+    }
+
+    // Format methods
+    //-----------------------------------------------------------------------
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.lang.Object, java.lang.StringBuffer, java.text.FieldPosition)
+     */
+    @Override
+    public StringBuffer format(final Object obj, final StringBuffer toAppendTo, final FieldPosition pos) {
+        if (obj instanceof Date) {
+            return format((Date) obj, toAppendTo);
+        } else if (obj instanceof Long) {
+            return format(((Long) obj).longValue(), toAppendTo);
+        }
+        return mPrinter.format(obj, toAppendTo, pos);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long)
+     */
+    @Override
+    public String format(final long millis) {
+        final FastDatePrinter.PeriodTemplate template = getTemplate(millis);
+        if (template == null) {
+            return mPrinter.format(millis);
+        }
+        try {
+            return template.appendTo(new StringBuilder(mPrinter.getMaxLengthEstimate()), millis).toString();
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Date)
+     */
+    @Override
+    public String format(final Date date) {
+        return format(date.getTime());
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Calendar)
+     */
+    @Override
+    public String format(final Calendar calendar) {
+        return mPrinter.format(calendar);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, java.lang.StringBuffer)
+     */
+    @Override
+    public StringBuffer format(final long millis, final StringBuffer buf) {
+        try {
+            return formatTo(millis, buf);
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuffer
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Date, java.lang.StringBuffer)
+     */
+    @Override
+    public StringBuffer format(final Date date, final StringBuffer buf) {
+        return format(date.getTime(), buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Calendar, java.lang.StringBuffer)
+     */
+    @Override
+    public StringBuffer format(final Calendar calendar, final StringBuffer buf) {
+        return mPrinter.format(calendar, buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final long millis, final B buf) throws IOException {
+        return formatTo(millis, buf);
+    }
+
+    /**
+     * <p>Formats an instant into the buffer, using the cached period if possible.</p>
+     *
+     * @param millis  the instant to format, in milliseconds since the epoch
+     * @param buf  the buffer to format into
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private <B extends Appendable> B formatTo(final long millis, final B buf) throws IOException {
+        final FastDatePrinter.PeriodTemplate template = getTemplate(millis);
+        if (template == null) {
+            return mPrinter.format(millis, buf);
+        }
+        return template.appendTo(buf, millis);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Date, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final Date date, final B buf) throws IOException {
+        return format(date.getTime(), buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Calendar, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final Calendar calendar, final B buf) throws IOException {
+        return mPrinter.format(calendar, buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.time.temporal.TemporalAccessor)
+     */
+    @Override
+    public String format(final TemporalAccessor temporal) {
+        return mPrinter.format(temporal);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.time.temporal.TemporalAccessor, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final TemporalAccessor temporal, final B buf) throws IOException {
+        return mPrinter.format(temporal, buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, char[], int)
+     */
+    @Override
+    public int format(final long millis, final char[] buf, final int offset) {
+        return format(millis, CharBuffer.wrap(buf, offset, buf.length - offset));
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, java.nio.CharBuffer)
+     */
+    @Override
+    public int format(final long millis, final CharBuffer buf) {
+        final int start = buf.position();
+        try {
+            formatTo(millis, buf);
+        } catch (final BufferOverflowException boe) {
+            buf.position(start);
+            throw boe;
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a CharBuffer
+            throw new RuntimeException(ioe);
+        }
+        return buf.position() - start;
+    }
+
+    // Accessors
+    //-----------------------------------------------------------------------
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#getPattern()
+     */
+    @Override
+    public String getPattern() {
+        return mPrinter.getPattern();
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#getTimeZone()
+     */
+    @Override
+    public TimeZone getTimeZone() {
+        return mPrinter.getTimeZone();
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#getLocale()
+     */
+    @Override
+    public Locale getLocale() {
+        return mPrinter.getLocale();
+    }
+
+    // Basics
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Compares two objects for equality.</p>
+     *
+     * @param obj  the object to compare to
+     * @return {@code true} if equal
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof CachingDatePrinter)) {
+            return false;
+        }
+        return mPrinter.equals(((CachingDatePrinter) obj).mPrinter);
+    }
+
+    /**
+     * <p>Returns a hashcode compatible with equals.</p>
+     *
+     * @return a hashcode compatible with equals
+     */
+    @Override
+    public int hashCode() {
+        return mPrinter.hashCode();
+    }
+
+    /**
+     * <p>Gets a debugging string version of this formatter.</p>
+     *
+     * @return a debugging string
+     */
+    @Override
+    public String toString() {
+        return "CachingDatePrinter[" + mPrinter.getPattern() + "," + mPrinter.getLocale() + ","
+                + mPrinter.getTimeZone().getID() + "]";
+    }
+}
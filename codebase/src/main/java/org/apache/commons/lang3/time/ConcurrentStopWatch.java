@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p>
+ * <code>ConcurrentStopWatch</code> times laps in many threads and records them into a shared
+ * {@link LatencyHistogram}.
+ * </p>
+ *
+ * <p>
+ * Each thread has a {@link StopWatch} of its own, so the methods {@link #start()}, {@link #split()},
+ * {@link #unsplit()}, {@link #suspend()} and {@link #resume()} work as they do on a <code>StopWatch</code>, for the
+ * calling thread only. {@link #lap()} records the time since the start or the previous lap of the thread's watch
+ * and keeps it running, and {@link #stop()} records the last lap and resets the watch, so that the thread can
+ * start it again. Time while a watch is suspended is not counted in its laps.
+ * </p>
+ *
+ * <p>
+ * On the hot path, {@link #recordSince(long)} records the time since a {@link System#nanoTime()} value taken by
+ * the caller, which costs another call to <code>System.nanoTime()</code> and one increment of a striped counter.
+ * </p>
+ *
+ * <pre>
+ * private static final ConcurrentStopWatch REQUESTS = new ConcurrentStopWatch();
+ * ...
+ * final long start = System.nanoTime();
+ * handle(request);
+ * REQUESTS.recordSince(start);
+ * ...
+ * REQUESTS.getHistogram().getValueAtPercentile(99.9);
+ * </pre>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 3.2
+ */
+public class ConcurrentStopWatch {
+
+    /**
+     * The histogram of the laps.
+     */
+    private final LatencyHistogram histogram;
+
+    /**
+     * The watch of each thread.
+     */
+    private final ThreadLocal<ThreadWatch> watches = new ThreadLocal<ThreadWatch>() {
+        @Override
+        protected ThreadWatch initialValue() {
+            return new ThreadWatch();
+        }
+    };
+
+    /**
+     * <p>
+     * Constructor, recording into a new histogram with the default precision.
+     * </p>
+     */
+    public ConcurrentStopWatch() {
+        this(new LatencyHistogram());
+    }
+
+    /**
+     * <p>
+     * Constructor, recording into a given histogram, which may be shared with other watches.
+     * </p>
+     *
+     * @param histogram
+     *            the histogram of the laps, not null
+     * @throws NullPointerException
+     *             if the histogram is null
+     */
+    public ConcurrentStopWatch(final LatencyHistogram histogram) {
+        this.histogram = Validate.notNull(histogram, "The histogram must not be null");
+    }
+
+    /**
+     * <p>
+     * Gets the histogram of the recorded laps, in nanoseconds.
+     * </p>
+     *
+     * @return the histogram, not null
+     */
+    public LatencyHistogram getHistogram() {
+        return this.histogram;
+    }
+
+    /**
+     * <p>
+     * Records a lap.
+     * </p>
+     *
+     * @param nanos
+     *            the time of the lap in nanoseconds, not negative
+     * @throws IllegalArgumentException
+     *             if the time is negative
+     */
+    public void record(final long nanos) {
+        this.histogram.record(nanos);
+    }
+
+    /**
+     * <p>
+     * Records the time since a value of {@link System#nanoTime()} as a lap.
+     * </p>
+     *
+     * @param startNanoTime
+     *            the value of <code>System.nanoTime()</code> at the start of the lap
+     * @return the time of the lap in nanoseconds
+     */
+    public long recordSince(final long startNanoTime) {
+        final long nanos = System.nanoTime() - startNanoTime;
+        // nanoTime never goes backwards, but clamp in case a caller mixes up its values
+        this.histogram.record(Math.max(0, nanos));
+        return nanos;
+    }
+
+    /**
+     * <p>
+     * Start the stopwatch of the calling thread.
+     * </p>
+     *
+     * @throws IllegalStateException
+     *             if the thread's StopWatch is already running.
+     * @see StopWatch#start()
+     */
+    public void start() {
+        final ThreadWatch watch = this.watches.get();
+        watch.start();
+        watch.lapNanoTime = 0;
+    }
+
+    /**
+     * <p>
+     * Records the time since the start or the previous lap of the calling thread's stopwatch, which keeps
+     * running.
+     * </p>
+     *
+     * @return the time of the lap in nanoseconds
+     * @throws IllegalStateException
+     *             if the thread's StopWatch is not started.
+     */
+    public long lap() {
+        final ThreadWatch watch = this.watches.get();
+        if (!watch.isStarted()) {
+            throw new IllegalStateException("Stopwatch is not running. ");
+        }
+        return watch.lap(this.histogram);
+    }
+
+    /**
+     * <p>
+     * Stop the stopwatch of the calling thread, recording the time since its start or previous lap.
+     * </p>
+     *
+     * <p>
+     * The watch is then reset, so that the thread can start it again.
+     * </p>
+     *
+     * @return the time of the last lap in nanoseconds
+     * @throws IllegalStateException
+     *             if the thread's StopWatch is not running.
+     * @see StopWatch#stop()
+     */
+    public long stop() {
+        final ThreadWatch watch = this.watches.get();
+        watch.stop();
+        final long nanos = watch.lap(this.histogram);
+        watch.reset();
+        return nanos;
+    }
+
+    /**
+     * <p>
+     * Split the time of the calling thread's stopwatch.
+     * </p>
+     *
+     * @throws IllegalStateException
+     *             if the thread's StopWatch is not running.
+     * @see StopWatch#split()
+     */
+    public void split() {
+        this.watches.get().split();
+    }
+
+    /**
+     * <p>
+     * Remove a split of the calling thread's stopwatch.
+     * </p>
+     *
+     * @throws IllegalStateException
+     *             if the thread's StopWatch has not been split.
+     * @see StopWatch#unsplit()
+     */
+    public void unsplit() {
+        this.watches.get().unsplit();
+    }
+
+    /**
+     * <p>
+     * Suspend the stopwatch of the calling thread for later resumption.
+     * </p>
+     *
+     * @throws IllegalStateException
+     *             if the thread's StopWatch is not currently running.
+     * @see StopWatch#suspend()
+     */
+    public void suspend() {
+        this.watches.get().suspend();
+    }
+
+    /**
+     * <p>
+     * Resume the stopwatch of the calling thread after a suspend.
+     * </p>
+     *
+     * @throws IllegalStateException
+     *             if the thread's StopWatch has not been suspended.
+     * @see StopWatch#resume()
+     */
+    public void resume() {
+        this.watches.get().resume();
+    }
+
+    /**
+     * <p>
+     * Gets the stopwatch of the calling thread, for its times and state.
+     * </p>
+     *
+     * <p>
+     * Starting or stopping the returned watch directly bypasses the recording of laps.
+     * </p>
+     *
+     * @return the thread's StopWatch, not null
+     */
+    public StopWatch getStopWatch() {
+        return this.watches.get();
+    }
+
+    /**
+     * <p>
+     * Gets a summary of the recorded laps.
+     * </p>
+     *
+     * @return the summary of the histogram
+     */
+    @Override
+    public String toString() {
+        return this.histogram.toString();
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * <p>
+     * The StopWatch of a thread, with the time of its previous lap.
+     * </p>
+     */
+    private static final class ThreadWatch extends StopWatch {
+
+        /**
+         * The time on the watch at the previous lap, in nanoseconds.
+         */
+        long lapNanoTime;
+
+        /**
+         * Records the time since the previous lap.
+         *
+         * @param histogram
+         *            the histogram to record into
+         * @return the time of the lap in nanoseconds
+         */
+        long lap(final LatencyHistogram histogram) {
+            final long nanoTime = getNanoTime();
+            final long nanos = nanoTime - this.lapNanoTime;
+            this.lapNanoTime = nanoTime;
+            histogram.record(nanos);
+            return nanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void reset() {
+            super.reset();
+            this.lapNanoTime = 0;
+        }
+    }
+
+}
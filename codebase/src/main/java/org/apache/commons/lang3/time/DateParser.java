@@ -18,6 +18,8 @@ package org.apache.commons.lang3.time;
 
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.time.Instant;
+import java.util.BitSet;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
@@ -53,6 +55,63 @@ public interface DateParser {
      */
     Date parse(String source, ParsePosition pos);
 
+    /**
+     * <p>Parses the beginning of the text to produce an {@code Instant},
+     * without creating a {@code Date}.</p>
+     *
+     * @param source the text whose beginning should be parsed
+     * @return the parsed instant
+     * @throws ParseException if the beginning of the specified text cannot be parsed.
+     * @since 3.2
+     */
+    Instant parseInstant(CharSequence source) throws ParseException;
+
+    /**
+     * <p>Parses the text from the given position to produce an {@code Instant},
+     * without creating a {@code Date}.</p>
+     *
+     * @param source the text, part of which should be parsed
+     * @param pos the position to start parsing at, updated past the parsed text if successful
+     * @return the parsed instant, or null if the text cannot be parsed
+     * @throws NullPointerException if source or pos is null.
+     * @since 3.2
+     */
+    Instant parseInstant(CharSequence source, ParsePosition pos);
+
+    /**
+     * <p>Parses the beginning of the text to produce the number of nanoseconds
+     * since the epoch.</p>
+     *
+     * <p>The parsed value has millisecond precision, so the nanoseconds within
+     * the millisecond are always zero.</p>
+     *
+     * @param source the text whose beginning should be parsed
+     * @return the number of nanoseconds since 1970-01-01T00:00:00Z
+     * @throws ParseException if the beginning of the specified text cannot be parsed.
+     * @throws ArithmeticException if the instant cannot be represented as a {@code long}
+     *  number of nanoseconds, which is the case outside the years 1677 to 2262
+     * @since 3.2
+     */
+    long parseEpochNanos(CharSequence source) throws ParseException;
+
+    /**
+     * <p>Parses a column of strings into milliseconds since the epoch.</p>
+     *
+     * <p>Each element is parsed as by {@link #parse(String)}. Rather than throwing
+     * a {@code ParseException}, the index of each element that cannot be parsed is
+     * set in {@code errors} and its entry in {@code millis} is left unchanged.
+     * The bits of {@code errors} for the other indexes are cleared.</p>
+     *
+     * @param sources the strings to parse, null elements are reported as errors
+     * @param millis the array to receive the parsed values, at least as long as {@code sources}
+     * @param errors the set to receive the indexes of the elements that cannot be parsed
+     * @return the number of elements parsed successfully
+     * @throws IllegalArgumentException if {@code millis} is shorter than {@code sources}
+     * @throws NullPointerException if {@code sources}, {@code millis} or {@code errors} is null
+     * @since 3.2
+     */
+    int parseAll(CharSequence[] sources, long[] millis, BitSet errors);
+
     // Accessors
     //-----------------------------------------------------------------------
     /**
@@ -16,7 +16,10 @@
  */
 package org.apache.commons.lang3.time;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.text.FieldPosition;
+import java.time.temporal.TemporalAccessor;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -85,6 +88,109 @@ public interface DatePrinter {
      */
     StringBuffer format(Calendar calendar, StringBuffer buf);
 
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code Appendable}.</p>
+     *
+     * <p>Unlike the {@code StringBuffer} methods, this appends to any
+     * sink, such as a {@code StringBuilder} or a {@code Writer}, without
+     * an intermediate copy.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     */
+    <B extends Appendable> B format(long millis, B buf) throws IOException;
+
+    /**
+     * <p>Formats a {@code Date} object into the
+     * supplied {@code Appendable} using a {@code GregorianCalendar}.</p>
+     *
+     * @param date  the date to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     */
+    <B extends Appendable> B format(Date date, B buf) throws IOException;
+
+    /**
+     * <p>Formats a {@code Calendar} object into the
+     * supplied {@code Appendable}.</p>
+     *
+     * @param calendar  the calendar to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     */
+    <B extends Appendable> B format(Calendar calendar, B buf) throws IOException;
+
+    /**
+     * <p>Formats a {@code java.time} temporal object, such as an
+     * {@code Instant} or a {@code ZonedDateTime}.</p>
+     *
+     * <p>The instant of the object is formatted as a {@code Date} would be,
+     * so dates before the Gregorian cutover of 1582 are Julian dates, but
+     * without creating a {@code Date}. Objects with a zone or offset are
+     * formatted in it. Objects without one, such as an {@code Instant} or a
+     * {@code LocalDateTime}, are formatted in the time zone of this printer,
+     * a {@code LocalDateTime} being an ISO date-time in that zone.</p>
+     *
+     * @param temporal  the temporal object to format
+     * @return the formatted string
+     * @throws java.time.DateTimeException if the object has neither
+     *  a date and time nor an instant
+     * @since 3.2
+     */
+    String format(TemporalAccessor temporal);
+
+    /**
+     * <p>Formats a {@code java.time} temporal object into the
+     * supplied {@code Appendable}.</p>
+     *
+     * @param temporal  the temporal object to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     * @throws java.time.DateTimeException if the object has neither
+     *  a date and time nor an instant
+     * @see #format(TemporalAccessor)
+     * @since 3.2
+     */
+    <B extends Appendable> B format(TemporalAccessor temporal, B buf) throws IOException;
+
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code char} array.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the array to format into
+     * @param offset  the index in the array of the first character to write
+     * @return the number of characters written
+     * @throws java.nio.BufferOverflowException if the formatted value does
+     *  not fit in the array, in which case the contents written are undefined
+     */
+    int format(long millis, char[] buf, int offset);
+
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code CharBuffer}, starting at its position.</p>
+     *
+     * <p>The position of the buffer is advanced by the number
+     * of characters written.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the buffer to format into
+     * @return the number of characters written
+     * @throws java.nio.BufferOverflowException if the formatted value does
+     *  not fit in the remaining space, in which case the position is unchanged
+     */
+    int format(long millis, CharBuffer buf);
+
     // Accessors
     //-----------------------------------------------------------------------
     /**
@@ -19,11 +19,20 @@ package org.apache.commons.lang3.time;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TimeZone;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>A suite of utilities surrounding the use of the
@@ -125,6 +134,17 @@ public class DateUtils {
      */
     private static final int MODIFY_CEILING = 2;
 
+    /**
+     * The largest magnitude of epoch milliseconds that is truncated, rounded
+     * or ceiled arithmetically, about 31 million years either side of 1970.
+     */
+    private static final long MAX_ARITHMETIC_MILLIS = 1000000000000000000L;
+
+    /**
+     * The most recently used day without a time zone offset change.
+     */
+    private static volatile ZoneDay zoneDay;
+
     /**
      * <p>{@code DateUtils} instances should NOT be constructed in
      * standard programming. Instead, the static methods on the class should
@@ -262,6 +282,7 @@ public class DateUtils {
      * @return the parsed date
      * @throws IllegalArgumentException if the date string or pattern array is null
      * @throws ParseException if none of the date patterns were suitable (or there were none)
+     * @see MultiPatternDateParser
      */
     public static Date parseDate(final String str, final String... parsePatterns) throws ParseException {
         return parseDate(str, null, parsePatterns);
@@ -944,6 +965,161 @@ public class DateUtils {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Truncates an instant, leaving the field specified as the most
+     * significant field.</p>
+     *
+     * <p>This gives the same result as {@link #truncate(Calendar, int)} with a
+     * calendar in the given time zone. For the fields up to {@code DATE} it is
+     * computed arithmetically from the time zone offset, without a
+     * {@code Calendar}, except on days when the offset changes.</p>
+     *
+     * @param millis  the instant to work with, in milliseconds since the epoch
+     * @param field  the field from {@code Calendar} or <code>SEMI_MONTH</code>
+     * @param timeZone  the time zone of the fields, not null
+     * @return the truncated instant, in milliseconds since the epoch
+     * @throws IllegalArgumentException if the time zone is <code>null</code>
+     *  or the field is not supported
+     * @throws ArithmeticException if the year is over 280 million
+     * @since 3.2
+     */
+    public static long truncate(final long millis, final int field, final TimeZone timeZone) {
+        return modify(millis, field, timeZone, MODIFY_TRUNCATE);
+    }
+
+    /**
+     * <p>Rounds an instant, leaving the field specified as the most
+     * significant field.</p>
+     *
+     * <p>This gives the same result as {@link #round(Calendar, int)} with a
+     * calendar in the given time zone. For the fields up to {@code DATE} it is
+     * computed arithmetically from the time zone offset, without a
+     * {@code Calendar}, except on days when the offset changes.</p>
+     *
+     * @param millis  the instant to work with, in milliseconds since the epoch
+     * @param field  the field from {@code Calendar} or <code>SEMI_MONTH</code>
+     * @param timeZone  the time zone of the fields, not null
+     * @return the rounded instant, in milliseconds since the epoch
+     * @throws IllegalArgumentException if the time zone is <code>null</code>
+     *  or the field is not supported
+     * @throws ArithmeticException if the year is over 280 million
+     * @since 3.2
+     */
+    public static long round(final long millis, final int field, final TimeZone timeZone) {
+        return modify(millis, field, timeZone, MODIFY_ROUND);
+    }
+
+    /**
+     * <p>Gets the ceiling of an instant, leaving the field specified as the most
+     * significant field.</p>
+     *
+     * <p>This gives the same result as {@link #ceiling(Calendar, int)} with a
+     * calendar in the given time zone. For the fields up to {@code DATE} it is
+     * computed arithmetically from the time zone offset, without a
+     * {@code Calendar}, except on days when the offset changes.</p>
+     *
+     * @param millis  the instant to work with, in milliseconds since the epoch
+     * @param field  the field from {@code Calendar} or <code>SEMI_MONTH</code>
+     * @param timeZone  the time zone of the fields, not null
+     * @return the ceiling instant, in milliseconds since the epoch
+     * @throws IllegalArgumentException if the time zone is <code>null</code>
+     *  or the field is not supported
+     * @throws ArithmeticException if the year is over 280 million
+     * @since 3.2
+     */
+    public static long ceiling(final long millis, final int field, final TimeZone timeZone) {
+        return modify(millis, field, timeZone, MODIFY_CEILING);
+    }
+
+    /**
+     * <p>Internal calculation method for instants.</p>
+     *
+     * <p>Within a day whose time zone offset does not change, the calendar
+     * operations of {@link #modify(Calendar, int, int)} reduce to removing
+     * the remainder of the local time of day, then adding one unit of the
+     * field when rounding up.</p>
+     *
+     * @param millis  the instant, in milliseconds since the epoch
+     * @param field  the field constant
+     * @param timeZone  the time zone, not null
+     * @param modType  type to truncate, round or ceiling
+     * @return the modified instant
+     * @throws ArithmeticException if the year is over 280 million
+     */
+    private static long modify(final long millis, final int field, final TimeZone timeZone, final int modType) {
+        if (timeZone == null) {
+            throw new IllegalArgumentException("The time zone must not be null");
+        }
+        final ZoneDay day = Math.abs(millis) < MAX_ARITHMETIC_MILLIS ? getZoneDay(millis, timeZone) : null;
+        if (day != null) {
+            final int millisOfDay = (int) (millis - day.mStart);
+            long unit = 0;
+            boolean roundUp = false;
+            switch (field) {
+                case Calendar.MILLISECOND:
+                    return millis;
+                case Calendar.SECOND:
+                    unit = MILLIS_PER_SECOND;
+                    roundUp = millisOfDay % MILLIS_PER_SECOND >= 500;
+                    break;
+                case Calendar.MINUTE:
+                    unit = MILLIS_PER_MINUTE;
+                    roundUp = millisOfDay / MILLIS_PER_SECOND % 60 >= 30;
+                    break;
+                case Calendar.HOUR_OF_DAY:
+                case Calendar.HOUR:
+                    unit = MILLIS_PER_HOUR;
+                    roundUp = millisOfDay / MILLIS_PER_MINUTE % 60 >= 30;
+                    break;
+                case Calendar.AM_PM:
+                    unit = 12 * MILLIS_PER_HOUR;
+                    roundUp = millisOfDay / MILLIS_PER_HOUR % 12 >= 6;
+                    break;
+                case Calendar.DATE:
+                    unit = MILLIS_PER_DAY;
+                    roundUp = millisOfDay / MILLIS_PER_HOUR >= 12;
+                    break;
+            }
+            if (unit != 0) {
+                final long truncated = millis - millisOfDay % unit;
+                return modType == MODIFY_CEILING || (modType == MODIFY_ROUND && roundUp) ? truncated + unit : truncated;
+            }
+        }
+        final Calendar gval = Calendar.getInstance(timeZone);
+        gval.setTimeInMillis(millis);
+        modify(gval, field, modType);
+        return gval.getTimeInMillis();
+    }
+
+    /**
+     * <p>Gets the day containing an instant, reusing the most recently
+     * used day if possible.</p>
+     *
+     * @param millis  the instant, in milliseconds since the epoch
+     * @param timeZone  the time zone, not null
+     * @return the day, or {@code null} if the time zone offset changes during
+     *  the day or at its end
+     */
+    private static ZoneDay getZoneDay(final long millis, final TimeZone timeZone) {
+        ZoneDay day = zoneDay;
+        if (day != null && millis >= day.mStart && millis < day.mEnd && day.mTimeZone.equals(timeZone)) {
+            return day;
+        }
+        final int offset = timeZone.getOffset(millis);
+        final long start = millis - Math.floorMod(millis + offset, MILLIS_PER_DAY);
+        final long end = start + MILLIS_PER_DAY;
+        if (timeZone.getOffset(start) != offset || timeZone.getOffset(end - 1) != offset
+                || timeZone.getOffset(end) != offset) {
+            return null;
+        }
+        // time zones are mutable, so keep a copy
+        day = new ZoneDay((TimeZone) timeZone.clone(), start, end);
+        zoneDay = day;
+        return day;
+    }
+
+
     //-----------------------------------------------------------------------
     /**
      * <p>Internal calculation method.</p>
@@ -1249,6 +1425,121 @@ public class DateUtils {
             throw new ClassCastException("Could not iterate based on " + focus);
         }
     }
+
+    /**
+     * <p>Constructs an iterator over the first instant of each day in a date
+     * range defined by a focus instant, a time zone and range style.</p>
+     *
+     * <p>The days are the same as those of {@link #iterator(Calendar, int)}
+     * with a calendar in the given time zone, but each is returned as
+     * milliseconds since the epoch without allocating a {@code Calendar}.
+     * The instants are computed from a table of the time zone transitions
+     * in the range. On a day starting in a daylight saving gap the first
+     * instant is the end of the gap, and on a day starting in an overlap it
+     * is the earlier of the two. Months use the ISO calendar system, which
+     * agrees with {@code GregorianCalendar} from 15 October 1582.</p>
+     *
+     * @param focus  the instant to work with, in milliseconds since the epoch
+     * @param rangeStyle  the style constant to use. Must be one of the range
+     * styles listed for the {@link #iterator(Calendar, int)} method.
+     * @param timeZone  the time zone of the days, not null
+     * @return the iterator, not null
+     * @throws IllegalArgumentException if the time zone is <code>null</code>
+     * @throws IllegalArgumentException if the rangeStyle is invalid
+     * @since 3.2
+     */
+    public static PrimitiveIterator.OfLong iterator(final long focus, final int rangeStyle, final TimeZone timeZone) {
+        if (timeZone == null) {
+            throw new IllegalArgumentException("The time zone must not be null");
+        }
+        final long focusDay = Math.floorDiv(focus + timeZone.getOffset(focus), MILLIS_PER_DAY);
+        long startDay;
+        long endDay;
+        int startCutoff = Calendar.SUNDAY;
+        int endCutoff = Calendar.SATURDAY;
+        switch (rangeStyle) {
+            case RANGE_MONTH_SUNDAY:
+            case RANGE_MONTH_MONDAY:
+                final LocalDate date = LocalDate.ofEpochDay(focusDay);
+                startDay = focusDay - date.getDayOfMonth() + 1;
+                endDay = startDay + date.lengthOfMonth() - 1;
+                if (rangeStyle == RANGE_MONTH_MONDAY) {
+                    startCutoff = Calendar.MONDAY;
+                    endCutoff = Calendar.SUNDAY;
+                }
+                break;
+            case RANGE_WEEK_SUNDAY:
+            case RANGE_WEEK_MONDAY:
+            case RANGE_WEEK_RELATIVE:
+            case RANGE_WEEK_CENTER:
+                startDay = focusDay;
+                endDay = focusDay;
+                switch (rangeStyle) {
+                    case RANGE_WEEK_SUNDAY:
+                        //already set by default
+                        break;
+                    case RANGE_WEEK_MONDAY:
+                        startCutoff = Calendar.MONDAY;
+                        endCutoff = Calendar.SUNDAY;
+                        break;
+                    case RANGE_WEEK_RELATIVE:
+                        startCutoff = getDayOfWeek(focusDay);
+                        endCutoff = startCutoff - 1;
+                        break;
+                    case RANGE_WEEK_CENTER:
+                        startCutoff = getDayOfWeek(focusDay) - 3;
+                        endCutoff = getDayOfWeek(focusDay) + 3;
+                        break;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("The range style " + rangeStyle + " is not valid.");
+        }
+        startDay -= Math.floorMod(getDayOfWeek(startDay) - startCutoff, 7);
+        endDay += Math.floorMod(endCutoff - getDayOfWeek(endDay), 7);
+        return new DayIterator(startDay, endDay, timeZone);
+    }
+
+    /**
+     * <p>Creates a stream of the first instant of each day from the day
+     * containing one instant to the day containing another, both inclusive.</p>
+     *
+     * <p>For instance, passing noon on Thursday, July 4, 2002 and noon on
+     * Saturday, July 6, 2002 will return a stream of three instants, midnight
+     * at the start of each of those days.</p>
+     *
+     * <p>The instants are computed as described for
+     * {@link #iterator(long, int, TimeZone)}, so a report over a long range
+     * can be generated without allocating a {@code Calendar} per day.</p>
+     *
+     * @param start  an instant in the first day, in milliseconds since the epoch
+     * @param end  an instant in the last day, in milliseconds since the epoch
+     * @param timeZone  the time zone of the days, not null
+     * @return the sequential stream, empty if the end is before the start, not null
+     * @throws IllegalArgumentException if the time zone is <code>null</code>
+     * @since 3.2
+     */
+    public static LongStream dayStream(final long start, final long end, final TimeZone timeZone) {
+        if (timeZone == null) {
+            throw new IllegalArgumentException("The time zone must not be null");
+        }
+        final long startDay = Math.floorDiv(start + timeZone.getOffset(start), MILLIS_PER_DAY);
+        final long endDay = Math.floorDiv(end + timeZone.getOffset(end), MILLIS_PER_DAY);
+        final DayIterator days = new DayIterator(startDay, Math.max(startDay - 1, endDay), timeZone);
+        return StreamSupport.longStream(Spliterators.spliterator(days, days.size(), Spliterator.ORDERED
+                | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * <p>Gets the day of the week of a day counted from the epoch.</p>
+     *
+     * @param epochDay  the day, 1970-01-01 being day zero
+     * @return the {@code Calendar} day of the week constant
+     */
+    private static int getDayOfWeek(final long epochDay) {
+        // 1970-01-01 was a Thursday
+        return (int) Math.floorMod(epochDay + Calendar.THURSDAY - 1, 7) + 1;
+    }
     
     /**
      * <p>Returns the number of milliseconds within the 
@@ -1647,6 +1938,117 @@ public class DateUtils {
     public static long getFragmentInDays(final Calendar calendar, final int fragment) {
         return getFragment(calendar, fragment, Calendar.DAY_OF_YEAR);
     }
+
+    /**
+     * <p>Returns the number of milliseconds within the fragment of an
+     * instant in a time zone. All datefields greater than the fragment
+     * will be ignored.</p>
+     *
+     * <p>This gives the same result as {@link #getFragmentInMilliseconds(Calendar, int)}
+     * with a calendar in the given time zone, computed from the time zone
+     * offset without a {@code Calendar}. The year and month fragments use
+     * the ISO calendar system, which agrees with {@code GregorianCalendar}
+     * from 15 October 1582.</p>
+     *
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the {@code Calendar} field part of the instant to calculate
+     * @param timeZone the time zone of the fields, not null
+     * @return number of milliseconds within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or
+     * fragment is not supported
+     * @since 3.2
+     */
+    public static long getFragmentInMilliseconds(final long millis, final int fragment, final TimeZone timeZone) {
+        return getFragment(millis, fragment, Calendar.MILLISECOND, timeZone);
+    }
+
+    /**
+     * <p>Returns the number of seconds within the fragment of an
+     * instant in a time zone. All datefields greater than the fragment
+     * will be ignored.</p>
+     *
+     * <p>This gives the same result as {@link #getFragmentInSeconds(Calendar, int)}
+     * with a calendar in the given time zone, computed from the time zone
+     * offset without a {@code Calendar}.</p>
+     *
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the {@code Calendar} field part of the instant to calculate
+     * @param timeZone the time zone of the fields, not null
+     * @return number of seconds within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or
+     * fragment is not supported
+     * @see #getFragmentInMilliseconds(long, int, TimeZone)
+     * @since 3.2
+     */
+    public static long getFragmentInSeconds(final long millis, final int fragment, final TimeZone timeZone) {
+        return getFragment(millis, fragment, Calendar.SECOND, timeZone);
+    }
+
+    /**
+     * <p>Returns the number of minutes within the fragment of an
+     * instant in a time zone. All datefields greater than the fragment
+     * will be ignored.</p>
+     *
+     * <p>This gives the same result as {@link #getFragmentInMinutes(Calendar, int)}
+     * with a calendar in the given time zone, computed from the time zone
+     * offset without a {@code Calendar}.</p>
+     *
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the {@code Calendar} field part of the instant to calculate
+     * @param timeZone the time zone of the fields, not null
+     * @return number of minutes within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or
+     * fragment is not supported
+     * @see #getFragmentInMilliseconds(long, int, TimeZone)
+     * @since 3.2
+     */
+    public static long getFragmentInMinutes(final long millis, final int fragment, final TimeZone timeZone) {
+        return getFragment(millis, fragment, Calendar.MINUTE, timeZone);
+    }
+
+    /**
+     * <p>Returns the number of hours within the fragment of an
+     * instant in a time zone. All datefields greater than the fragment
+     * will be ignored.</p>
+     *
+     * <p>This gives the same result as {@link #getFragmentInHours(Calendar, int)}
+     * with a calendar in the given time zone, computed from the time zone
+     * offset without a {@code Calendar}.</p>
+     *
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the {@code Calendar} field part of the instant to calculate
+     * @param timeZone the time zone of the fields, not null
+     * @return number of hours within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or
+     * fragment is not supported
+     * @see #getFragmentInMilliseconds(long, int, TimeZone)
+     * @since 3.2
+     */
+    public static long getFragmentInHours(final long millis, final int fragment, final TimeZone timeZone) {
+        return getFragment(millis, fragment, Calendar.HOUR_OF_DAY, timeZone);
+    }
+
+    /**
+     * <p>Returns the number of days within the fragment of an
+     * instant in a time zone. All datefields greater than the fragment
+     * will be ignored.</p>
+     *
+     * <p>This gives the same result as {@link #getFragmentInDays(Calendar, int)}
+     * with a calendar in the given time zone, computed from the time zone
+     * offset without a {@code Calendar}.</p>
+     *
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the {@code Calendar} field part of the instant to calculate
+     * @param timeZone the time zone of the fields, not null
+     * @return number of days within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or
+     * fragment is not supported
+     * @see #getFragmentInMilliseconds(long, int, TimeZone)
+     * @since 3.2
+     */
+    public static long getFragmentInDays(final long millis, final int fragment, final TimeZone timeZone) {
+        return getFragment(millis, fragment, Calendar.DAY_OF_YEAR, timeZone);
+    }
     
     /**
      * Gets a Date fragment for any unit.
@@ -1720,6 +2122,49 @@ public class DateUtils {
         }
         return result;
     }
+
+    /**
+     * Gets an instant fragment for any unit.
+     *
+     * <p>The fields below a day are the remainders of the local time of day,
+     * so each fragment is a single division by the unit.</p>
+     * 
+     * @param millis the instant to work with, in milliseconds since the epoch
+     * @param fragment the Calendar field part of the instant to calculate 
+     * @param unit the {@code Calendar} field defining the unit
+     * @param timeZone the time zone of the fields, not null
+     * @return number of units within the fragment of the instant
+     * @throws IllegalArgumentException if the time zone is <code>null</code> or 
+     * fragment is not supported
+     * @since 3.2
+     */
+    private static long getFragment(final long millis, final int fragment, final int unit, final TimeZone timeZone) {
+        if (timeZone == null) {
+            throw new IllegalArgumentException("The time zone must not be null");
+        }
+        final long millisPerUnit = getMillisPerUnit(unit);
+        final long local = millis + timeZone.getOffset(millis);
+        final long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+        final long millisOfDay = local - epochDay * MILLIS_PER_DAY;
+
+        switch (fragment) {
+            case Calendar.YEAR:
+                return (LocalDate.ofEpochDay(epochDay).getDayOfYear() * MILLIS_PER_DAY + millisOfDay) / millisPerUnit;
+            case Calendar.MONTH:
+                return (LocalDate.ofEpochDay(epochDay).getDayOfMonth() * MILLIS_PER_DAY + millisOfDay) / millisPerUnit;
+            case Calendar.DAY_OF_YEAR:
+            case Calendar.DATE:
+                return millisOfDay / millisPerUnit;
+            case Calendar.HOUR_OF_DAY:
+                return millisOfDay % MILLIS_PER_HOUR / millisPerUnit;
+            case Calendar.MINUTE:
+                return millisOfDay % MILLIS_PER_MINUTE / millisPerUnit;
+            case Calendar.SECOND:
+                return millisOfDay % MILLIS_PER_SECOND / millisPerUnit;
+            case Calendar.MILLISECOND: return 0;//never useful
+            default: throw new IllegalArgumentException("The fragment " + fragment + " is not supported");
+        }
+    }
     
     /**
      * Determines if two calendars are equal up to no more than the specified 
@@ -1885,4 +2330,152 @@ public class DateUtils {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Iterator over the first instant of each day in a range of days.</p>
+     *
+     * <p>The time zone transitions of the range are found once, by comparing
+     * the offsets a day apart, so each day is a subtraction of the offset in
+     * effect at its start.</p>
+     */
+    static class DayIterator implements PrimitiveIterator.OfLong {
+        /** The last day, 1970-01-01 being day zero. */
+        private final long endDay;
+        /** The instants of the transitions, in milliseconds since the epoch. */
+        private final long[] transitions;
+        /** The offset before each transition, followed by the offset after the last. */
+        private final int[] offsets;
+        /** The next day, 1970-01-01 being day zero. */
+        private long day;
+        /** The index of the next transition. */
+        private int index;
+
+        /**
+         * Constructs a DayIterator that ranges from one day to another.
+         *
+         * @param startDay the first day (inclusive)
+         * @param endDay the last day (inclusive)
+         * @param timeZone the time zone of the days, not null
+         */
+        DayIterator(final long startDay, final long endDay, final TimeZone timeZone) {
+            super();
+            this.day = startDay;
+            this.endDay = endDay;
+            // offsets are under a day, so this covers the start of every day in the range
+            final long from = (startDay - 1) * MILLIS_PER_DAY;
+            final long to = (endDay + 2) * MILLIS_PER_DAY;
+            final List<Long> foundTransitions = new ArrayList<Long>();
+            final List<Integer> foundOffsets = new ArrayList<Integer>();
+            int offset = timeZone.getOffset(from);
+            foundOffsets.add(Integer.valueOf(offset));
+            // only the TimeZone API is used, as custom zones may be unknown to java.time
+            for (long probe = from + MILLIS_PER_DAY; probe <= to; probe += MILLIS_PER_DAY) {
+                long after = probe - MILLIS_PER_DAY;
+                while (timeZone.getOffset(probe) != offset) {
+                    // the first instant from which the offset differs
+                    long before = probe;
+                    while (before - after > 1) {
+                        final long middle = after + (before - after) / 2;
+                        if (timeZone.getOffset(middle) == offset) {
+                            after = middle;
+                        } else {
+                            before = middle;
+                        }
+                    }
+                    offset = timeZone.getOffset(before);
+                    foundTransitions.add(Long.valueOf(before));
+                    foundOffsets.add(Integer.valueOf(offset));
+                    after = before;
+                }
+            }
+            transitions = new long[foundTransitions.size()];
+            offsets = new int[foundOffsets.size()];
+            for (int i = 0; i < transitions.length; i++) {
+                transitions[i] = foundTransitions.get(i).longValue();
+            }
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = foundOffsets.get(i).intValue();
+            }
+        }
+
+        /**
+         * Gets the number of days left.
+         *
+         * @return the number of days not yet returned
+         */
+        long size() {
+            return endDay - day + 1;
+        }
+
+        /**
+         * Has the iterator not reached the end day yet?
+         *
+         * @return <code>true</code> if the iterator has yet to reach the end day
+         */
+        @Override
+        public boolean hasNext() {
+            return day <= endDay;
+        }
+
+        /**
+         * Return the first instant of the next day in the iteration.
+         *
+         * @return the instant, in milliseconds since the epoch
+         */
+        @Override
+        public long nextLong() {
+            if (day > endDay) {
+                throw new NoSuchElementException();
+            }
+            final long local = day++ * MILLIS_PER_DAY;
+            while (index < transitions.length && local - offsets[index] >= transitions[index]) {
+                index++;
+                if (local - offsets[index] < transitions[index - 1]) {
+                    // midnight is in the gap, so the day starts at its end
+                    return transitions[index - 1];
+                }
+            }
+            return local - offsets[index];
+        }
+
+        /**
+         * Always throws UnsupportedOperationException.
+         * 
+         * @throws UnsupportedOperationException
+         * @see java.util.Iterator#remove()
+         */
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * <p>A local day in a time zone, during which the offset does not change.</p>
+     *
+     * <p>Instances are immutable, so they can be shared between threads.</p>
+     */
+    private static final class ZoneDay {
+        /** A copy of the time zone. */
+        final TimeZone mTimeZone;
+        /** The first instant of the day, in milliseconds since the epoch. */
+        final long mStart;
+        /** The first instant of the next day, in milliseconds since the epoch. */
+        final long mEnd;
+
+        /**
+         * Constructs an instance of {@code ZoneDay}.
+         *
+         * @param timeZone  the time zone, not shared with callers
+         * @param start  the first instant of the day
+         * @param end  the first instant of the next day
+         */
+        ZoneDay(final TimeZone timeZone, final long start, final long end) {
+            mTimeZone = timeZone;
+            mStart = start;
+            mEnd = end;
+        }
+    }
+
 }
@@ -16,10 +16,14 @@
  */
 package org.apache.commons.lang3.time;
 
+import java.io.IOException;
+import java.time.Month;
+import java.time.Year;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Locale;
 import java.util.TimeZone;
 
 import org.apache.commons.lang3.StringUtils;
@@ -62,6 +66,16 @@ public class DurationFormatUtils {
      */
     public static final String ISO_EXTENDED_FORMAT_PATTERN = "'P'yyyy'Y'M'M'd'DT'H'H'm'M's.S'S'";
 
+    /**
+     * The first instant of 1583, the first full year of the Gregorian calendar
+     * used by default by {@code GregorianCalendar}.
+     */
+    private static final long GREGORIAN_MILLIS = -12212553600000L;
+    /**
+     * The limit of the instants that are formatted arithmetically.
+     */
+    private static final long MAX_ARITHMETIC_MILLIS = 1000000000000000000L;
+
     //-----------------------------------------------------------------------
     /**
      * <p>Formats the time gap as a string.</p>
@@ -114,42 +128,15 @@ public class DurationFormatUtils {
      * <p>This method formats durations using the days and lower fields of the
      * format pattern. Months and larger are not used.</p>
      * 
+     * <p>The format is compiled once and cached, see {@link DurationFormatter}.</p>
+     * 
      * @param durationMillis  the duration to format
      * @param format  the way in which to format the duration, not null
      * @param padWithZeros  whether to pad the left hand side of numbers with 0's
      * @return the formatted duration, not null
      */
-    public static String formatDuration(long durationMillis, final String format, final boolean padWithZeros) {
-
-        final Token[] tokens = lexx(format);
-
-        int days         = 0;
-        int hours        = 0;
-        int minutes      = 0;
-        int seconds      = 0;
-        int milliseconds = 0;
-        
-        if (Token.containsTokenWithValue(tokens, d) ) {
-            days = (int) (durationMillis / DateUtils.MILLIS_PER_DAY);
-            durationMillis = durationMillis - (days * DateUtils.MILLIS_PER_DAY);
-        }
-        if (Token.containsTokenWithValue(tokens, H) ) {
-            hours = (int) (durationMillis / DateUtils.MILLIS_PER_HOUR);
-            durationMillis = durationMillis - (hours * DateUtils.MILLIS_PER_HOUR);
-        }
-        if (Token.containsTokenWithValue(tokens, m) ) {
-            minutes = (int) (durationMillis / DateUtils.MILLIS_PER_MINUTE);
-            durationMillis = durationMillis - (minutes * DateUtils.MILLIS_PER_MINUTE);
-        }
-        if (Token.containsTokenWithValue(tokens, s) ) {
-            seconds = (int) (durationMillis / DateUtils.MILLIS_PER_SECOND);
-            durationMillis = durationMillis - (seconds * DateUtils.MILLIS_PER_SECOND);
-        }
-        if (Token.containsTokenWithValue(tokens, S) ) {
-            milliseconds = (int) durationMillis;
-        }
-
-        return format(tokens, 0, 0, days, hours, minutes, seconds, milliseconds, padWithZeros);
+    public static String formatDuration(final long durationMillis, final String format, final boolean padWithZeros) {
+        return DurationFormatter.getInstance(format, padWithZeros).format(durationMillis);
     }
 
     /**
@@ -256,6 +243,10 @@ public class DurationFormatUtils {
      * choosing March -> February = 1 month and then calculating days 
      * backwards. </p>
      *
+     * <p>In a time zone with a fixed offset, such as UTC, the period is
+     * computed from the epoch days of the start and end, without creating
+     * calendars.</p>
+     *
      * <p>For more control, the <a href="http://joda-time.sf.net/">Joda-Time</a>
      * library is recommended.</p>
      * 
@@ -272,10 +263,27 @@ public class DurationFormatUtils {
         // Used to optimise for differences under 28 days and 
         // called formatDuration(millis, format); however this did not work 
         // over leap years. 
-        // TODO: Compare performance to see if anything was lost by 
-        // losing this optimisation. 
         
-        final Token[] tokens = lexx(format);
+        final DurationFormatter formatter = DurationFormatter.getInstance(format, padWithZeros);
+        if (startMillis <= endMillis && endMillis < MAX_ARITHMETIC_MILLIS && isFixedOffset(timezone, startMillis, endMillis)
+                && isGregorianDefault() && startMillis + timezone.getRawOffset() >= GREGORIAN_MILLIS) {
+            return formatPeriodFixedOffset(startMillis, endMillis, formatter, timezone.getRawOffset());
+        }
+        return formatPeriodWithCalendar(startMillis, endMillis, formatter, timezone);
+    }
+
+    /**
+     * <p>Formats the time gap as a string using two calendars, which works
+     * in any time zone.</p>
+     *
+     * @param startMillis  the start of the duration
+     * @param endMillis  the end of the duration
+     * @param formatter  the compiled format, not null
+     * @param timezone  the millis are defined in
+     * @return the formatted duration, not null
+     */
+    static String formatPeriodWithCalendar(final long startMillis, final long endMillis,
+            final DurationFormatter formatter, final TimeZone timezone) {
 
         // timezones get funky around 0, so normalizing everything to GMT 
         // stops the hours being off
@@ -311,7 +319,7 @@ public class DurationFormatUtils {
             days -= 1;
         }
        
-        if (Token.containsTokenWithValue(tokens, M)) {
+        if (formatter.contains(M)) {
             while (days < 0) {
                 days += start.getActualMaximum(Calendar.DAY_OF_MONTH);
                 months -= 1;
@@ -323,7 +331,7 @@ public class DurationFormatUtils {
                 years -= 1;
             }
 
-            if (!Token.containsTokenWithValue(tokens, y) && years != 0) {
+            if (!formatter.contains(y) && years != 0) {
                 while (years != 0) {
                     months += 12 * years;
                     years = 0;
@@ -332,7 +340,7 @@ public class DurationFormatUtils {
         } else {
             // there are no M's in the format string
 
-            if( !Token.containsTokenWithValue(tokens, y) ) {
+            if( !formatter.contains(y) ) {
                 int target = end.get(Calendar.YEAR);
                 if (months < 0) {
                     // target is end-year -1
@@ -372,98 +380,265 @@ public class DurationFormatUtils {
             
         }
 
+        return format(formatter, years, months, days, hours, minutes, seconds, milliseconds);
+    }
+
+    /**
+     * <p>Formats the time gap as a string in a time zone with a fixed offset,
+     * giving the same result as {@link #formatPeriodWithCalendar}.</p>
+     *
+     * <p>The calendar fields of both ends are computed from their epoch days,
+     * and the month and year steps of the calendar version are replayed on
+     * the year, month and day of the start.</p>
+     *
+     * @param startMillis  the start of the duration, not after the end
+     * @param endMillis  the end of the duration
+     * @param formatter  the compiled format, not null
+     * @param offset  the offset of the time zone, in milliseconds
+     * @return the formatted duration, not null
+     */
+    static String formatPeriodFixedOffset(final long startMillis, final long endMillis,
+            final DurationFormatter formatter, final int offset) {
+        final long startLocal = startMillis + offset;
+        final long endLocal = endMillis + offset;
+        final long startEpochDay = Math.floorDiv(startLocal, DateUtils.MILLIS_PER_DAY);
+        final long endEpochDay = Math.floorDiv(endLocal, DateUtils.MILLIS_PER_DAY);
+        final int startMillisOfDay = (int) (startLocal - startEpochDay * DateUtils.MILLIS_PER_DAY);
+        final int endMillisOfDay = (int) (endLocal - endEpochDay * DateUtils.MILLIS_PER_DAY);
+        final long startDate = toCivilDate(startEpochDay);
+        final long endDate = toCivilDate(endEpochDay);
+        int startYear = (int) (startDate >> 9);
+        int startMonth = (int) (startDate >> 5 & 0xF);
+        int startDay = (int) (startDate & 0x1F);
+        final int endYear = (int) (endDate >> 9);
+        final int endMonth = (int) (endDate >> 5 & 0xF);
+
+        // initial estimates
+        int milliseconds = endMillisOfDay % 1000 - startMillisOfDay % 1000;
+        int seconds = endMillisOfDay / 1000 % 60 - startMillisOfDay / 1000 % 60;
+        int minutes = endMillisOfDay / 60000 % 60 - startMillisOfDay / 60000 % 60;
+        int hours = endMillisOfDay / 3600000 - startMillisOfDay / 3600000;
+        int days = (int) (endDate & 0x1F) - startDay;
+        int months = endMonth - startMonth;
+        int years = endYear - startYear;
+
+        // each initial estimate is adjusted in case it is under 0
+        if (milliseconds < 0) {
+            milliseconds += 1000;
+            seconds -= 1;
+        }
+        if (seconds < 0) {
+            seconds += 60;
+            minutes -= 1;
+        }
+        if (minutes < 0) {
+            minutes += 60;
+            hours -= 1;
+        }
+        if (hours < 0) {
+            hours += 24;
+            days -= 1;
+        }
+
+        // the loops step the start date as Calendar.add does, keeping the
+        // day of the month unless the new month is shorter
+        if (formatter.contains(M)) {
+            while (days < 0) {
+                days += lengthOfMonth(startYear, startMonth);
+                months -= 1;
+                if (++startMonth == 12) {
+                    startMonth = 0;
+                    startYear++;
+                }
+                startDay = Math.min(startDay, lengthOfMonth(startYear, startMonth));
+            }
+
+            while (months < 0) {
+                months += 12;
+                years -= 1;
+            }
+
+            if (!formatter.contains(y)) {
+                months += 12 * years;
+                years = 0;
+            }
+        } else {
+            // there are no M's in the format string
+
+            if (!formatter.contains(y)) {
+                int target = endYear;
+                if (months < 0) {
+                    // target is end-year -1
+                    target -= 1;
+                }
+
+                while (startYear != target) {
+                    days += (Year.isLeap(startYear) ? 366 : 365) - dayOfYear(startYear, startMonth, startDay);
+
+                    // as in the calendar version, the 29th of February counts an extra day
+                    if (startMonth == 1 && startDay == 29) {
+                        days += 1;
+                    }
+
+                    startYear++;
+                    startDay = Math.min(startDay, lengthOfMonth(startYear, startMonth));
+
+                    days += dayOfYear(startYear, startMonth, startDay);
+                }
+
+                years = 0;
+            }
+
+            while (startMonth != endMonth) {
+                days += lengthOfMonth(startYear, startMonth);
+                if (++startMonth == 12) {
+                    startMonth = 0;
+                    startYear++;
+                }
+                startDay = Math.min(startDay, lengthOfMonth(startYear, startMonth));
+            }
+
+            months = 0;
+
+            while (days < 0) {
+                days += lengthOfMonth(startYear, startMonth);
+                months -= 1;
+                if (++startMonth == 12) {
+                    startMonth = 0;
+                    startYear++;
+                }
+                startDay = Math.min(startDay, lengthOfMonth(startYear, startMonth));
+            }
+        }
+
+        return format(formatter, years, months, days, hours, minutes, seconds, milliseconds);
+    }
+
+    /**
+     * <p>Formats the period, adding the values of fields that are not in the
+     * format to the next smaller field that is.</p>
+     *
+     * @param formatter  the compiled format, not null
+     * @param years  the number of years
+     * @param months  the number of months
+     * @param days  the number of days
+     * @param hours  the number of hours
+     * @param minutes  the number of minutes
+     * @param seconds  the number of seconds
+     * @param milliseconds  the number of millis
+     * @return the formatted duration, not null
+     */
+    private static String format(final DurationFormatter formatter, final int years, final int months,
+            int days, int hours, int minutes, int seconds, int milliseconds) {
         // The rest of this code adds in values that 
         // aren't requested. This allows the user to ask for the 
         // number of months and get the real count and not just 0->11.
 
-        if (!Token.containsTokenWithValue(tokens, d)) {
+        if (!formatter.contains(d)) {
             hours += 24 * days;
             days = 0;
         }
-        if (!Token.containsTokenWithValue(tokens, H)) {
+        if (!formatter.contains(H)) {
             minutes += 60 * hours;
             hours = 0;
         }
-        if (!Token.containsTokenWithValue(tokens, m)) {
+        if (!formatter.contains(m)) {
             seconds += 60 * minutes;
             minutes = 0;
         }
-        if (!Token.containsTokenWithValue(tokens, s)) {
+        if (!formatter.contains(s)) {
             milliseconds += 1000 * seconds;
             seconds = 0;
         }
 
-        return format(tokens, years, months, days, hours, minutes, seconds, milliseconds, padWithZeros);
+        try {
+            return formatter.format(years, months, days, hours, minutes, seconds, milliseconds,
+                    new StringBuilder(formatter.getFormat().length() + 16)).toString();
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * <p>Checks whether a time zone applies its raw offset at both ends of a period.</p>
+     *
+     * <p>Only the {@code TimeZone} API is consulted, so custom zones whose ID is
+     * not known to {@code java.time} are supported.</p>
+     *
+     * @param timezone  the time zone to check
+     * @param startMillis  the start of the period
+     * @param endMillis  the end of the period
+     * @return {@code true} if the raw offset applies at both instants
+     */
+    private static boolean isFixedOffset(final TimeZone timezone, final long startMillis, final long endMillis) {
+        final int rawOffset = timezone.getRawOffset();
+        return !timezone.useDaylightTime()
+                && timezone.getOffset(startMillis) == rawOffset
+                && timezone.getOffset(endMillis) == rawOffset;
     }
 
-    //-----------------------------------------------------------------------
     /**
-     * <p>The internal method to do the formatting.</p>
-     * 
-     * @param tokens  the tokens
-     * @param years  the number of years
-     * @param months  the number of months
-     * @param days  the number of days
-     * @param hours  the number of hours
-     * @param minutes  the number of minutes
-     * @param seconds  the number of seconds
-     * @param milliseconds  the number of millis
-     * @param padWithZeros  whether to pad
-     * @return the formatted string
+     * <p>Checks whether {@code Calendar.getInstance} gives a calendar with
+     * Gregorian years and months, which the fast path of
+     * {@link #formatPeriod(long, long, String, boolean, TimeZone)} assumes.
+     * The Buddhist calendar only differs in the numbering of years.</p>
+     *
+     * @return {@code false} if the default locale asks for the Japanese calendar
      */
-    static String format(final Token[] tokens, final int years, final int months, final int days, final int hours, final int minutes, final int seconds,
-            int milliseconds, final boolean padWithZeros) {
-        final StringBuilder buffer = new StringBuilder();
-        boolean lastOutputSeconds = false;
-        final int sz = tokens.length;
-        for (int i = 0; i < sz; i++) {
-            final Token token = tokens[i];
-            final Object value = token.getValue();
-            final int count = token.getCount();
-            if (value instanceof StringBuilder) {
-                buffer.append(value.toString());
-            } else {
-                if (value == y) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(years), count, '0') : Integer
-                            .toString(years));
-                    lastOutputSeconds = false;
-                } else if (value == M) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(months), count, '0') : Integer
-                            .toString(months));
-                    lastOutputSeconds = false;
-                } else if (value == d) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(days), count, '0') : Integer
-                            .toString(days));
-                    lastOutputSeconds = false;
-                } else if (value == H) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(hours), count, '0') : Integer
-                            .toString(hours));
-                    lastOutputSeconds = false;
-                } else if (value == m) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(minutes), count, '0') : Integer
-                            .toString(minutes));
-                    lastOutputSeconds = false;
-                } else if (value == s) {
-                    buffer.append(padWithZeros ? StringUtils.leftPad(Integer.toString(seconds), count, '0') : Integer
-                            .toString(seconds));
-                    lastOutputSeconds = true;
-                } else if (value == S) {
-                    if (lastOutputSeconds) {
-                        milliseconds += 1000;
-                        final String str = padWithZeros
-                                ? StringUtils.leftPad(Integer.toString(milliseconds), count, '0')
-                                : Integer.toString(milliseconds);
-                        buffer.append(str.substring(1));
-                    } else {
-                        buffer.append(padWithZeros
-                                ? StringUtils.leftPad(Integer.toString(milliseconds), count, '0')
-                                : Integer.toString(milliseconds));
-                    }
-                    lastOutputSeconds = false;
-                }
-            }
+    private static boolean isGregorianDefault() {
+        final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        final String type = locale.getUnicodeLocaleType("ca");
+        if (type != null) {
+            return type.equals("gregory") || type.equals("buddhist");
         }
-        return buffer.toString();
+        return !("ja".equals(locale.getLanguage()) && "JP".equals(locale.getCountry())
+                && "JP".equals(locale.getVariant()));
+    }
+
+    /**
+     * <p>Converts a day counted from the epoch to a proleptic Gregorian date,
+     * packed as the year shifted left by nine bits, the zero based month
+     * shifted left by five bits and the day of the month.</p>
+     *
+     * @param epochDay  the day, 1970-01-01 being day zero
+     * @return the packed date
+     */
+    private static long toCivilDate(final long epochDay) {
+        // the days of 400 year eras starting on the 1st of March
+        final long shifted = epochDay + 719468;
+        final long era = Math.floorDiv(shifted, 146097);
+        final int dayOfEra = (int) (shifted - era * 146097);
+        final int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int marchMonth = (5 * dayOfYear + 2) / 153;
+        final int day = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        final int month = marchMonth < 10 ? marchMonth + 2 : marchMonth - 10;
+        final long year = yearOfEra + era * 400 + (month <= 1 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * <p>Gets the number of days in a month of the Gregorian calendar.</p>
+     *
+     * @param year  the year
+     * @param month  the zero based month
+     * @return the length of the month
+     */
+    private static int lengthOfMonth(final int year, final int month) {
+        return Month.of(month + 1).length(Year.isLeap(year));
+    }
+
+    /**
+     * <p>Gets the day of the year of a date in the Gregorian calendar.</p>
+     *
+     * @param year  the year
+     * @param month  the zero based month
+     * @param day  the day of the month
+     * @return the one based day of the year
+     */
+    private static int dayOfYear(final int year, final int month, final int day) {
+        return Month.of(month + 1).firstDayOfYear(Year.isLeap(year)) + day - 1;
     }
 
     static final Object y = "y";
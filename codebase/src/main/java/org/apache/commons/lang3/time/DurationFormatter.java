@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.io.IOException;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p>DurationFormatter is a compiled form of a duration format pattern,
+ * as used by {@link DurationFormatUtils}.</p>
+ *
+ * <p>The pattern is parsed once, when the formatter is created, and
+ * instances are cached per pattern by {@link #getInstance(String, boolean)}.
+ * The caches are bounded as those of {@link FastDateFormat}, by the system
+ * property {@code org.apache.commons.lang3.time.FormatCache.capacity}.
+ * Formatting then writes the literals and the numbers of the pattern
+ * directly to the output, so a duration can be formatted into an existing
+ * {@code Appendable} without creating any intermediate strings.</p>
+ *
+ * <p>The output is the same as that of
+ * {@link DurationFormatUtils#formatDuration(long, String, boolean)}.</p>
+ *
+ * <p>This class is immutable and thread-safe.</p>
+ *
+ * @since 3.2
+ */
+public class DurationFormatter {
+
+    /** The fields, in the order of their bits in the field mask. */
+    private static final Object[] FIELDS = {
+        DurationFormatUtils.y, DurationFormatUtils.M, DurationFormatUtils.d, DurationFormatUtils.H,
+        DurationFormatUtils.m, DurationFormatUtils.s, DurationFormatUtils.S
+    };
+    private static final int YEARS = 0;
+    private static final int MONTHS = 1;
+    private static final int DAYS = 2;
+    private static final int HOURS = 3;
+    private static final int MINUTES = 4;
+    private static final int SECONDS = 5;
+    private static final int MILLISECONDS = 6;
+    /** Marks a token that is a literal rather than a field. */
+    private static final int LITERAL = -1;
+
+    /** The powers of ten up to that above the largest int. */
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L, 10000000000L
+    };
+
+    private static final FormatCache.BoundedCache<String, DurationFormatter> cPaddedCache =
+        new FormatCache.BoundedCache<String, DurationFormatter>(FormatCache.getDefaultCapacity());
+    private static final FormatCache.BoundedCache<String, DurationFormatter> cUnpaddedCache =
+        new FormatCache.BoundedCache<String, DurationFormatter>(FormatCache.getDefaultCapacity());
+
+    /**
+     * The pattern.
+     */
+    private final String mFormat;
+    /**
+     * Whether to pad the left hand side of numbers with zeros.
+     */
+    private final boolean mPadWithZeros;
+    /**
+     * The field of each token, or {@code LITERAL}.
+     */
+    private final int[] mFields;
+    /**
+     * The minimum width of each field token.
+     */
+    private final int[] mWidths;
+    /**
+     * The text of each literal token.
+     */
+    private final String[] mLiterals;
+    /**
+     * Whether each field token is milliseconds following seconds.
+     */
+    private final boolean[] mAfterSeconds;
+    /**
+     * The fields in the pattern, one bit per field.
+     */
+    private final int mFieldMask;
+
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Gets a formatter instance that pads numbers with zeros.</p>
+     *
+     * @param format  the way in which to format the duration, not null
+     * @return a formatter instance, not null
+     * @throws NullPointerException if the format is null
+     */
+    public static DurationFormatter getInstance(final String format) {
+        return getInstance(format, true);
+    }
+
+    /**
+     * <p>Gets a formatter instance, which is cached per pattern.</p>
+     *
+     * @param format  the way in which to format the duration, not null
+     * @param padWithZeros  whether to pad the left hand side of numbers with 0's
+     * @return a formatter instance, not null
+     * @throws NullPointerException if the format is null
+     */
+    public static DurationFormatter getInstance(final String format, final boolean padWithZeros) {
+        Validate.notNull(format, "The format must not be null");
+        final FormatCache.BoundedCache<String, DurationFormatter> cache = padWithZeros ? cPaddedCache : cUnpaddedCache;
+        DurationFormatter formatter = cache.get(format);
+        if (formatter == null) {
+            formatter = new DurationFormatter(format, padWithZeros);
+            final DurationFormatter previousValue = cache.putIfAbsent(format, formatter);
+            if (previousValue != null) {
+                formatter = previousValue;
+            }
+        }
+        return formatter;
+    }
+
+    /**
+     * <p>Gets the number of formatters held by the caches.</p>
+     *
+     * @return the number of cached formatters
+     */
+    static int getCacheSize() {
+        return cPaddedCache.size() + cUnpaddedCache.size();
+    }
+
+    /**
+     * <p>Constructs a new formatter, compiling the pattern.</p>
+     *
+     * @param format  the way in which to format the duration, not null
+     * @param padWithZeros  whether to pad the left hand side of numbers with 0's
+     */
+    protected DurationFormatter(final String format, final boolean padWithZeros) {
+        mFormat = format;
+        mPadWithZeros = padWithZeros;
+        final DurationFormatUtils.Token[] tokens = DurationFormatUtils.lexx(format);
+        mFields = new int[tokens.length];
+        mWidths = new int[tokens.length];
+        mLiterals = new String[tokens.length];
+        mAfterSeconds = new boolean[tokens.length];
+        int fieldMask = 0;
+        boolean lastOutputSeconds = false;
+        for (int i = 0; i < tokens.length; i++) {
+            final Object value = tokens[i].getValue();
+            final int field = indexOf(value);
+            mFields[i] = field;
+            if (field == LITERAL) {
+                // literals do not change whether the last field was seconds
+                mLiterals[i] = value.toString();
+            } else {
+                mWidths[i] = tokens[i].getCount();
+                mAfterSeconds[i] = field == MILLISECONDS && lastOutputSeconds;
+                lastOutputSeconds = field == SECONDS;
+                fieldMask |= 1 << field;
+            }
+        }
+        mFieldMask = fieldMask;
+    }
+
+    /**
+     * <p>Gets the field index of a token value.</p>
+     *
+     * @param value  the token value
+     * @return the index in {@code FIELDS}, or {@code LITERAL}
+     */
+    private static int indexOf(final Object value) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i] == value) {
+                return i;
+            }
+        }
+        return LITERAL;
+    }
+
+    // Accessors
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Gets the pattern used by this formatter.</p>
+     *
+     * @return the pattern, not null
+     */
+    public String getFormat() {
+        return mFormat;
+    }
+
+    /**
+     * <p>Gets whether this formatter pads numbers with zeros.</p>
+     *
+     * @return {@code true} if numbers are padded to the width of their field
+     */
+    public boolean isPadWithZeros() {
+        return mPadWithZeros;
+    }
+
+    /**
+     * <p>Checks whether the pattern contains a field.</p>
+     *
+     * @param value  one of the field values of {@code DurationFormatUtils}
+     * @return {@code true} if the pattern contains the field
+     */
+    boolean contains(final Object value) {
+        final int field = indexOf(value);
+        return field != LITERAL && (mFieldMask & 1 << field) != 0;
+    }
+
+    // Format methods
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Formats a duration.</p>
+     *
+     * <p>This method formats durations using the days and lower fields of the
+     * format pattern. Months and larger are not used.</p>
+     *
+     * @param durationMillis  the duration to format
+     * @return the formatted duration, not null
+     */
+    public String format(final long durationMillis) {
+        try {
+            return format(durationMillis, new StringBuilder(mFormat.length() + 16)).toString();
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * <p>Formats a duration into the supplied {@code Appendable}.</p>
+     *
+     * <p>This method formats durations using the days and lower fields of the
+     * format pattern. Months and larger are not used.</p>
+     *
+     * @param durationMillis  the duration to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified string buffer
+     * @throws IOException if an I/O error occurs while appending
+     */
+    public <B extends Appendable> B format(long durationMillis, final B buf) throws IOException {
+        int days         = 0;
+        int hours        = 0;
+        int minutes      = 0;
+        int seconds      = 0;
+        int milliseconds = 0;
+
+        if ((mFieldMask & 1 << DAYS) != 0) {
+            days = (int) (durationMillis / DateUtils.MILLIS_PER_DAY);
+            durationMillis = durationMillis - (days * DateUtils.MILLIS_PER_DAY);
+        }
+        if ((mFieldMask & 1 << HOURS) != 0) {
+            hours = (int) (durationMillis / DateUtils.MILLIS_PER_HOUR);
+            durationMillis = durationMillis - (hours * DateUtils.MILLIS_PER_HOUR);
+        }
+        if ((mFieldMask & 1 << MINUTES) != 0) {
+            minutes = (int) (durationMillis / DateUtils.MILLIS_PER_MINUTE);
+            durationMillis = durationMillis - (minutes * DateUtils.MILLIS_PER_MINUTE);
+        }
+        if ((mFieldMask & 1 << SECONDS) != 0) {
+            seconds = (int) (durationMillis / DateUtils.MILLIS_PER_SECOND);
+            durationMillis = durationMillis - (seconds * DateUtils.MILLIS_PER_SECOND);
+        }
+        if ((mFieldMask & 1 << MILLISECONDS) != 0) {
+            milliseconds = (int) durationMillis;
+        }
+        return format(0, 0, days, hours, minutes, seconds, milliseconds, buf);
+    }
+
+    /**
+     * <p>Formats the values of the fields into the supplied {@code Appendable}.</p>
+     *
+     * @param years  the number of years
+     * @param months  the number of months
+     * @param days  the number of days
+     * @param hours  the number of hours
+     * @param minutes  the number of minutes
+     * @param seconds  the number of seconds
+     * @param milliseconds  the number of millis
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified string buffer
+     * @throws IOException if an I/O error occurs while appending
+     */
+    <B extends Appendable> B format(final int years, final int months, final int days, final int hours,
+            final int minutes, final int seconds, final int milliseconds, final B buf) throws IOException {
+        for (int i = 0; i < mFields.length; i++) {
+            switch (mFields[i]) {
+            case LITERAL:
+                buf.append(mLiterals[i]);
+                break;
+            case YEARS:
+                appendNumber(buf, years, mWidths[i], 0);
+                break;
+            case MONTHS:
+                appendNumber(buf, months, mWidths[i], 0);
+                break;
+            case DAYS:
+                appendNumber(buf, days, mWidths[i], 0);
+                break;
+            case HOURS:
+                appendNumber(buf, hours, mWidths[i], 0);
+                break;
+            case MINUTES:
+                appendNumber(buf, minutes, mWidths[i], 0);
+                break;
+            case SECONDS:
+                appendNumber(buf, seconds, mWidths[i], 0);
+                break;
+            default:
+                if (mAfterSeconds[i]) {
+                    // a leading one gives the zeros of a fraction, and is then dropped
+                    appendNumber(buf, milliseconds + 1000, mWidths[i], 1);
+                } else {
+                    appendNumber(buf, milliseconds, mWidths[i], 0);
+                }
+                break;
+            }
+        }
+        return buf;
+    }
+
+    /**
+     * <p>Appends a number, left padded with zeros to a width when padding.</p>
+     *
+     * <p>The output is that of {@code Integer.toString} padded with
+     * {@code StringUtils.leftPad}, without creating either string.</p>
+     *
+     * @param buf  the buffer to append to
+     * @param value  the value to append
+     * @param width  the minimum width, including any sign
+     * @param skip  the number of leading characters to leave out
+     * @throws IOException if an I/O error occurs while appending
+     */
+    private void appendNumber(final Appendable buf, final int value, final int width, final int skip)
+            throws IOException {
+        final long abs = Math.abs((long) value);
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && abs >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        final int length = value < 0 ? digits + 1 : digits;
+        final int zeros = mPadWithZeros ? Math.max(0, width - length) : 0;
+        final int end = zeros + length;
+        for (int i = skip; i < end; i++) {
+            if (i < zeros) {
+                buf.append('0');
+            } else if (value < 0 && i == zeros) {
+                buf.append('-');
+            } else {
+                buf.append((char) ('0' + abs / POWERS_OF_TEN[end - 1 - i] % 10));
+            }
+        }
+    }
+
+    // Basics
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Compares two objects for equality.</p>
+     *
+     * @param obj  the object to compare to
+     * @return {@code true} if equal
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj instanceof DurationFormatter == false) {
+            return false;
+        }
+        final DurationFormatter other = (DurationFormatter) obj;
+        return mFormat.equals(other.mFormat) && mPadWithZeros == other.mPadWithZeros;
+    }
+
+    /**
+     * <p>Returns a hashcode compatible with equals.</p>
+     *
+     * @return a hashcode compatible with equals
+     */
+    @Override
+    public int hashCode() {
+        return mFormat.hashCode() + (mPadWithZeros ? 1 : 0);
+    }
+
+    /**
+     * <p>Gets a debugging string version of this formatter.</p>
+     *
+     * @return a debugging string
+     */
+    @Override
+    public String toString() {
+        return "DurationFormatter[" + mFormat + "]";
+    }
+
+}
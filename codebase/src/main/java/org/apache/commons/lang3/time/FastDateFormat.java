@@ -16,11 +16,16 @@
  */
 package org.apache.commons.lang3.time;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.Format;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -57,6 +62,10 @@ import java.util.TimeZone;
  * 'YYY' will be formatted as '2003', while it was '03' in former Java
  * versions. FastDateFormat implements the behavior of Java 7.</p>
  *
+ * <p>The instances returned by the {@code getInstance} methods are cached.
+ * At most 1000 instances are kept; this can be changed with the system property
+ * {@code org.apache.commons.lang3.time.FormatCache.capacity}.</p>
+ *
  * @since 2.0
  * @version $Id$
  */
@@ -95,6 +104,51 @@ public class FastDateFormat extends Format implements DateParser, DatePrinter {
     private final FastDatePrinter printer;
     private final FastDateParser parser;
     
+    //-----------------------------------------------------------------------
+    /**
+     * <p>Gets the maximum number of formatter instances kept in the cache
+     * of the {@code getInstance} methods.</p>
+     *
+     * @return the capacity of the cache
+     * @since 3.2
+     */
+    public static int getCacheCapacity() {
+        return cache.getCapacity();
+    }
+
+    /**
+     * <p>Gets the number of {@code getInstance} calls that returned a
+     * cached formatter instance.</p>
+     *
+     * @return the number of cache hits
+     * @since 3.2
+     */
+    public static long getCacheHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * <p>Gets the number of {@code getInstance} calls that created a new
+     * formatter instance.</p>
+     *
+     * @return the number of cache misses
+     * @since 3.2
+     */
+    public static long getCacheMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * <p>Gets the number of formatter instances evicted from the cache
+     * of the {@code getInstance} methods to keep it within its capacity.</p>
+     *
+     * @return the number of evictions
+     * @since 3.2
+     */
+    public static long getCacheEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
     //-----------------------------------------------------------------------
     /**
      * <p>Gets a formatter instance using the default pattern in the
@@ -460,6 +514,115 @@ public class FastDateFormat extends Format implements DateParser, DatePrinter {
         return printer.format(calendar, buf);
     }
 
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code Appendable}.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     * @since 3.2
+     */
+    @Override
+    public <B extends Appendable> B format(final long millis, final B buf) throws IOException {
+        return printer.format(millis, buf);
+    }
+
+    /**
+     * <p>Formats a {@code Date} object into the
+     * supplied {@code Appendable} using a {@code GregorianCalendar}.</p>
+     *
+     * @param date  the date to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     * @since 3.2
+     */
+    @Override
+    public <B extends Appendable> B format(final Date date, final B buf) throws IOException {
+        return printer.format(date, buf);
+    }
+
+    /**
+     * <p>Formats a {@code Calendar} object into the
+     * supplied {@code Appendable}.</p>
+     *
+     * @param calendar  the calendar to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     * @since 3.2
+     */
+    @Override
+    public <B extends Appendable> B format(final Calendar calendar, final B buf) throws IOException {
+        return printer.format(calendar, buf);
+    }
+
+    /**
+     * <p>Formats a {@code java.time} temporal object, such as an
+     * {@code Instant} or a {@code ZonedDateTime}.</p>
+     *
+     * <p>Objects without a zone or offset are formatted in
+     * the time zone of this formatter.</p>
+     *
+     * @param temporal  the temporal object to format
+     * @return the formatted string
+     * @since 3.2
+     */
+    @Override
+    public String format(final TemporalAccessor temporal) {
+        return printer.format(temporal);
+    }
+
+    /**
+     * <p>Formats a {@code java.time} temporal object into the
+     * supplied {@code Appendable}.</p>
+     *
+     * @param temporal  the temporal object to format
+     * @param buf  the buffer to format into
+     * @param <B> the Appendable class type, usually StringBuilder or StringBuffer.
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs while appending
+     * @since 3.2
+     */
+    @Override
+    public <B extends Appendable> B format(final TemporalAccessor temporal, final B buf) throws IOException {
+        return printer.format(temporal, buf);
+    }
+
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code char} array.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the array to format into
+     * @param offset  the index in the array of the first character to write
+     * @return the number of characters written
+     * @since 3.2
+     */
+    @Override
+    public int format(final long millis, final char[] buf, final int offset) {
+        return printer.format(millis, buf, offset);
+    }
+
+    /**
+     * <p>Formats a millisecond {@code long} value into the
+     * supplied {@code CharBuffer}, starting at its position.</p>
+     *
+     * @param millis  the millisecond value to format
+     * @param buf  the buffer to format into
+     * @return the number of characters written
+     * @since 3.2
+     */
+    @Override
+    public int format(final long millis, final CharBuffer buf) {
+        return printer.format(millis, buf);
+    }
+
     // Parsing
     //-----------------------------------------------------------------------
 
@@ -488,6 +651,38 @@ public class FastDateFormat extends Format implements DateParser, DatePrinter {
         return parser.parseObject(source, pos);
     }
 
+    /* (non-Javadoc)
+     * @see DateParser#parseInstant(java.lang.CharSequence)
+     */
+    @Override
+    public Instant parseInstant(final CharSequence source) throws ParseException {
+        return parser.parseInstant(source);
+    }
+
+    /* (non-Javadoc)
+     * @see DateParser#parseInstant(java.lang.CharSequence, java.text.ParsePosition)
+     */
+    @Override
+    public Instant parseInstant(final CharSequence source, final ParsePosition pos) {
+        return parser.parseInstant(source, pos);
+    }
+
+    /* (non-Javadoc)
+     * @see DateParser#parseEpochNanos(java.lang.CharSequence)
+     */
+    @Override
+    public long parseEpochNanos(final CharSequence source) throws ParseException {
+        return parser.parseEpochNanos(source);
+    }
+
+    /* (non-Javadoc)
+     * @see DateParser#parseAll(java.lang.CharSequence[], long[], java.util.BitSet)
+     */
+    @Override
+    public int parseAll(final CharSequence[] sources, final long[] millis, final BitSet errors) {
+        return parser.parseAll(sources, millis, errors);
+    }
+
     // Accessors
     //-----------------------------------------------------------------------
     /**
@@ -21,7 +21,10 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -35,6 +38,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.commons.lang3.Validate;
+
 /**
  * <p>FastDateParser is a fast and thread-safe version of
  * {@link java.text.SimpleDateFormat}.</p>
@@ -50,8 +55,16 @@ import java.util.regex.Pattern;
  * <p>Only parsing is supported, but all patterns are compatible with
  * SimpleDateFormat.</p>
  *
- * <p>Timing tests indicate this class is as about as fast as SimpleDateFormat
- * in single thread applications and about 25% faster in multi-thread applications.</p>
+ * <p>{@code FastDateParserBenchmark} in the benchmark sources measures the time taken to
+ * parse with this class, with SimpleDateFormat and with DateTimeFormatter, in one
+ * thread and in four threads sharing the parsers. Run it with
+ * {@code mvn test -Pbenchmark -Dbenchmark=FastDateParserBenchmark}.</p>
+ *
+ * <p>Each field of the pattern is parsed by a hand-written strategy which reads the
+ * characters directly from the source, without copying it or running a regular
+ * expression. If that fails, the source is matched against a regular expression
+ * generated from the pattern, which is able to backtrack into text fields whose
+ * values are prefixes of each other.</p>
  *
  * <p>Note that the code only handles Gregorian calendars. The following non-Gregorian
  * calendars use SimpleDateFormat internally, and so will be slower:
@@ -72,16 +85,24 @@ public class FastDateParser implements DateParser, Serializable {
 
     static final Locale JAPANESE_IMPERIAL = new Locale("ja","JP","JP");
 
+    private static final long NANOS_PER_MILLI = 1000000L;
+
     // defining fields
     private final String pattern;
     private final TimeZone timeZone;
     private final Locale locale;
 
     // derived fields
-    private transient Pattern parsePattern;
-    private transient Strategy[] strategies;
     private transient int thisYear;
 
+    // derived fields for regular expression parsing, built when first needed
+    private transient volatile Pattern parsePattern;
+    private transient Strategy[] strategies;
+
+    // derived fields for direct parsing, including the constant fields
+    private transient Strategy[] directStrategies;
+    private transient int[] directWidths;
+
     // dynamic fields to communicate with Strategy
     private transient String currentFormatField;
     private transient Strategy nextStrategy;
@@ -109,8 +130,8 @@ public class FastDateParser implements DateParser, Serializable {
         final Calendar definingCalendar = Calendar.getInstance(timeZone, locale);
         thisYear= definingCalendar.get(Calendar.YEAR);
 
-        final StringBuilder regex= new StringBuilder();
-        final List<Strategy> collector = new ArrayList<Strategy>();
+        final List<Strategy> directCollector = new ArrayList<Strategy>();
+        final List<Integer> widthCollector = new ArrayList<Integer>();
 
         final Matcher patternMatcher= formatPattern.matcher(pattern);
         if(!patternMatcher.lookingAt()) {
@@ -128,21 +149,23 @@ public class FastDateParser implements DateParser, Serializable {
             }
             final String nextFormatField= patternMatcher.group();
             nextStrategy = getStrategy(nextFormatField, definingCalendar);
-            if(currentStrategy.addRegex(this, regex)) {
-                collector.add(currentStrategy);
-            }
+            directCollector.add(currentStrategy);
+            widthCollector.add(Integer.valueOf(isNextNumber() ? getFieldWidth() : 0));
             currentFormatField= nextFormatField;
             currentStrategy= nextStrategy;
         }
         if (patternMatcher.regionStart() != patternMatcher.regionEnd()) {
             throw new IllegalArgumentException("Failed to parse \""+pattern+"\" ; gave up at index "+patternMatcher.regionStart());
         }
-        if(currentStrategy.addRegex(this, regex)) {
-            collector.add(currentStrategy);
-        }
+        directCollector.add(currentStrategy);
+        widthCollector.add(Integer.valueOf(0));
         currentFormatField= null;
-        strategies= collector.toArray(new Strategy[collector.size()]);
-        parsePattern= Pattern.compile(regex.toString());
+
+        directStrategies= directCollector.toArray(new Strategy[directCollector.size()]);
+        directWidths= new int[widthCollector.size()];
+        for(int i= 0; i<directWidths.length; ++i) {
+            directWidths[i]= widthCollector.get(i).intValue();
+        }
     }
 
     // Accessors
@@ -171,9 +194,28 @@ public class FastDateParser implements DateParser, Serializable {
         return locale;
     }
 
-    // Give access to generated pattern for test code
+    /**
+     * Get the regular expression generated from the pattern, building it if necessary.
+     * The regular expression of a time zone field lists every zone name of the locale,
+     * so it is only built when the direct strategies fail or a message needs it.
+     * @return The <code>Pattern</code> matching the whole parse pattern
+     */
     Pattern getParsePattern() {
-        return parsePattern;
+        Pattern regexPattern= parsePattern;
+        if(regexPattern==null) {
+            final StringBuilder regex= new StringBuilder();
+            final List<Strategy> collector= new ArrayList<Strategy>();
+            for(int i= 0; i<directStrategies.length; ++i) {
+                if(directStrategies[i].addRegex(this, regex, directWidths[i])) {
+                    collector.add(directStrategies[i]);
+                }
+            }
+            strategies= collector.toArray(new Strategy[collector.size()]);
+            // the volatile write publishes strategies with the pattern
+            regexPattern= Pattern.compile(regex.toString());
+            parsePattern= regexPattern;
+        }
+        return regexPattern;
     }
 
     // Basics
@@ -245,17 +287,26 @@ public class FastDateParser implements DateParser, Serializable {
     public Date parse(final String source) throws ParseException {
         final Date date= parse(source, new ParsePosition(0));
         if(date==null) {
-            // Add a note re supported date range
-            if (locale.equals(JAPANESE_IMPERIAL)) {
-                throw new ParseException(
-                        "(The " +locale + " locale does not support dates before 1868 AD)\n" +
-                                "Unparseable date: \""+source+"\" does not match "+parsePattern.pattern(), 0);
-            }
-            throw new ParseException("Unparseable date: \""+source+"\" does not match "+parsePattern.pattern(), 0);
+            throw unparseable(source);
         }
         return date;
     }
 
+    /**
+     * Create the exception thrown when the source cannot be parsed.
+     * @param source The text that failed to parse
+     * @return The <code>ParseException</code> to throw
+     */
+    private ParseException unparseable(final CharSequence source) {
+        // Add a note re supported date range
+        if (locale.equals(JAPANESE_IMPERIAL)) {
+            return new ParseException(
+                    "(The " +locale + " locale does not support dates before 1868 AD)\n" +
+                            "Unparseable date: \""+source+"\" does not match "+getParsePattern().pattern(), 0);
+        }
+        return new ParseException("Unparseable date: \""+source+"\" does not match "+getParsePattern().pattern(), 0);
+    }
+
     /* (non-Javadoc)
      * @see org.apache.commons.lang3.time.DateParser#parseObject(java.lang.String, java.text.ParsePosition)
      */
@@ -269,21 +320,124 @@ public class FastDateParser implements DateParser, Serializable {
      */
     @Override
     public Date parse(final String source, final ParsePosition pos) {
-        final int offset= pos.getIndex();
-        final Matcher matcher= parsePattern.matcher(source.substring(offset));
-        if(!matcher.lookingAt()) {
-            return null;
-        }
         // timing tests indicate getting new instance is 19% faster than cloning
         final Calendar cal= Calendar.getInstance(timeZone, locale);
+        return parse(source, pos, cal) ? cal.getTime() : null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DateParser#parseInstant(java.lang.CharSequence)
+     */
+    @Override
+    public Instant parseInstant(final CharSequence source) throws ParseException {
+        final Instant instant= parseInstant(source, new ParsePosition(0));
+        if(instant==null) {
+            throw unparseable(source);
+        }
+        return instant;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DateParser#parseInstant(java.lang.CharSequence, java.text.ParsePosition)
+     */
+    @Override
+    public Instant parseInstant(final CharSequence source, final ParsePosition pos) {
+        final Calendar cal= Calendar.getInstance(timeZone, locale);
+        return parse(source, pos, cal) ? Instant.ofEpochMilli(cal.getTimeInMillis()) : null;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DateParser#parseEpochNanos(java.lang.CharSequence)
+     */
+    @Override
+    public long parseEpochNanos(final CharSequence source) throws ParseException {
+        final Calendar cal= Calendar.getInstance(timeZone, locale);
+        if(!parse(source, new ParsePosition(0), cal)) {
+            throw unparseable(source);
+        }
+        return Math.multiplyExact(cal.getTimeInMillis(), NANOS_PER_MILLI);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DateParser#parseAll(java.lang.CharSequence[], long[], java.util.BitSet)
+     */
+    @Override
+    public int parseAll(final CharSequence[] sources, final long[] millis, final BitSet errors) {
+        Validate.isTrue(millis.length>=sources.length, "The millis array is shorter than the sources array");
+        errors.clear(0, sources.length);
+
+        // one calendar and position serve the whole column
+        final Calendar cal= Calendar.getInstance(timeZone, locale);
+        final ParsePosition pos= new ParsePosition(0);
+        int parsed= 0;
+        for(int i= 0; i<sources.length; ++i) {
+            pos.setIndex(0);
+            if(sources[i]!=null && parse(sources[i], pos, cal)) {
+                millis[i]= cal.getTimeInMillis();
+                ++parsed;
+            }
+            else {
+                errors.set(i);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Parse the source into the calendar, trying the direct strategies before the regular expression.
+     * @param source The text to parse
+     * @param pos The position to start parsing at; updated past the parsed text if successful
+     * @param cal The <code>Calendar</code> to clear and set with the parsed fields
+     * @return true, if the source matched the pattern; false otherwise
+     */
+    private boolean parse(final CharSequence source, final ParsePosition pos, final Calendar cal) {
         cal.clear();
+        if(parseDirect(source, pos, cal)) {
+            return true;
+        }
+        // the direct strategies may have partially set the calendar
+        cal.clear();
+        return parseRegex(source.toString(), pos, cal);
+    }
 
+    /**
+     * Parse the source by letting each strategy consume its field directly from the source.
+     * No regular expression is used and no part of the source is copied.
+     * @param source The text to parse
+     * @param pos The position to start parsing at; updated past the parsed text if successful
+     * @param cal The <code>Calendar</code> to set with the parsed fields
+     * @return true, if the whole pattern matched; false otherwise, in which case pos is unchanged
+     */
+    boolean parseDirect(final CharSequence source, final ParsePosition pos, final Calendar cal) {
+        final int offset= pos.getIndex();
+        for(int i= 0; i<directStrategies.length; ++i) {
+            if(!directStrategies[i].parse(this, cal, source, pos, directWidths[i])) {
+                pos.setIndex(offset);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the source by matching it against the regular expression generated from the pattern.
+     * @param source The text to parse
+     * @param pos The position to start parsing at; updated past the parsed text if successful
+     * @param cal The <code>Calendar</code> to set with the parsed fields
+     * @return true, if the regular expression matched; false otherwise, in which case pos is unchanged
+     */
+    boolean parseRegex(final String source, final ParsePosition pos, final Calendar cal) {
+        final int offset= pos.getIndex();
+        final Matcher matcher= getParsePattern().matcher(source.substring(offset));
+        if(!matcher.lookingAt()) {
+            return false;
+        }
         for(int i=0; i<strategies.length;) {
             final Strategy strategy= strategies[i++];
             strategy.setCalendar(this, cal, matcher.group(i));
         }
         pos.setIndex(offset+matcher.end());
-        return cal.getTime();
+        return true;
     }
 
     // Support for strategies
@@ -335,6 +489,26 @@ public class FastDateParser implements DateParser, Serializable {
     }
 
 
+    /**
+     * Check whether a region of the source starts with the given text
+     * @param source The text being parsed
+     * @param offset The index in source at which to start comparing
+     * @param text The expected text
+     * @return true, if the characters of source starting at offset equal text
+     */
+    private static boolean regionMatches(final CharSequence source, final int offset, final String text) {
+        final int length= text.length();
+        if(offset+length>source.length()) {
+            return false;
+        }
+        for(int i= 0; i<length; ++i) {
+            if(source.charAt(offset+i)!=text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get the short and long values displayed for a field
      * @param field The field of interest
@@ -405,10 +579,25 @@ public class FastDateParser implements DateParser, Serializable {
          * which will accept this field
          * @param parser The parser calling this strategy
          * @param regex The <code>StringBuilder</code> to append to
+         * @param width The exact number of digits in a number field that is followed by
+         * another number field, or 0 if the field is delimited
          * @return true, if this field will set the calendar;
          * false, if this field is a constant value
          */
-        abstract boolean addRegex(FastDateParser parser, StringBuilder regex);
+        abstract boolean addRegex(FastDateParser parser, StringBuilder regex, int width);
+        /**
+         * Consume this field directly from the source and set the Calendar with the parsed value.
+         * Where the regular expression from {@link #addRegex} offers alternatives, the first
+         * alternative it would try is chosen, without backtracking.
+         * @param parser The parser calling this strategy
+         * @param cal The <code>Calendar</code> to set
+         * @param source The text being parsed
+         * @param pos The position of the field in source; advanced past the field if it matches
+         * @param width The exact number of digits in a number field that is followed by
+         * another number field, or 0 if the field is delimited
+         * @return true, if the field matched
+         */
+        abstract boolean parse(FastDateParser parser, Calendar cal, CharSequence source, ParsePosition pos, int width);
     }
 
     /**
@@ -489,6 +678,40 @@ public class FastDateParser implements DateParser, Serializable {
         }
     }
 
+    /**
+     * Get the shared Strategy that parses the time zone names of a locale
+     * @param locale The Locale
+     * @return The TimeZoneStrategy of the locale
+     */
+    private static TimeZoneStrategy getTimeZoneStrategy(final Locale locale) {
+        final ConcurrentMap<Locale,Strategy> cache = getCache(Calendar.ZONE_OFFSET);
+        Strategy strategy= cache.get(locale);
+        if(strategy==null) {
+            strategy= new TimeZoneStrategy(locale);
+            final Strategy inCache= cache.putIfAbsent(locale, strategy);
+            if(inCache!=null) {
+                strategy= inCache;
+            }
+        }
+        return (TimeZoneStrategy) strategy;
+    }
+
+    /**
+     * <p>Builds the time zone names that parsers of the given locales match,
+     * so that the first parser of each locale to meet a time zone name does not
+     * have to. The names are shared by all parsers of a locale.</p>
+     *
+     * <p>Applications that know their locales can call this at startup.</p>
+     *
+     * @param locales the locales whose time zone names to build
+     * @since 3.2
+     */
+    public static void preloadTimeZoneNames(final Locale... locales) {
+        for(final Locale locale : locales) {
+            getTimeZoneStrategy(locale).getNames();
+        }
+    }
+
     /**
      * Construct a Strategy that parses a Text field
      * @param field The Calendar field
@@ -496,12 +719,13 @@ public class FastDateParser implements DateParser, Serializable {
      * @return a TextStrategy for the field and Locale
      */
     private Strategy getLocaleSpecificStrategy(final int field, final Calendar definingCalendar) {
+        if(field==Calendar.ZONE_OFFSET) {
+            return getTimeZoneStrategy(locale);
+        }
         final ConcurrentMap<Locale,Strategy> cache = getCache(field);
         Strategy strategy= cache.get(locale);
         if(strategy==null) {
-            strategy= field==Calendar.ZONE_OFFSET
-                    ? new TimeZoneStrategy(locale)
-                    : new TextStrategy(field, definingCalendar, locale);
+            strategy= new TextStrategy(field, definingCalendar, locale);
             final Strategy inCache= cache.putIfAbsent(locale, strategy);
             if(inCache!=null) {
                 return inCache;
@@ -515,6 +739,7 @@ public class FastDateParser implements DateParser, Serializable {
      */
     private static class CopyQuotedStrategy extends Strategy {
         private final String formatField;
+        private final String literal;
 
         /**
          * Construct a Strategy that ensures the formatField has literal text
@@ -522,6 +747,32 @@ public class FastDateParser implements DateParser, Serializable {
          */
         CopyQuotedStrategy(final String formatField) {
             this.formatField= formatField;
+            this.literal= unquote(formatField);
+        }
+
+        /**
+         * Replace two successive quotes ('') with a single quote ('), as {@link #escapeRegex} does
+         * @param value The source field
+         * @return The literal text the field matches
+         */
+        private static String unquote(final String value) {
+            if(value.indexOf('\'')<0) {
+                return value;
+            }
+            final StringBuilder sb= new StringBuilder(value.length());
+            for(int i= 0; i<value.length(); ++i) {
+                final char c= value.charAt(i);
+                if(c=='\'') {
+                    if(++i==value.length()) {
+                        break;
+                    }
+                    sb.append(value.charAt(i));
+                }
+                else {
+                    sb.append(c);
+                }
+            }
+            return sb.toString();
         }
 
         /**
@@ -540,10 +791,23 @@ public class FastDateParser implements DateParser, Serializable {
          * {@inheritDoc}
          */
         @Override
-        boolean addRegex(final FastDateParser parser, final StringBuilder regex) {
+        boolean addRegex(final FastDateParser parser, final StringBuilder regex, final int width) {
             escapeRegex(regex, formatField, true);
             return false;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean parse(final FastDateParser parser, final Calendar cal, final CharSequence source, final ParsePosition pos, final int width) {
+            final int index= pos.getIndex();
+            if(!regionMatches(source, index, literal)) {
+                return false;
+            }
+            pos.setIndex(index+literal.length());
+            return true;
+        }
     }
 
     /**
@@ -552,6 +816,9 @@ public class FastDateParser implements DateParser, Serializable {
      private static class TextStrategy extends Strategy {
         private final int field;
         private final Map<String, Integer> keyValues;
+        // the keys and values in the order of the regular expression alternatives
+        private final String[] keys;
+        private final int[] values;
 
         /**
          * Construct a Strategy that parses a Text field
@@ -562,13 +829,20 @@ public class FastDateParser implements DateParser, Serializable {
         TextStrategy(final int field, final Calendar definingCalendar, final Locale locale) {
             this.field= field;
             this.keyValues= getDisplayNames(field, definingCalendar, locale);
+            keys= new String[keyValues.size()];
+            values= new int[keyValues.size()];
+            int i= 0;
+            for(final Map.Entry<String, Integer> keyValue : keyValues.entrySet()) {
+                keys[i]= keyValue.getKey();
+                values[i++]= keyValue.getValue().intValue();
+            }
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        boolean addRegex(final FastDateParser parser, final StringBuilder regex) {
+        boolean addRegex(final FastDateParser parser, final StringBuilder regex, final int width) {
             regex.append('(');
             for(final String textKeyValue : keyValues.keySet()) {
                 escapeRegex(regex, textKeyValue, false).append('|');
@@ -594,6 +868,22 @@ public class FastDateParser implements DateParser, Serializable {
             }
             cal.set(field, iVal.intValue());
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean parse(final FastDateParser parser, final Calendar cal, final CharSequence source, final ParsePosition pos, final int width) {
+            final int index= pos.getIndex();
+            for(int i= 0; i<keys.length; ++i) {
+                if(regionMatches(source, index, keys[i])) {
+                    cal.set(field, values[i]);
+                    pos.setIndex(index+keys[i].length());
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 
 
@@ -623,9 +913,9 @@ public class FastDateParser implements DateParser, Serializable {
          * {@inheritDoc}
          */
         @Override
-        boolean addRegex(final FastDateParser parser, final StringBuilder regex) {
-            if(parser.isNextNumber()) {
-                regex.append("(\\p{IsNd}{").append(parser.getFieldWidth()).append("}+)");
+        boolean addRegex(final FastDateParser parser, final StringBuilder regex, final int width) {
+            if(width>0) {
+                regex.append("(\\p{IsNd}{").append(width).append("}+)");
             }
             else {
                 regex.append("(\\p{IsNd}++)");
@@ -638,7 +928,48 @@ public class FastDateParser implements DateParser, Serializable {
          */
         @Override
         void setCalendar(final FastDateParser parser, final Calendar cal, final String value) {
-            cal.set(field, modify(Integer.parseInt(value)));
+            setCalendar(parser, cal, Integer.parseInt(value));
+        }
+
+        /**
+         * Set the Calendar with the parsed integer
+         * @param parser The parser calling this strategy
+         * @param cal The <code>Calendar</code> to set
+         * @param iValue The parsed integer
+         */
+        void setCalendar(final FastDateParser parser, final Calendar cal, final int iValue) {
+            cal.set(field, modify(iValue));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean parse(final FastDateParser parser, final Calendar cal, final CharSequence source, final ParsePosition pos, final int width) {
+            final int index= pos.getIndex();
+            final int limit= width>0 ? index+width : source.length();
+            if(limit>source.length()) {
+                return false;
+            }
+            int i= index;
+            long value= 0;
+            for(; i<limit; ++i) {
+                final char c= source.charAt(i);
+                if(!Character.isDigit(c)) {
+                    break;
+                }
+                value= value*10+Character.digit(c, 10);
+                if(value>Integer.MAX_VALUE) {
+                    // let the regular expression path report the overflow
+                    return false;
+                }
+            }
+            if(i==index || width>0 && i<limit) {
+                return false;
+            }
+            setCalendar(parser, cal, (int) value);
+            pos.setIndex(i);
+            return true;
         }
 
         /**
@@ -656,8 +987,7 @@ public class FastDateParser implements DateParser, Serializable {
          * {@inheritDoc}
          */
         @Override
-        void setCalendar(final FastDateParser parser, final Calendar cal, final String value) {
-            int iValue= Integer.parseInt(value);
+        void setCalendar(final FastDateParser parser, final Calendar cal, int iValue) {
             if(iValue<100) {
                 iValue= parser.adjustYear(iValue);
             }
@@ -670,41 +1000,42 @@ public class FastDateParser implements DateParser, Serializable {
      */
     private static class TimeZoneStrategy extends Strategy {
 
-        private final String validTimeZoneChars;
-        private final SortedMap<String, TimeZone> tzNames= new TreeMap<String, TimeZone>(String.CASE_INSENSITIVE_ORDER);
+        private final Locale locale;
+        // the zone names of the locale, built when first needed
+        private volatile TimeZoneNames names;
 
         /**
          * Construct a Strategy that parses a TimeZone
          * @param locale The Locale
          */
         TimeZoneStrategy(final Locale locale) {
-            for(final String id : TimeZone.getAvailableIDs()) {
-                if(id.startsWith("GMT")) {
-                    continue;
-                }
-                final TimeZone tz= TimeZone.getTimeZone(id);
-                tzNames.put(tz.getDisplayName(false, TimeZone.SHORT, locale), tz);
-                tzNames.put(tz.getDisplayName(false, TimeZone.LONG, locale), tz);
-                if(tz.useDaylightTime()) {
-                    tzNames.put(tz.getDisplayName(true, TimeZone.SHORT, locale), tz);
-                    tzNames.put(tz.getDisplayName(true, TimeZone.LONG, locale), tz);
+            this.locale= locale;
+        }
+
+        /**
+         * Get the zone names of the locale, building them if necessary
+         * @return The zone names
+         */
+        TimeZoneNames getNames() {
+            TimeZoneNames tzNames= names;
+            if(tzNames==null) {
+                synchronized(this) {
+                    tzNames= names;
+                    if(tzNames==null) {
+                        tzNames= new TimeZoneNames(locale);
+                        names= tzNames;
+                    }
                 }
             }
-            final StringBuilder sb= new StringBuilder();
-            sb.append("(GMT[+\\-]\\d{0,1}\\d{2}|[+\\-]\\d{2}:?\\d{2}|");
-            for(final String id : tzNames.keySet()) {
-                escapeRegex(sb, id, false).append('|');
-            }
-            sb.setCharAt(sb.length()-1, ')');
-            validTimeZoneChars= sb.toString();
+            return tzNames;
         }
 
         /**
          * {@inheritDoc}
          */
         @Override
-        boolean addRegex(final FastDateParser parser, final StringBuilder regex) {
-            regex.append(validTimeZoneChars);
+        boolean addRegex(final FastDateParser parser, final StringBuilder regex, final int width) {
+            regex.append(getNames().regex);
             return true;
         }
 
@@ -721,13 +1052,208 @@ public class FastDateParser implements DateParser, Serializable {
                 tz= TimeZone.getTimeZone(value);
             }
             else {
-                tz= tzNames.get(value);
+                tz= getNames().tzNames.get(value);
                 if(tz==null) {
                     throw new IllegalArgumentException(value + " is not a supported timezone name");
                 }
             }
             cal.setTimeZone(tz);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean parse(final FastDateParser parser, final Calendar cal, final CharSequence source, final ParsePosition pos, final int width) {
+            final int index= pos.getIndex();
+            if(index>=source.length()) {
+                return false;
+            }
+
+            // GMT[+\-]\d{0,1}\d{2}
+            if(regionMatches(source, index, "GMT") && index+3<source.length() && isSign(source.charAt(index+3))) {
+                final int digits= countAsciiDigits(source, index+4, 3);
+                if(digits>=2) {
+                    final int end= index+4+digits;
+                    cal.setTimeZone(TimeZone.getTimeZone(new StringBuilder(end-index).append(source, index, end).toString()));
+                    pos.setIndex(end);
+                    return true;
+                }
+            }
+
+            // [+\-]\d{2}:?\d{2}
+            if(isSign(source.charAt(index)) && countAsciiDigits(source, index+1, 2)==2) {
+                int end= index+3;
+                if(end<source.length() && source.charAt(end)==':') {
+                    ++end;
+                }
+                if(countAsciiDigits(source, end, 2)==2) {
+                    end+= 2;
+                    cal.setTimeZone(TimeZone.getTimeZone(new StringBuilder(end-index+3).append("GMT").append(source, index, end).toString()));
+                    pos.setIndex(end);
+                    return true;
+                }
+            }
+
+            final ZoneNameTrie match= getNames().trie.match(source, index);
+            if(match==null) {
+                return false;
+            }
+            cal.setTimeZone(match.zone);
+            pos.setIndex(index+match.depth);
+            return true;
+        }
+
+        /**
+         * Is the character a sign of a time zone offset?
+         * @param c The character to check
+         * @return true, if c is '+' or '-'
+         */
+        private static boolean isSign(final char c) {
+            return c=='+' || c=='-';
+        }
+
+        /**
+         * Count the ASCII digits at the start of a region of the source
+         * @param source The text being parsed
+         * @param offset The index in source at which to start counting
+         * @param max The maximum number of digits to count
+         * @return The number of successive ASCII digits, at most max
+         */
+        private static int countAsciiDigits(final CharSequence source, final int offset, final int max) {
+            int count= 0;
+            while(count<max && offset+count<source.length()) {
+                final char c= source.charAt(offset+count);
+                if(c<'0' || c>'9') {
+                    break;
+                }
+                ++count;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * The display names of the time zones in a locale, with the regular expression
+     * and the trie that match them
+     */
+    private static final class TimeZoneNames {
+        final SortedMap<String, TimeZone> tzNames= new TreeMap<String, TimeZone>(String.CASE_INSENSITIVE_ORDER);
+        final String regex;
+        final ZoneNameTrie trie= new ZoneNameTrie(0);
+
+        /**
+         * Collect the zone names of a locale
+         * @param locale The Locale
+         */
+        TimeZoneNames(final Locale locale) {
+            for(final String id : TimeZone.getAvailableIDs()) {
+                if(id.startsWith("GMT")) {
+                    continue;
+                }
+                final TimeZone tz= TimeZone.getTimeZone(id);
+                tzNames.put(tz.getDisplayName(false, TimeZone.SHORT, locale), tz);
+                tzNames.put(tz.getDisplayName(false, TimeZone.LONG, locale), tz);
+                if(tz.useDaylightTime()) {
+                    tzNames.put(tz.getDisplayName(true, TimeZone.SHORT, locale), tz);
+                    tzNames.put(tz.getDisplayName(true, TimeZone.LONG, locale), tz);
+                }
+            }
+            final StringBuilder sb= new StringBuilder();
+            sb.append("(GMT[+\\-]\\d{0,1}\\d{2}|[+\\-]\\d{2}:?\\d{2}|");
+            for(final Map.Entry<String, TimeZone> entry : tzNames.entrySet()) {
+                escapeRegex(sb, entry.getKey(), false).append('|');
+                trie.add(entry.getKey(), entry.getValue());
+            }
+            sb.setCharAt(sb.length()-1, ')');
+            regex= sb.toString();
+        }
+    }
+
+    /**
+     * A node of a trie of time zone names. A name is found by walking one node per character,
+     * so the time to match does not depend on the number of names.
+     */
+    private static final class ZoneNameTrie {
+        private static final char[] NO_KEYS= new char[0];
+        private static final ZoneNameTrie[] NO_CHILDREN= new ZoneNameTrie[0];
+
+        // the number of characters from the root to this node
+        final int depth;
+        // the zone of the name ending at this node, or null
+        TimeZone zone;
+        // the characters leading to the children, sorted
+        private char[] keys= NO_KEYS;
+        private ZoneNameTrie[] children= NO_CHILDREN;
+
+        /**
+         * Construct an empty node
+         * @param depth The number of characters from the root to this node
+         */
+        ZoneNameTrie(final int depth) {
+            this.depth= depth;
+        }
+
+        /**
+         * Add a name below this root node
+         * @param name The zone name
+         * @param tz The zone with the name
+         */
+        void add(final String name, final TimeZone tz) {
+            ZoneNameTrie node= this;
+            for(int i= 0; i<name.length(); ++i) {
+                final char c= name.charAt(i);
+                int index= Arrays.binarySearch(node.keys, c);
+                if(index<0) {
+                    index= -index-1;
+                    node.keys= insert(node.keys, index, c);
+                    final ZoneNameTrie[] children= new ZoneNameTrie[node.children.length+1];
+                    System.arraycopy(node.children, 0, children, 0, index);
+                    System.arraycopy(node.children, index, children, index+1, node.children.length-index);
+                    children[index]= new ZoneNameTrie(i+1);
+                    node.children= children;
+                }
+                node= node.children[index];
+            }
+            node.zone= tz;
+        }
+
+        /**
+         * Insert a character into a sorted array
+         * @param keys The array
+         * @param index The index to insert at
+         * @param c The character to insert
+         * @return A new array including c
+         */
+        private static char[] insert(final char[] keys, final int index, final char c) {
+            final char[] inserted= new char[keys.length+1];
+            System.arraycopy(keys, 0, inserted, 0, index);
+            inserted[index]= c;
+            System.arraycopy(keys, index, inserted, index+1, keys.length-index);
+            return inserted;
+        }
+
+        /**
+         * Find the shortest name that starts at an index of the source. As the names
+         * are sorted in the regular expression, this is the alternative it tries first.
+         * @param source The text being parsed
+         * @param offset The index in source at which the name starts
+         * @return The node at the end of the name, or null if no name matches
+         */
+        ZoneNameTrie match(final CharSequence source, final int offset) {
+            ZoneNameTrie node= this;
+            for(int i= offset; i<source.length(); ++i) {
+                final int index= Arrays.binarySearch(node.keys, source.charAt(i));
+                if(index<0) {
+                    return null;
+                }
+                node= node.children[index];
+                if(node.zone!=null) {
+                    return node;
+                }
+            }
+            return null;
+        }
     }
 
     private static final Strategy NUMBER_MONTH_STRATEGY = new NumberStrategy(Calendar.MONTH) {
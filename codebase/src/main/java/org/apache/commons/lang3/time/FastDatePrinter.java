@@ -19,9 +19,22 @@ package org.apache.commons.lang3.time;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.text.DateFormat;
 import java.text.DateFormatSymbols;
 import java.text.FieldPosition;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.temporal.WeekFields;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -63,6 +76,11 @@ import org.apache.commons.lang3.Validate;
  * 'YYY' will be formatted as '2003', while it was '03' in former Java
  * versions. FastDatePrinter implements the behavior of Java 7.</p>
  *
+ * <p>When formatting a {@code long} or a {@code Date}, the date fields of the
+ * day being formatted are cached, so long as the time zone offset does not
+ * change during that day. The time of day is then computed arithmetically
+ * and no {@code Calendar} is created.</p>
+ *
  * @since 3.2
  */
 public class FastDatePrinter implements DatePrinter, Serializable {
@@ -102,6 +120,12 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      */
     public static final int SHORT = DateFormat.SHORT;
 
+    /**
+     * The first instant of 1583, from which the ISO and {@code GregorianCalendar}
+     * dates of an instant agree in every time zone.
+     */
+    private static final long GREGORIAN_MILLIS = -12212553600000L;
+
     /**
      * The pattern.
      */
@@ -122,6 +146,28 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      * The estimated maximum length.
      */
     private transient int mMaxLengthEstimate;
+    /**
+     * Whether instants are formatted from cached day fields rather than a
+     * {@code Calendar}. Subclasses may override {@link #applyRules}, so they
+     * always use a {@code Calendar}.
+     */
+    private transient boolean mUseDayFields;
+    /**
+     * The fields of the most recently formatted day.
+     */
+    private transient volatile DayFields mDayFields;
+    /**
+     * The length of the period whose text only differs in the millisecond fields.
+     */
+    private transient int mTemplatePeriod;
+    /**
+     * The week definition of the locale, used to format temporal objects.
+     */
+    private transient WeekFields mWeekFields;
+    /**
+     * The last zone ID found to be the time zone of this printer.
+     */
+    private transient volatile ZoneId mZoneId;
 
     // Constructor
     //-----------------------------------------------------------------------
@@ -154,6 +200,19 @@ public class FastDatePrinter implements DatePrinter, Serializable {
         }
 
         mMaxLengthEstimate = len;
+        mUseDayFields = getClass() == FastDatePrinter.class;
+
+        mTemplatePeriod = DayFields.MILLIS_PER_MINUTE;
+        for (final Rule rule : mRules) {
+            if (isFieldRule(rule, Calendar.SECOND)) {
+                mTemplatePeriod = DayFields.MILLIS_PER_SECOND;
+            }
+        }
+
+        // weeks of temporal objects are counted as the calendar of the locale counts them
+        final Calendar calendar = newCalendar();
+        mWeekFields = WeekFields.of(DayOfWeek.of((calendar.getFirstDayOfWeek() + 5) % 7 + 1),
+                calendar.getMinimalDaysInFirstWeek());
     }
 
     // Parse the pattern
@@ -383,6 +442,13 @@ public class FastDatePrinter implements DatePrinter, Serializable {
             return format((Calendar) obj, toAppendTo);
         } else if (obj instanceof Long) {
             return format(((Long) obj).longValue(), toAppendTo);
+        } else if (obj instanceof TemporalAccessor) {
+            try {
+                return format((TemporalAccessor) obj, toAppendTo);
+            } catch (final IOException ioe) {
+                // this should never happen while appending to a StringBuffer
+                throw new RuntimeException(ioe);
+            }
         } else {
             throw new IllegalArgumentException("Unknown class: " +
                 (obj == null ? "<null>" : obj.getClass().getName()));
@@ -394,13 +460,12 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      */
     @Override
     public String format(final long millis) {
-        final Calendar c = newCalendar();  // hard code GregorianCalendar
-        c.setTimeInMillis(millis);
-        return applyRulesToString(c);
-    }
-
-    private String applyRulesToString(final Calendar c) {
-        return applyRules(c, new StringBuffer(mMaxLengthEstimate)).toString();
+        try {
+            return applyRulesTo(millis, new StringBuilder(mMaxLengthEstimate)).toString();
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
     }
 
     private GregorianCalendar newCalendar() {
@@ -413,9 +478,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      */
     @Override
     public String format(final Date date) {
-        final Calendar c = newCalendar();  // hard code GregorianCalendar
-        c.setTime(date);
-        return applyRulesToString(c);
+        return format(date.getTime());
     }
 
     /* (non-Javadoc)
@@ -431,7 +494,12 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      */
     @Override
     public StringBuffer format(final long millis, final StringBuffer buf) {
-        return format(new Date(millis), buf);
+        try {
+            return applyRulesTo(millis, buf);
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuffer
+            throw new RuntimeException(ioe);
+        }
     }
 
     /* (non-Javadoc)
@@ -439,9 +507,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
      */
     @Override
     public StringBuffer format(final Date date, final StringBuffer buf) {
-        final Calendar c = newCalendar();  // hard code GregorianCalendar
-        c.setTime(date);
-        return applyRules(c, buf);
+        return format(date.getTime(), buf);
     }
 
     /* (non-Javadoc)
@@ -452,21 +518,307 @@ public class FastDatePrinter implements DatePrinter, Serializable {
         return applyRules(calendar, buf);
     }
 
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final long millis, final B buf) throws IOException {
+        return applyRulesTo(millis, buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Date, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final Date date, final B buf) throws IOException {
+        return applyRulesTo(date.getTime(), buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.util.Calendar, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final Calendar calendar, final B buf) throws IOException {
+        if (!mUseDayFields) {
+            return applyOverriddenRules(calendar, buf);
+        }
+        return applyRulesTo(calendar, buf);
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.time.temporal.TemporalAccessor)
+     */
+    @Override
+    public String format(final TemporalAccessor temporal) {
+        try {
+            return format(temporal, new StringBuilder(mMaxLengthEstimate)).toString();
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(java.time.temporal.TemporalAccessor, java.lang.Appendable)
+     */
+    @Override
+    public <B extends Appendable> B format(final TemporalAccessor temporal, final B buf) throws IOException {
+        final ZoneId zone = temporal.query(TemporalQueries.zone());
+        if (zone == null) {
+            // in the time zone of this printer, as a Date
+            if (temporal.isSupported(ChronoField.INSTANT_SECONDS)) {
+                return applyRulesTo(Instant.from(temporal).toEpochMilli(), buf);
+            }
+            return applyRulesTo(toMillis(LocalDateTime.from(temporal)), buf);
+        }
+        final ZonedDateTime dateTime = temporal instanceof ZonedDateTime ? (ZonedDateTime) temporal
+                : temporal.isSupported(ChronoField.INSTANT_SECONDS) ? ZonedDateTime.ofInstant(Instant.from(temporal), zone)
+                : ZonedDateTime.of(LocalDateTime.from(temporal), zone);
+        final long millis = dateTime.toInstant().toEpochMilli();
+        if (isTimeZone(zone)) {
+            return applyRulesTo(millis, buf);
+        }
+        final TimeZone timeZone = TimeZone.getTimeZone(zone);
+        if (millis < GREGORIAN_MILLIS) {
+            // the ISO fields of the date-time are not those of the calendar
+            final Calendar c = new GregorianCalendar(timeZone, mLocale);
+            c.setTimeInMillis(millis);
+            return mUseDayFields ? applyRulesTo(c, buf) : applyOverriddenRules(c, buf);
+        }
+        final DayFields day = DayFields.create(dateTime, mWeekFields, timeZone);
+        final int millisOfDay = (int) (dateTime.getLong(ChronoField.NANO_OF_DAY) / DayFields.NANOS_PER_MILLI);
+        for (final Rule rule : mRules) {
+            rule.appendTo(buf, day, millisOfDay);
+        }
+        return buf;
+    }
+
+    /**
+     * <p>Checks whether a zone ID is the time zone of this printer, with the
+     * same ID and rules. The time zone itself is not converted, as custom
+     * time zones may have no zone ID equivalent.</p>
+     *
+     * @param zone  the zone ID to check
+     * @return {@code true} if the zone is the time zone of this printer
+     */
+    private boolean isTimeZone(final ZoneId zone) {
+        if (zone.equals(mZoneId)) {
+            return true;
+        }
+        if (!zone.getId().equals(mTimeZone.getID()) || !TimeZone.getTimeZone(zone).hasSameRules(mTimeZone)) {
+            return false;
+        }
+        mZoneId = zone;
+        return true;
+    }
+
+    /**
+     * <p>Gets the instant of a local date-time in the time zone of this
+     * printer, resolving gaps and overlaps as {@link ZonedDateTime#of} does.</p>
+     *
+     * @param dateTime  the local date-time
+     * @return the instant, in milliseconds since the epoch
+     */
+    private long toMillis(final LocalDateTime dateTime) {
+        final long local = dateTime.toEpochSecond(ZoneOffset.UTC) * DayFields.MILLIS_PER_SECOND
+                + dateTime.getNano() / DayFields.NANOS_PER_MILLI;
+        final int before = mTimeZone.getOffset(local - DayFields.MILLIS_PER_DAY);
+        final int after = mTimeZone.getOffset(local + DayFields.MILLIS_PER_DAY);
+        // in an overlap, the earlier instant has the greater offset
+        final int greater = Math.max(before, after);
+        if (mTimeZone.getOffset(local - greater) == greater) {
+            return local - greater;
+        }
+        final int lesser = Math.min(before, after);
+        if (mTimeZone.getOffset(local - lesser) == lesser) {
+            return local - lesser;
+        }
+        // in a gap, later by its length
+        return local - before;
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, char[], int)
+     */
+    @Override
+    public int format(final long millis, final char[] buf, final int offset) {
+        return format(millis, CharBuffer.wrap(buf, offset, buf.length - offset));
+    }
+
+    /* (non-Javadoc)
+     * @see org.apache.commons.lang3.time.DatePrinter#format(long, java.nio.CharBuffer)
+     */
+    @Override
+    public int format(final long millis, final CharBuffer buf) {
+        final int start = buf.position();
+        try {
+            applyRulesTo(millis, buf);
+        } catch (final BufferOverflowException boe) {
+            buf.position(start);
+            throw boe;
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a CharBuffer
+            throw new RuntimeException(ioe);
+        }
+        return buf.position() - start;
+    }
+
     /**
      * <p>Performs the formatting by applying the rules to the
      * specified calendar.</p>
      *
+     * <p>This is used when formatting a {@code Calendar} into a
+     * {@code String} or {@code StringBuffer}.</p>
+     *
      * @param calendar  the calendar to format
      * @param buf  the buffer to format into
      * @return the specified string buffer
      */
     protected StringBuffer applyRules(final Calendar calendar, final StringBuffer buf) {
+        try {
+            return applyRulesTo(calendar, buf);
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuffer
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    /**
+     * <p>Performs the formatting by applying the rules to the
+     * specified calendar.</p>
+     *
+     * @param calendar  the calendar to format
+     * @param buf  the buffer to format into
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private <B extends Appendable> B applyRulesTo(final Calendar calendar, final B buf) throws IOException {
         for (final Rule rule : mRules) {
             rule.appendTo(buf, calendar);
         }
         return buf;
     }
 
+    /**
+     * <p>Performs the formatting of a subclass through
+     * {@link #applyRules(Calendar, StringBuffer)}, which it may override.</p>
+     *
+     * @param calendar  the calendar to format
+     * @param buf  the buffer to format into
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private <B extends Appendable> B applyOverriddenRules(final Calendar calendar, final B buf) throws IOException {
+        if (buf instanceof StringBuffer) {
+            applyRules(calendar, (StringBuffer) buf);
+        } else {
+            buf.append(applyRules(calendar, new StringBuffer(mMaxLengthEstimate)));
+        }
+        return buf;
+    }
+
+    /**
+     * <p>Performs the formatting by applying the rules to the
+     * specified instant, using the cached fields of its day if possible.</p>
+     *
+     * @param millis  the instant to format, in milliseconds since the epoch
+     * @param buf  the buffer to format into
+     * @return the specified buffer
+     * @throws IOException if an I/O error occurs
+     */
+    private <B extends Appendable> B applyRulesTo(final long millis, final B buf) throws IOException {
+        final DayFields day = getDayFields(millis);
+        if (day == null) {
+            final Calendar c = newCalendar();  // hard code GregorianCalendar
+            c.setTimeInMillis(millis);
+            return mUseDayFields ? applyRulesTo(c, buf) : applyOverriddenRules(c, buf);
+        }
+        final int millisOfDay = (int) (millis - day.mStart);
+        for (final Rule rule : mRules) {
+            rule.appendTo(buf, day, millisOfDay);
+        }
+        return buf;
+    }
+
+    /**
+     * <p>Gets the fields of the day containing the specified instant,
+     * replacing the cached day if necessary.</p>
+     *
+     * @param millis  the instant, in milliseconds since the epoch
+     * @return the fields of the day, or {@code null} if they cannot be used
+     */
+    private DayFields getDayFields(final long millis) {
+        if (!mUseDayFields) {
+            return null;
+        }
+        DayFields day = mDayFields;
+        if (day == null || millis < day.mStart || millis >= day.mEnd) {
+            day = DayFields.create(newCalendar(), millis);
+            if (day != null) {
+                mDayFields = day;
+            }
+        }
+        return day;
+    }
+
+    /**
+     * <p>Renders the text of the second containing the specified instant,
+     * or of its minute if the pattern has no second field, leaving only
+     * the millisecond fields to be formatted.</p>
+     *
+     * @param millis  the instant, in milliseconds since the epoch
+     * @return the rendered period, or {@code null} if it cannot be cached
+     */
+    PeriodTemplate getPeriodTemplate(final long millis) {
+        final DayFields day = getDayFields(millis);
+        if (day == null) {
+            return null;
+        }
+        final int millisOfDay = (int) (millis - day.mStart);
+        final int startOfPeriod = millisOfDay - millisOfDay % mTemplatePeriod;
+
+        final List<String> literals = new ArrayList<String>();
+        final List<NumberRule> millisRules = new ArrayList<NumberRule>();
+        final StringBuilder buf = new StringBuilder(mMaxLengthEstimate);
+        try {
+            for (final Rule rule : mRules) {
+                if (isFieldRule(rule, Calendar.MILLISECOND)) {
+                    literals.add(buf.toString());
+                    millisRules.add((NumberRule) rule);
+                    buf.setLength(0);
+                } else {
+                    rule.appendTo(buf, day, startOfPeriod);
+                }
+            }
+        } catch (final IOException ioe) {
+            // this should never happen while appending to a StringBuilder
+            throw new RuntimeException(ioe);
+        }
+        literals.add(buf.toString());
+
+        return new PeriodTemplate(day.mStart + startOfPeriod, mTemplatePeriod,
+                literals.toArray(new String[literals.size()]),
+                millisRules.toArray(new NumberRule[millisRules.size()]));
+    }
+
+    /**
+     * <p>Checks whether a rule outputs the specified numeric field.</p>
+     *
+     * @param rule  the rule to check
+     * @param field  the calendar field
+     * @return {@code true} if the rule outputs the field as a number
+     */
+    private static boolean isFieldRule(final Rule rule, final int field) {
+        if (rule instanceof UnpaddedNumberField) {
+            return ((UnpaddedNumberField) rule).mField == field;
+        } else if (rule instanceof TwoDigitNumberField) {
+            return ((TwoDigitNumberField) rule).mField == field;
+        } else if (rule instanceof PaddedNumberField) {
+            return ((PaddedNumberField) rule).mField == field;
+        }
+        return false;
+    }
+
     // Accessors
     //-----------------------------------------------------------------------
     /* (non-Javadoc)
@@ -578,8 +930,19 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          *
          * @param buffer the output buffer
          * @param calendar calendar to be appended
+         * @throws IOException if an I/O error occurs
          */
-        void appendTo(StringBuffer buffer, Calendar calendar);
+        void appendTo(Appendable buffer, Calendar calendar) throws IOException;
+
+        /**
+         * Appends the value of the specified time of day to the output buffer based on the rule implementation.
+         *
+         * @param buffer the output buffer
+         * @param day the fields of the day to be appended
+         * @param millisOfDay the milliseconds since the start of the day
+         * @throws IOException if an I/O error occurs
+         */
+        void appendTo(Appendable buffer, DayFields day, int millisOfDay) throws IOException;
     }
 
     /**
@@ -591,8 +954,9 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          *
          * @param buffer the output buffer
          * @param value the value to be appended
+         * @throws IOException if an I/O error occurs
          */
-        void appendTo(StringBuffer buffer, int value);
+        void appendTo(Appendable buffer, int value) throws IOException;
     }
 
     /**
@@ -623,7 +987,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
+            buffer.append(mValue);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
             buffer.append(mValue);
         }
     }
@@ -656,7 +1028,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
+            buffer.append(mValue);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
             buffer.append(mValue);
         }
     }
@@ -699,9 +1079,17 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             buffer.append(mValues[calendar.get(mField)]);
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            buffer.append(mValues[day.get(mField, millisOfDay)]);
+        }
     }
 
     /**
@@ -731,7 +1119,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(mField));
         }
 
@@ -739,7 +1127,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(mField, millisOfDay));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             if (value < 10) {
                 buffer.append((char)(value + '0'));
             } else if (value < 100) {
@@ -777,7 +1173,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(Calendar.MONTH) + 1);
         }
 
@@ -785,7 +1181,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(Calendar.MONTH, millisOfDay) + 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             if (value < 10) {
                 buffer.append((char)(value + '0'));
             } else {
@@ -829,7 +1233,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(mField));
         }
 
@@ -837,7 +1241,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(mField, millisOfDay));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             if (value < 100) {
                 for (int i = mSize; --i >= 2; ) {
                     buffer.append('0');
@@ -887,7 +1299,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(mField));
         }
 
@@ -895,7 +1307,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(mField, millisOfDay));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             if (value < 100) {
                 buffer.append((char)(value / 10 + '0'));
                 buffer.append((char)(value % 10 + '0'));
@@ -930,7 +1350,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(Calendar.YEAR) % 100);
         }
 
@@ -938,7 +1358,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(Calendar.YEAR, millisOfDay) % 100);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             buffer.append((char)(value / 10 + '0'));
             buffer.append((char)(value % 10 + '0'));
         }
@@ -969,7 +1397,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             appendTo(buffer, calendar.get(Calendar.MONTH) + 1);
         }
 
@@ -977,7 +1405,15 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public final void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(Calendar.MONTH, millisOfDay) + 1);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public final void appendTo(final Appendable buffer, final int value) throws IOException {
             buffer.append((char)(value / 10 + '0'));
             buffer.append((char)(value % 10 + '0'));
         }
@@ -1011,7 +1447,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             int value = calendar.get(Calendar.HOUR);
             if (value == 0) {
                 value = calendar.getLeastMaximum(Calendar.HOUR) + 1;
@@ -1023,7 +1459,19 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            int value = day.get(Calendar.HOUR, millisOfDay);
+            if (value == 0) {
+                value = 12;
+            }
+            mRule.appendTo(buffer, value);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final int value) throws IOException {
             mRule.appendTo(buffer, value);
         }
     }
@@ -1056,7 +1504,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             int value = calendar.get(Calendar.HOUR_OF_DAY);
             if (value == 0) {
                 value = calendar.getMaximum(Calendar.HOUR_OF_DAY) + 1;
@@ -1068,7 +1516,19 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final int value) {
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            int value = day.get(Calendar.HOUR_OF_DAY, millisOfDay);
+            if (value == 0) {
+                value = 24;
+            }
+            mRule.appendTo(buffer, value);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final int value) throws IOException {
             mRule.appendTo(buffer, value);
         }
     }
@@ -1139,7 +1599,7 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
             final TimeZone zone = calendar.getTimeZone();
             if (zone.useDaylightTime()
                     && calendar.get(Calendar.DST_OFFSET) != 0) {
@@ -1148,6 +1608,19 @@ public class FastDatePrinter implements DatePrinter, Serializable {
                 buffer.append(getTimeZoneDisplay(zone, false, mStyle, mLocale));
             }
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            if (day.mTimeZone == null) {
+                // the day is in the zone this rule was constructed with
+                buffer.append(day.mDaylight ? mDaylight : mStandard);
+            } else {
+                buffer.append(getTimeZoneDisplay(day.mTimeZone, day.mDaylight, mStyle, mLocale));
+            }
+        }
     }
 
     /**
@@ -1181,9 +1654,26 @@ public class FastDatePrinter implements DatePrinter, Serializable {
          * {@inheritDoc}
          */
         @Override
-        public void appendTo(final StringBuffer buffer, final Calendar calendar) {
-            int offset = calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET);
+        public void appendTo(final Appendable buffer, final Calendar calendar) throws IOException {
+            appendTo(buffer, calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET));
+        }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void appendTo(final Appendable buffer, final DayFields day, final int millisOfDay) throws IOException {
+            appendTo(buffer, day.get(Calendar.ZONE_OFFSET, millisOfDay) + day.get(Calendar.DST_OFFSET, millisOfDay));
+        }
+
+        /**
+         * Appends the specified offset to the output buffer.
+         *
+         * @param buffer the output buffer
+         * @param offset the offset from GMT in milliseconds
+         * @throws IOException if an I/O error occurs
+         */
+        private void appendTo(final Appendable buffer, int offset) throws IOException {
             if (offset < 0) {
                 buffer.append('-');
                 offset = -offset;
@@ -1205,6 +1695,199 @@ public class FastDatePrinter implements DatePrinter, Serializable {
         }
     }
 
+    // ----------------------------------------------------------------------
+    /**
+     * <p>Inner class holding the text of a period of time, during which
+     * only the millisecond fields change.</p>
+     *
+     * <p>Instances are immutable, so they can be shared between threads.</p>
+     */
+    static final class PeriodTemplate {
+        /** The first instant of the period, in milliseconds since the epoch. */
+        final long mStart;
+        /** The first instant of the next period, in milliseconds since the epoch. */
+        final long mEnd;
+        private final String[] mLiterals;
+        private final NumberRule[] mMillisRules;
+
+        /**
+         * Constructs an instance of {@code PeriodTemplate}.
+         *
+         * @param start the first instant of the period
+         * @param length the length of the period in milliseconds
+         * @param literals the text around the millisecond fields
+         * @param millisRules the rules of the millisecond fields
+         */
+        private PeriodTemplate(final long start, final int length, final String[] literals, final NumberRule[] millisRules) {
+            mStart = start;
+            mEnd = start + length;
+            mLiterals = literals;
+            mMillisRules = millisRules;
+        }
+
+        /**
+         * Appends an instant of the period to the output buffer.
+         *
+         * @param buffer the output buffer
+         * @param millis the instant, which must fall within the period
+         * @return the specified buffer
+         * @throws IOException if an I/O error occurs
+         */
+        <B extends Appendable> B appendTo(final B buffer, final long millis) throws IOException {
+            final int millisOfSecond = (int) ((millis - mStart) % DayFields.MILLIS_PER_SECOND);
+            buffer.append(mLiterals[0]);
+            for (int i = 0; i < mMillisRules.length; ++i) {
+                mMillisRules[i].appendTo(buffer, millisOfSecond);
+                buffer.append(mLiterals[i + 1]);
+            }
+            return buffer;
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    /**
+     * <p>Inner class holding the calendar fields of one day, during which
+     * the time zone offset does not change.</p>
+     *
+     * <p>Instances are immutable, so they can be shared between threads.</p>
+     */
+    private static final class DayFields {
+        private static final int MILLIS_PER_SECOND = 1000;
+        private static final int MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+        private static final int MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+        private static final int MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+        private static final long NANOS_PER_MILLI = 1000000L;
+
+        /** The first instant of the day, in milliseconds since the epoch. */
+        final long mStart;
+        /** The first instant of the next day, in milliseconds since the epoch. */
+        final long mEnd;
+        /** Whether daylight saving time is in effect. */
+        final boolean mDaylight;
+        /** The time zone of the day, or {@code null} for the time zone of the printer. */
+        final TimeZone mTimeZone;
+        private final int[] mFields;
+
+        /**
+         * Constructs an instance of {@code DayFields}.
+         *
+         * @param start the first instant of the day
+         * @param fields the calendar field values of the day
+         * @param daylight whether daylight saving time is in effect
+         * @param timeZone the time zone, or {@code null} for the time zone of the printer
+         */
+        private DayFields(final long start, final int[] fields, final boolean daylight, final TimeZone timeZone) {
+            mStart = start;
+            mEnd = start + MILLIS_PER_DAY;
+            mDaylight = daylight;
+            mTimeZone = timeZone;
+            mFields = fields;
+        }
+
+        /**
+         * Creates the fields of the day containing the specified instant.
+         *
+         * @param calendar the calendar in the time zone and locale of the printer
+         * @param millis the instant, in milliseconds since the epoch
+         * @return the fields of the day, or {@code null} if the time zone
+         *  offset changes during the day
+         */
+        static DayFields create(final Calendar calendar, final long millis) {
+            calendar.setTimeInMillis(millis);
+            final int[] fields = new int[Calendar.FIELD_COUNT];
+            for (int i = 0; i < fields.length; ++i) {
+                fields[i] = calendar.get(i);
+            }
+            final long start = millis - (fields[Calendar.HOUR_OF_DAY] * (long) MILLIS_PER_HOUR
+                    + fields[Calendar.MINUTE] * MILLIS_PER_MINUTE
+                    + fields[Calendar.SECOND] * MILLIS_PER_SECOND
+                    + fields[Calendar.MILLISECOND]);
+            if (!isSameDay(calendar, start, fields, 0)
+                    || !isSameDay(calendar, start + MILLIS_PER_DAY - 1, fields, MILLIS_PER_DAY - 1)) {
+                return null;
+            }
+            return new DayFields(start, fields,
+                    calendar.getTimeZone().useDaylightTime() && fields[Calendar.DST_OFFSET] != 0, null);
+        }
+
+        /**
+         * Creates the fields of the day of a date-time, without the use of a calendar.
+         *
+         * @param dateTime the date-time
+         * @param weekFields the definition of the week fields
+         * @param timeZone the time zone of the date-time, or {@code null} for the time zone of the printer
+         * @return the fields of the day
+         */
+        static DayFields create(final ZonedDateTime dateTime, final WeekFields weekFields, final TimeZone timeZone) {
+            final ZoneRules rules = dateTime.getZone().getRules();
+            final Instant instant = dateTime.toInstant();
+            final int[] fields = new int[Calendar.FIELD_COUNT];
+            fields[Calendar.ERA] = dateTime.get(ChronoField.ERA);
+            fields[Calendar.YEAR] = dateTime.get(ChronoField.YEAR_OF_ERA);
+            fields[Calendar.MONTH] = dateTime.getMonthValue() - 1;
+            fields[Calendar.WEEK_OF_YEAR] = dateTime.get(weekFields.weekOfWeekBasedYear());
+            fields[Calendar.WEEK_OF_MONTH] = dateTime.get(weekFields.weekOfMonth());
+            fields[Calendar.DAY_OF_MONTH] = dateTime.getDayOfMonth();
+            fields[Calendar.DAY_OF_YEAR] = dateTime.getDayOfYear();
+            fields[Calendar.DAY_OF_WEEK] = dateTime.getDayOfWeek().getValue() % 7 + 1;
+            fields[Calendar.DAY_OF_WEEK_IN_MONTH] = (dateTime.getDayOfMonth() - 1) / 7 + 1;
+            fields[Calendar.ZONE_OFFSET] = rules.getStandardOffset(instant).getTotalSeconds() * MILLIS_PER_SECOND;
+            fields[Calendar.DST_OFFSET] = (int) rules.getDaylightSavings(instant).toMillis();
+            final long start = instant.toEpochMilli() - dateTime.getLong(ChronoField.NANO_OF_DAY) / NANOS_PER_MILLI;
+            // as TimeZone.useDaylightTime(), only zones with ongoing daylight saving rules show daylight names
+            return new DayFields(start, fields,
+                    fields[Calendar.DST_OFFSET] != 0 && !rules.getTransitionRules().isEmpty(), timeZone);
+        }
+
+        /**
+         * Checks that an instant falls on the expected day, at the expected
+         * time, with the same time zone offset.
+         *
+         * @param calendar the calendar to use
+         * @param millis the instant to check
+         * @param fields the calendar field values of the day
+         * @param millisOfDay the expected milliseconds since the start of the day
+         * @return {@code true} if the instant has the expected date, time and offset
+         */
+        private static boolean isSameDay(final Calendar calendar, final long millis, final int[] fields, final int millisOfDay) {
+            calendar.setTimeInMillis(millis);
+            return calendar.get(Calendar.ERA) == fields[Calendar.ERA]
+                && calendar.get(Calendar.YEAR) == fields[Calendar.YEAR]
+                && calendar.get(Calendar.DAY_OF_YEAR) == fields[Calendar.DAY_OF_YEAR]
+                && calendar.get(Calendar.ZONE_OFFSET) == fields[Calendar.ZONE_OFFSET]
+                && calendar.get(Calendar.DST_OFFSET) == fields[Calendar.DST_OFFSET]
+                && calendar.get(Calendar.MILLISECOND) + calendar.get(Calendar.SECOND) * MILLIS_PER_SECOND
+                    + calendar.get(Calendar.MINUTE) * MILLIS_PER_MINUTE
+                    + calendar.get(Calendar.HOUR_OF_DAY) * MILLIS_PER_HOUR == millisOfDay;
+        }
+
+        /**
+         * Gets the value of a calendar field at a time of this day.
+         *
+         * @param field the calendar field
+         * @param millisOfDay the milliseconds since the start of the day
+         * @return the value of the field
+         */
+        int get(final int field, final int millisOfDay) {
+            switch (field) {
+            case Calendar.AM_PM:
+                return millisOfDay < 12 * MILLIS_PER_HOUR ? Calendar.AM : Calendar.PM;
+            case Calendar.HOUR:
+                return millisOfDay / MILLIS_PER_HOUR % 12;
+            case Calendar.HOUR_OF_DAY:
+                return millisOfDay / MILLIS_PER_HOUR;
+            case Calendar.MINUTE:
+                return millisOfDay / MILLIS_PER_MINUTE % 60;
+            case Calendar.SECOND:
+                return millisOfDay / MILLIS_PER_SECOND % 60;
+            case Calendar.MILLISECOND:
+                return millisOfDay % MILLIS_PER_SECOND;
+            default:
+                return mFields[field];
+            }
+        }
+    }
+
     // ----------------------------------------------------------------------
     /**
      * <p>Inner class that acts as a compound key for time zone names.</p>
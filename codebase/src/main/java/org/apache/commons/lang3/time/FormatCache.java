@@ -20,14 +20,22 @@ import java.text.DateFormat;
 import java.text.Format;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>FormatCache is a cache and factory for {@link Format}s.</p>
  * 
+ * <p>The number of cached formats is bounded. When the capacity is exceeded,
+ * formats that have not been used since they were last considered are evicted,
+ * which approximates least recently used order. The default capacity can be set
+ * with the system property {@value #CAPACITY_PROPERTY}.</p>
+ * 
  * @since 3.0
  * @version $Id: FormatCache 892161 2009-12-18 07:21:10Z  $
  */
@@ -37,12 +45,107 @@ abstract class FormatCache<F extends Format> {
      * No date or no time.  Used in same parameters as DateFormat.SHORT or DateFormat.LONG
      */
     static final int NONE= -1;
+
+    /**
+     * The system property holding the maximum number of entries in each cache.
+     */
+    static final String CAPACITY_PROPERTY= "org.apache.commons.lang3.time.FormatCache.capacity";
+
+    /**
+     * The maximum number of entries in each cache, if not set by {@link #CAPACITY_PROPERTY}.
+     */
+    static final int DEFAULT_CAPACITY= 1000;
+
+    private final BoundedCache<MultipartKey, F> cInstanceCache;
     
-    private final ConcurrentMap<MultipartKey, F> cInstanceCache 
-        = new ConcurrentHashMap<MultipartKey, F>(7);
-    
-    private static final ConcurrentMap<MultipartKey, String> cDateTimeInstanceCache 
-        = new ConcurrentHashMap<MultipartKey, String>(7);
+    private static final BoundedCache<MultipartKey, String> cDateTimeInstanceCache 
+        = new BoundedCache<MultipartKey, String>(getDefaultCapacity());
+
+    /**
+     * <p>Constructs a cache holding at most the default capacity of formats.</p>
+     */
+    FormatCache() {
+        this(getDefaultCapacity());
+    }
+
+    /**
+     * <p>Constructs a cache holding at most the specified number of formats.</p>
+     * 
+     * @param capacity  the maximum number of cached formats, at least one
+     * @throws IllegalArgumentException if capacity is less than one
+     */
+    FormatCache(final int capacity) {
+        cInstanceCache= new BoundedCache<MultipartKey, F>(capacity);
+    }
+
+    /**
+     * <p>Gets the capacity set by the system property {@value #CAPACITY_PROPERTY},
+     * or {@link #DEFAULT_CAPACITY} if the property is not set, not a positive
+     * number or cannot be read.</p>
+     * 
+     * @return the default capacity of a cache
+     */
+    static int getDefaultCapacity() {
+        try {
+            final String value= System.getProperty(CAPACITY_PROPERTY);
+            if (value != null) {
+                final int capacity= Integer.parseInt(value.trim());
+                if (capacity > 0) {
+                    return capacity;
+                }
+            }
+        } catch (final SecurityException ex) { // NOPMD
+            // we are not allowed to look at this property
+        } catch (final NumberFormatException ex) { // NOPMD
+            // ignore an invalid value
+        }
+        return DEFAULT_CAPACITY;
+    }
+
+    /**
+     * <p>Gets the maximum number of formats held by this cache.</p>
+     * 
+     * @return the capacity
+     */
+    int getCapacity() {
+        return cInstanceCache.capacity;
+    }
+
+    /**
+     * <p>Gets the number of formats held by this cache.</p>
+     * 
+     * @return the number of cached formats
+     */
+    int size() {
+        return cInstanceCache.map.size();
+    }
+
+    /**
+     * <p>Gets the number of requests that found a cached format.</p>
+     * 
+     * @return the number of cache hits
+     */
+    long getHitCount() {
+        return cInstanceCache.hits.sum();
+    }
+
+    /**
+     * <p>Gets the number of requests that had to create a format.</p>
+     * 
+     * @return the number of cache misses
+     */
+    long getMissCount() {
+        return cInstanceCache.misses.sum();
+    }
+
+    /**
+     * <p>Gets the number of formats evicted to keep the cache within its capacity.</p>
+     * 
+     * @return the number of evictions
+     */
+    long getEvictionCount() {
+        return cInstanceCache.evictions.sum();
+    }
 
     /**
      * <p>Gets a formatter instance using the default pattern in the
@@ -219,6 +322,128 @@ abstract class FormatCache<F extends Format> {
         return pattern;
     }
 
+    // ----------------------------------------------------------------------
+    /**
+     * <p>Helper class holding a size-bounded concurrent map.</p>
+     * 
+     * <p>Lookups do not lock; a hit only marks the entry as referenced.
+     * When an insert exceeds the capacity, a clock hand sweeps the entries,
+     * clearing the referenced marks and evicting the first entry found
+     * unmarked. Entries are inserted unmarked, so formats that are only
+     * requested once are evicted before formats that are reused.</p>
+     * 
+     * <p>Also used by {@link DurationFormatter} for its compiled patterns.</p>
+     */
+    static class BoundedCache<K, V> {
+        private final ConcurrentMap<K, Node<V>> map= new ConcurrentHashMap<K, Node<V>>(7);
+        private final int capacity;
+        private final LongAdder hits= new LongAdder();
+        private final LongAdder misses= new LongAdder();
+        private final LongAdder evictions= new LongAdder();
+        // guarded by this
+        private Iterator<Map.Entry<K, Node<V>>> hand;
+
+        /**
+         * Constructs an instance of <code>BoundedCache</code> with the specified capacity.
+         * @param capacity the maximum number of entries, at least one
+         * @throws IllegalArgumentException if capacity is less than one
+         */
+        BoundedCache(final int capacity) {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+            }
+            this.capacity= capacity;
+        }
+
+        /**
+         * Gets the number of entries.
+         * @return the number of cached values
+         */
+        int size() {
+            return map.size();
+        }
+
+        /**
+         * Gets the value for a key, counting the hit or miss.
+         * @param key the key
+         * @return the cached value, or null if the key is not cached
+         */
+        V get(final K key) {
+            final Node<V> node= map.get(key);
+            if (node == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            node.reference();
+            return node.value;
+        }
+
+        /**
+         * Caches a value unless the key is already cached, evicting entries if the capacity is exceeded.
+         * @param key the key
+         * @param value the value
+         * @return the value previously cached for the key, or null if the value was added
+         */
+        V putIfAbsent(final K key, final V value) {
+            final Node<V> previous= map.putIfAbsent(key, new Node<V>(value));
+            if (previous != null) {
+                previous.reference();
+                return previous.value;
+            }
+            if (map.size() > capacity) {
+                evict();
+            }
+            return null;
+        }
+
+        /**
+         * Sweeps the clock hand over the entries until the size is within the capacity.
+         */
+        private synchronized void evict() {
+            while (map.size() > capacity) {
+                if (hand == null || !hand.hasNext()) {
+                    hand= map.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                final Map.Entry<K, Node<V>> entry= hand.next();
+                final Node<V> node= entry.getValue();
+                if (node.referenced) {
+                    node.referenced= false;
+                } else if (map.remove(entry.getKey(), node)) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Helper class holding a cached value and its referenced mark.</p>
+     */
+    private static class Node<V> {
+        private final V value;
+        private volatile boolean referenced;
+
+        /**
+         * Constructs an unreferenced instance of <code>Node</code>.
+         * @param value the cached value
+         */
+        Node(final V value) {
+            this.value= value;
+        }
+
+        /**
+         * Marks this node as referenced, writing only if the mark is not already set.
+         */
+        void reference() {
+            if (!referenced) {
+                referenced= true;
+            }
+        }
+    }
+
     // ----------------------------------------------------------------------
     /**
      * <p>Helper class to hold multi-part Map keys</p>
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * <p>LatencyHistogram counts non-negative values, such as elapsed times in
+ * nanoseconds, in logarithmic buckets, so that percentiles can be read
+ * while many threads are recording.</p>
+ *
+ * <p>Values below {@code 2^precision} each have a bucket of their own.
+ * Above that, every power of two range is divided into {@code 2^precision}
+ * buckets of equal width, so a value is known to within a relative error
+ * of {@code 2^-precision}, about 3% with the default precision of 5 bits.
+ * The statistics of the histogram are reported to this precision: a
+ * percentile, the minimum or the maximum is the highest value that falls
+ * in the same bucket as the value it stands for.</p>
+ *
+ * <p>Recording a value is a single increment of a striped counter, created
+ * when its bucket is first used, and takes no locks. Reading the statistics
+ * sums the buckets, so a histogram that is being recorded to gives an
+ * approximate result.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @since 3.2
+ */
+public class LatencyHistogram {
+
+    /**
+     * The default number of bits of precision.
+     */
+    public static final int DEFAULT_PRECISION = 5;
+
+    /**
+     * The number of bits of precision.
+     */
+    private final int mPrecision;
+    /**
+     * The counters of the buckets, created when first used.
+     */
+    private final AtomicReferenceArray<LongAdder> mBuckets;
+
+    /**
+     * <p>Constructs a histogram with the default precision.</p>
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * <p>Constructs a histogram.</p>
+     *
+     * @param precision  the number of bits of precision, from 1 to 10
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    public LatencyHistogram(final int precision) {
+        Validate.inclusiveBetween(1, 10, precision);
+        mPrecision = precision;
+        mBuckets = new AtomicReferenceArray<LongAdder>(getBucketIndex(Long.MAX_VALUE) + 1);
+    }
+
+    /**
+     * <p>Gets the number of bits of precision.</p>
+     *
+     * @return the precision
+     */
+    public int getPrecision() {
+        return mPrecision;
+    }
+
+    /**
+     * <p>Records a value.</p>
+     *
+     * @param value  the value, such as an elapsed time, not negative
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public void record(final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("The value must not be negative: " + value);
+        }
+        final int index = getBucketIndex(value);
+        LongAdder bucket = mBuckets.get(index);
+        if (bucket == null) {
+            final LongAdder created = new LongAdder();
+            bucket = mBuckets.compareAndSet(index, null, created) ? created : mBuckets.get(index);
+        }
+        bucket.increment();
+    }
+
+    /**
+     * <p>Gets the number of recorded values.</p>
+     *
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < mBuckets.length(); i++) {
+            final LongAdder bucket = mBuckets.get(i);
+            if (bucket != null) {
+                count += bucket.sum();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * <p>Gets the value at a percentile of the recorded values, so that the
+     * given percentage of the values are less than or equal to it.</p>
+     *
+     * @param percentile  the percentile, from 0 to 100
+     * @return the value, to the precision of the histogram, or zero if nothing
+     *  has been recorded
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    public long getValueAtPercentile(final double percentile) {
+        Validate.inclusiveBetween(0.0, 100.0, percentile);
+        final long[] counts = getCounts();
+        long count = 0;
+        for (final long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return getHighestValue(i);
+            }
+        }
+        return getHighestValue(counts.length - 1);
+    }
+
+    /**
+     * <p>Gets the smallest recorded value.</p>
+     *
+     * @return the value, to the precision of the histogram, or zero if nothing
+     *  has been recorded
+     */
+    public long getMin() {
+        for (int i = 0; i < mBuckets.length(); i++) {
+            final LongAdder bucket = mBuckets.get(i);
+            if (bucket != null && bucket.sum() > 0) {
+                return getHighestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * <p>Gets the largest recorded value.</p>
+     *
+     * @return the value, to the precision of the histogram, or zero if nothing
+     *  has been recorded
+     */
+    public long getMax() {
+        for (int i = mBuckets.length() - 1; i >= 0; i--) {
+            final LongAdder bucket = mBuckets.get(i);
+            if (bucket != null && bucket.sum() > 0) {
+                return getHighestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * <p>Gets the mean of the recorded values, taking each value as the
+     * middle of its bucket.</p>
+     *
+     * @return the mean, or zero if nothing has been recorded
+     */
+    public double getMean() {
+        final long[] counts = getCounts();
+        long count = 0;
+        double total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                final long lowest = getLowestValue(i);
+                count += counts[i];
+                total += counts[i] * (lowest + (getHighestValue(i) - lowest) / 2.0);
+            }
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * <p>Clears the recorded values.</p>
+     *
+     * <p>Values recorded while the histogram is being reset may or may not
+     * be cleared.</p>
+     */
+    public void reset() {
+        for (int i = 0; i < mBuckets.length(); i++) {
+            final LongAdder bucket = mBuckets.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+    }
+
+    /**
+     * <p>Gets a copy of the counts of the buckets.</p>
+     *
+     * @return the counts, indexed by bucket
+     */
+    private long[] getCounts() {
+        final long[] counts = new long[mBuckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            final LongAdder bucket = mBuckets.get(i);
+            if (bucket != null) {
+                counts[i] = bucket.sum();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * <p>Gets the index of the bucket of a value.</p>
+     *
+     * @param value  the value, not negative
+     * @return the index
+     */
+    int getBucketIndex(final long value) {
+        final int subBuckets = 1 << mPrecision;
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - mPrecision;
+        return (shift + 1 << mPrecision) + (int) (value >>> shift) - subBuckets;
+    }
+
+    /**
+     * <p>Gets the lowest value in a bucket.</p>
+     *
+     * @param index  the index of the bucket
+     * @return the lowest value
+     */
+    long getLowestValue(final int index) {
+        final int subBuckets = 1 << mPrecision;
+        if (index < subBuckets) {
+            return index;
+        }
+        final int shift = (index >> mPrecision) - 1;
+        return (long) ((index & subBuckets - 1) + subBuckets) << shift;
+    }
+
+    /**
+     * <p>Gets the highest value in a bucket.</p>
+     *
+     * @param index  the index of the bucket
+     * @return the highest value
+     */
+    long getHighestValue(final int index) {
+        if (index < 1 << mPrecision) {
+            return index;
+        }
+        final int shift = (index >> mPrecision) - 1;
+        return getLowestValue(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * <p>Gets a summary of the recorded values.</p>
+     *
+     * @return the count, minimum, median, 90th and 99th percentiles and maximum
+     */
+    @Override
+    public String toString() {
+        return "LatencyHistogram[count=" + getCount() + ",min=" + getMin() + ",p50=" + getValueAtPercentile(50)
+            + ",p90=" + getValueAtPercentile(90) + ",p99=" + getValueAtPercentile(99) + ",max=" + getMax() + "]";
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * <p>MultiPatternDateParser parses a string that may be in any one of
+ * several date formats, as {@link DateUtils#parseDate(String, String...)} does,
+ * but compiles its patterns once so that it can be reused.</p>
+ *
+ * <p>Each pattern is compiled into a {@link FastDateFormat}, taken from the
+ * shared cache. Parsing tries the pattern that last matched first, so input
+ * that keeps to one format is usually parsed by the first attempt. The other
+ * patterns are then tried in order. As with {@code DateUtils}, a parse is only
+ * successful if it parses the whole of the input string, and the parsed date
+ * is lenient.</p>
+ *
+ * <p>Because the last matching pattern is tried first, the patterns should not
+ * accept the same input with different meanings.</p>
+ *
+ * <p>This class is immutable apart from the index of the last matching
+ * pattern, which is updated atomically, so it is thread-safe.</p>
+ *
+ * @since 3.2
+ */
+public class MultiPatternDateParser {
+
+    /**
+     * The parsers, in the order of the patterns.
+     */
+    private final DateParser[] mParsers;
+    /**
+     * The index of the parser that last matched.
+     */
+    private volatile int mLastMatch;
+
+    /**
+     * <p>Constructs a new MultiPatternDateParser using the default
+     * time zone and locale.</p>
+     *
+     * @param parsePatterns  the date format patterns to use, see SimpleDateFormat, not null
+     * @throws IllegalArgumentException if the pattern array is null or a pattern is invalid
+     * @throws NullPointerException if a pattern is null
+     */
+    public MultiPatternDateParser(final String... parsePatterns) {
+        this(TimeZone.getDefault(), Locale.getDefault(), parsePatterns);
+    }
+
+    /**
+     * <p>Constructs a new MultiPatternDateParser using the default
+     * time zone and the given locale.</p>
+     *
+     * @param locale  the locale whose date format symbols should be used, null means the default locale
+     * @param parsePatterns  the date format patterns to use, see SimpleDateFormat, not null
+     * @throws IllegalArgumentException if the pattern array is null or a pattern is invalid
+     * @throws NullPointerException if a pattern is null
+     */
+    public MultiPatternDateParser(final Locale locale, final String... parsePatterns) {
+        this(TimeZone.getDefault(), locale, parsePatterns);
+    }
+
+    /**
+     * <p>Constructs a new MultiPatternDateParser.</p>
+     *
+     * @param timeZone  the time zone of dates without one, null means the default time zone
+     * @param locale  the locale whose date format symbols should be used, null means the default locale
+     * @param parsePatterns  the date format patterns to use, see SimpleDateFormat, not null
+     * @throws IllegalArgumentException if the pattern array is null or a pattern is invalid
+     * @throws NullPointerException if a pattern is null
+     */
+    public MultiPatternDateParser(final TimeZone timeZone, final Locale locale, final String... parsePatterns) {
+        if (parsePatterns == null) {
+            throw new IllegalArgumentException("Patterns must not be null");
+        }
+        mParsers = new DateParser[parsePatterns.length];
+        for (int i = 0; i < parsePatterns.length; ++i) {
+            mParsers[i] = FastDateFormat.getInstance(parsePatterns[i], timeZone, locale);
+        }
+    }
+
+    /**
+     * <p>Parses a string representing a date by trying each pattern in turn,
+     * starting with the pattern that last matched.</p>
+     *
+     * @param str  the date to parse, not null
+     * @return the parsed date
+     * @throws IllegalArgumentException if the date string is null
+     * @throws ParseException if none of the date patterns were suitable (or there were none)
+     */
+    public Date parse(final String str) throws ParseException {
+        if (str == null) {
+            throw new IllegalArgumentException("Date must not be null");
+        }
+        final ParsePosition pos = new ParsePosition(0);
+        final int lastMatch = mLastMatch;
+        if (lastMatch < mParsers.length) {
+            final Date date = parse(mParsers[lastMatch], str, pos);
+            if (date != null) {
+                return date;
+            }
+        }
+        for (int i = 0; i < mParsers.length; ++i) {
+            if (i != lastMatch) {
+                final Date date = parse(mParsers[i], str, pos);
+                if (date != null) {
+                    mLastMatch = i;
+                    return date;
+                }
+            }
+        }
+        throw new ParseException("Unable to parse the date: " + str, -1);
+    }
+
+    /**
+     * <p>Parses the whole of a string with one parser.</p>
+     *
+     * @param parser  the parser to use
+     * @param str  the date to parse
+     * @param pos  the position to reuse
+     * @return the parsed date, or {@code null} if the parser does not match the whole string
+     */
+    private static Date parse(final DateParser parser, final String str, final ParsePosition pos) {
+        pos.setIndex(0);
+        final Date date = parser.parse(str, pos);
+        return date != null && pos.getIndex() == str.length() ? date : null;
+    }
+
+    /**
+     * <p>Gets the patterns of this parser, in the order they were given.</p>
+     *
+     * @return a new array of the patterns
+     */
+    public String[] getPatterns() {
+        final String[] patterns = new String[mParsers.length];
+        for (int i = 0; i < mParsers.length; ++i) {
+            patterns[i] = mParsers[i].getPattern();
+        }
+        return patterns;
+    }
+
+    /**
+     * <p>Gets a debugging string version of this parser.</p>
+     *
+     * @return a debugging string
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buf = new StringBuilder("MultiPatternDateParser[");
+        for (int i = 0; i < mParsers.length; ++i) {
+            if (i > 0) {
+                buf.append(',');
+            }
+            buf.append(mParsers[i].getPattern());
+        }
+        return buf.append(']').toString();
+    }
+}
@@ -347,6 +347,43 @@ public class StopWatch {
         return this.startTimeMillis;
     }
 
+    /**
+     * <p>
+     * Checks whether the stopwatch is started. A suspended watch is also started.
+     * </p>
+     * 
+     * @return <code>true</code> if {@link #start()} has been called and neither {@link #stop()} nor {@link #reset()}
+     *         has been called since
+     * @since 3.2
+     */
+    public boolean isStarted() {
+        return this.runningState == STATE_RUNNING || this.runningState == STATE_SUSPENDED;
+    }
+
+    /**
+     * <p>
+     * Checks whether the stopwatch is suspended.
+     * </p>
+     * 
+     * @return <code>true</code> if the watch has been suspended and not yet resumed, stopped or reset
+     * @since 3.2
+     */
+    public boolean isSuspended() {
+        return this.runningState == STATE_SUSPENDED;
+    }
+
+    /**
+     * <p>
+     * Checks whether the stopwatch is stopped. A watch that has not been started is also stopped.
+     * </p>
+     * 
+     * @return <code>true</code> if the watch is not started
+     * @since 3.2
+     */
+    public boolean isStopped() {
+        return this.runningState == STATE_STOPPED || this.runningState == STATE_UNSTARTED;
+    }
+
     /**
      * <p>
      * Gets a summary of the time that the stopwatch recorded as a string.
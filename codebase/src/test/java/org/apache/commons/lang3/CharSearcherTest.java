@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.CharSearcher}.
+ *
+ * @version $Id$
+ */
+public class CharSearcherTest {
+
+    @Test
+    public void testContains() {
+        final CharSearcher searcher = new CharSearcher('a', '?', '\u00e9', '\uffff', '\u0000', '\u007f');
+        assertTrue(searcher.contains('a'));
+        assertTrue(searcher.contains('?'));
+        assertTrue(searcher.contains('\u00e9'));
+        assertTrue(searcher.contains('\uffff'));
+        assertTrue(searcher.contains('\u0000'));
+        assertTrue(searcher.contains('\u007f'));
+        assertFalse(searcher.contains('b'));
+        assertFalse(searcher.contains('\u00e8'));
+        assertFalse(searcher.contains('\u0080'));
+        assertFalse(searcher.contains('@'));
+        assertFalse(new CharSearcher((char[]) null).contains('a'));
+        assertFalse(new CharSearcher((CharSequence) null).contains('a'));
+        assertFalse(new CharSearcher("").contains('\u0000'));
+    }
+
+    @Test
+    public void testContainsManyNonAscii() {
+        final StringBuilder chars = new StringBuilder();
+        for (char c = '\u0400'; c < '\u0500'; c += 3) {
+            chars.append(c);
+        }
+        final CharSearcher searcher = new CharSearcher(chars);
+        for (char c = '\u0000'; c < '\u0600'; c++) {
+            assertEquals(String.valueOf((int) c), c >= '\u0400' && c < '\u0500' && (c - '\u0400') % 3 == 0,
+                searcher.contains(c));
+        }
+        assertFalse(searcher.contains('\uffff'));
+    }
+
+    @Test
+    public void testIndexIn() {
+        final CharSearcher searcher = new CharSearcher("by");
+        assertEquals(-1, searcher.indexIn(null));
+        assertEquals(-1, searcher.indexIn(""));
+        assertEquals(3, searcher.indexIn("zzabyycdxx"));
+        assertEquals(4, searcher.indexIn("zzabyycdxx", 4));
+        assertEquals(3, searcher.indexIn("zzabyycdxx", -1));
+        assertEquals(-1, searcher.indexIn("zzabyycdxx", 6));
+        assertEquals(-1, searcher.indexIn("zzabyycdxx", 20));
+        assertEquals(-1, new CharSearcher().indexIn("zzabyycdxx"));
+    }
+
+    @Test
+    public void testIndexNotIn() {
+        final CharSearcher searcher = new CharSearcher("za");
+        assertEquals(-1, searcher.indexNotIn(null, 0));
+        assertEquals(-1, searcher.indexNotIn("", 0));
+        assertEquals(3, searcher.indexNotIn("zzabyycdxx", 0));
+        assertEquals(-1, searcher.indexNotIn("zzaazz", 0));
+        assertEquals(0, new CharSearcher().indexNotIn("zzabyycdxx", 0));
+    }
+
+    @Test
+    public void testContainsHighSurrogate() {
+        assertFalse(new CharSearcher("abc\u00e9").containsHighSurrogate());
+        assertFalse(new CharSearcher("abc\udc00").containsHighSurrogate());
+        assertTrue(new CharSearcher("abc\ud800").containsHighSurrogate());
+    }
+
+    /**
+     * The StringUtils search methods compile a CharSearcher for long inputs,
+     * which must give the same results as their nested loops.
+     */
+    @Test
+    public void testStringUtilsSearchesOfLongInputs() {
+        final Random random = new Random(42);
+        final char[] alphabet = "abcdefghij\u00e9\u4e2d\ud800\udc00".toCharArray();
+        final char[] searchAlphabet = "abcdefghij\u00e9\u4e2d".toCharArray();
+        for (int i = 0; i < 5000; i++) {
+            final String cs = RandomStringUtils.random(random.nextInt(200), 0, 0, false, false, alphabet, random);
+            final char[] searchChars = RandomStringUtils.random(1 + random.nextInt(10), 0, 0, false, false,
+                searchAlphabet, random).toCharArray();
+            final String searchString = new String(searchChars);
+            final String message = cs + " / " + searchString;
+            assertEquals(message, indexOfAny(cs, searchChars), StringUtils.indexOfAny(cs, searchChars));
+            assertEquals(message, indexOfAny(cs, searchChars), StringUtils.indexOfAny(cs, searchString));
+            assertEquals(message, indexOfAnyBut(cs, searchChars), StringUtils.indexOfAnyBut(cs, searchChars));
+            assertEquals(message, indexOfAnyBut(cs, searchString), StringUtils.indexOfAnyBut(cs, searchString));
+            assertEquals(message, indexOfAny(cs, searchChars) >= 0, StringUtils.containsAny(cs, searchChars));
+            assertEquals(message, indexOfAny(cs, searchChars) < 0, StringUtils.containsNone(cs, searchChars));
+            assertEquals(message, cs.isEmpty() || indexOfAnyBut(cs, searchChars) < 0,
+                StringUtils.containsOnly(cs, searchChars));
+        }
+    }
+
+    /**
+     * The nested loops of StringUtils.indexOfAny(CharSequence, char...), for search characters without
+     * high surrogates.
+     */
+    private static int indexOfAny(final String cs, final char[] searchChars) {
+        for (int i = 0; i < cs.length(); i++) {
+            for (final char c : searchChars) {
+                if (c == cs.charAt(i)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The nested loops of StringUtils.indexOfAnyBut(CharSequence, char...), for search characters
+     * without high surrogates.
+     */
+    private static int indexOfAnyBut(final String cs, final char[] searchChars) {
+        outer:
+        for (int i = 0; i < cs.length(); i++) {
+            for (final char c : searchChars) {
+                if (c == cs.charAt(i)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The loop of StringUtils.indexOfAnyBut(CharSequence, CharSequence).
+     */
+    private static int indexOfAnyBut(final String seq, final String searchChars) {
+        for (int i = 0; i < seq.length(); i++) {
+            final char ch = seq.charAt(i);
+            final boolean chFound = searchChars.indexOf(ch) >= 0;
+            if (i + 1 < seq.length() && Character.isHighSurrogate(ch)) {
+                if (chFound && searchChars.indexOf(seq.charAt(i + 1)) < 0) {
+                    return i;
+                }
+            } else if (!chFound) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.LevenshteinMatcher}.
+ *
+ * @version $Id$
+ */
+public class LevenshteinMatcherTest {
+
+    @Test
+    public void testDistance() {
+        assertEquals(0, new LevenshteinMatcher("").distance(""));
+        assertEquals(1, new LevenshteinMatcher("").distance("a"));
+        assertEquals(7, new LevenshteinMatcher("aaapppp").distance(""));
+        assertEquals(1, new LevenshteinMatcher("frog").distance("fog"));
+        assertEquals(3, new LevenshteinMatcher("fly").distance("ant"));
+        assertEquals(7, new LevenshteinMatcher("elephant").distance("hippo"));
+        assertEquals(7, new LevenshteinMatcher("hippo").distance("elephant"));
+        assertEquals(8, new LevenshteinMatcher("hippo").distance("zzzzzzzz"));
+        assertEquals(1, new LevenshteinMatcher("hello").distance("hallo"));
+        assertEquals("hello", new LevenshteinMatcher(new StringBuilder("hello")).getQuery());
+    }
+
+    @Test
+    public void testDistanceWithThreshold() {
+        assertEquals(0, new LevenshteinMatcher("").distance("", 0));
+        assertEquals(7, new LevenshteinMatcher("aaapppp").distance("", 7));
+        assertEquals(-1, new LevenshteinMatcher("aaapppp").distance("", 6));
+        assertEquals(7, new LevenshteinMatcher("elephant").distance("hippo", 7));
+        assertEquals(-1, new LevenshteinMatcher("elephant").distance("hippo", 6));
+        assertEquals(-1, new LevenshteinMatcher("hippo").distance("elephant", 6));
+        assertEquals(-1, new LevenshteinMatcher("").distance("a", 0));
+    }
+
+    @Test
+    public void testLongQueries() {
+        final String query = StringUtils.repeat("abcdefghij", 20);
+        final LevenshteinMatcher matcher = new LevenshteinMatcher(query);
+        assertEquals(0, matcher.distance(query));
+        assertEquals(1, matcher.distance(query.substring(1)));
+        assertEquals(1, matcher.distance(query.substring(0, 64) + "x" + query.substring(65)));
+        assertEquals(200, matcher.distance(StringUtils.repeat('z', 200)));
+        assertEquals(200, matcher.distance(""));
+        assertEquals(-1, matcher.distance(StringUtils.repeat('z', 200), 199));
+    }
+
+    @Test
+    public void testDistances() {
+        final LevenshteinMatcher matcher = new LevenshteinMatcher("kitten");
+        final int[] distances = new int[4];
+        matcher.distances(new String[]{"sitting", "kitten", "mitten", ""}, distances);
+        assertEquals(3, distances[0]);
+        assertEquals(0, distances[1]);
+        assertEquals(1, distances[2]);
+        assertEquals(6, distances[3]);
+        matcher.distances(new String[]{"sitting", "kitten", "mitten"}, 1, distances);
+        assertEquals(-1, distances[0]);
+        assertEquals(0, distances[1]);
+        assertEquals(1, distances[2]);
+    }
+
+    @Test
+    public void testRandomAgainstTable() {
+        final Random random = new Random(42);
+        final char[] alphabet = "abc\u00e9\u4e2d".toCharArray();
+        for (int i = 0; i < 2000; i++) {
+            final int maxLength = i % 10 == 0 ? 200 : 70;
+            final String query = RandomStringUtils.random(random.nextInt(maxLength), 0, 0, false, false, alphabet, random);
+            final LevenshteinMatcher matcher = new LevenshteinMatcher(query);
+            final LevenshteinMatcher oneOff = new LevenshteinMatcher(query, false);
+            final String[] candidates = new String[5];
+            for (int j = 0; j < candidates.length; j++) {
+                candidates[j] = RandomStringUtils.random(random.nextInt(maxLength), 0, 0, false, false, alphabet, random);
+            }
+            final int threshold = random.nextInt(40);
+            final int[] distances = new int[candidates.length];
+            final int[] bounded = new int[candidates.length];
+            matcher.distances(candidates, distances);
+            matcher.distances(candidates, threshold, bounded);
+            for (int j = 0; j < candidates.length; j++) {
+                final int expected = distance(query, candidates[j]);
+                final String message = query + " / " + candidates[j];
+                assertEquals(message, expected, distances[j]);
+                assertEquals(message, expected, oneOff.distance(candidates[j]));
+                assertEquals(message, expected <= threshold ? expected : -1, bounded[j]);
+                assertEquals(message, expected <= threshold ? expected : -1, oneOff.distance(candidates[j], threshold));
+                assertEquals(message, expected, StringUtils.getLevenshteinDistance(candidates[j], query));
+                assertEquals(message, expected <= threshold ? expected : -1,
+                    StringUtils.getLevenshteinDistance(query, candidates[j], threshold));
+            }
+        }
+    }
+
+    @Test
+    public void testIllegalArguments() {
+        try {
+            new LevenshteinMatcher(null);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        final LevenshteinMatcher matcher = new LevenshteinMatcher("a");
+        try {
+            matcher.distance(null);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            matcher.distance("a", -1);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            matcher.distances(new String[]{"a", null}, new int[2]);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            matcher.distances(new String[]{"a", "b"}, new int[1]);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * The distance computed with the whole cost table.
+     */
+    private static int distance(final String s, final String t) {
+        final int[][] d = new int[s.length() + 1][t.length() + 1];
+        for (int i = 0; i <= s.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= t.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= s.length(); i++) {
+            for (int j = 1; j <= t.length(); j++) {
+                final int cost = s.charAt(i - 1) == t.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[s.length()][t.length()];
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.MultiPatternReplacer}.
+ *
+ * @version $Id$
+ */
+public class MultiPatternReplacerTest {
+
+    @Test
+    public void testReplace() {
+        assertNull(new MultiPatternReplacer(new String[]{"a"}, new String[]{"b"}).replace(null));
+        assertEquals("", new MultiPatternReplacer(new String[]{"a"}, new String[]{"b"}).replace(""));
+        assertEquals("aba", new MultiPatternReplacer(null, null).replace("aba"));
+        assertEquals("aba", new MultiPatternReplacer(new String[]{"a"}, null).replace("aba"));
+        assertEquals("b", new MultiPatternReplacer(new String[]{"a"}, new String[]{""}).replace("aba"));
+        assertEquals("aba", new MultiPatternReplacer(new String[]{null}, new String[]{"a"}).replace("aba"));
+        assertEquals("aba", new MultiPatternReplacer(new String[]{""}, new String[]{"a"}).replace("aba"));
+        assertEquals("wcte", new MultiPatternReplacer(new String[]{"ab", "d"}, new String[]{"w", "t"}).replace("abcde"));
+        assertEquals("dcte", new MultiPatternReplacer(new String[]{"ab", "d"}, new String[]{"d", "t"}).replace("abcde"));
+        assertEquals("cbc", new MultiPatternReplacer(new String[]{"a", "b"}, new String[]{"c", null}).replace("aba"));
+    }
+
+    @Test
+    public void testReplaceEarliestThenFirstInList() {
+        final MultiPatternReplacer replacer = new MultiPatternReplacer(
+            new String[]{"bcd", "ab", "abc", "b", "ab"}, new String[]{"1", "2", "3", "4", "5"});
+        assertEquals("2cd", replacer.replace("abcd"));
+        assertEquals("x1x", replacer.replace("xbcdx"));
+        assertEquals("x4cx", replacer.replace("xbcx"));
+        final String text = "none";
+        assertSame(text, replacer.replace(text));
+    }
+
+    @Test
+    public void testReplaceRepeatedly() {
+        assertEquals("tcte", new MultiPatternReplacer(new String[]{"ab", "d"}, new String[]{"d", "t"})
+            .replaceRepeatedly("abcde"));
+        assertNull(new MultiPatternReplacer(new String[]{"a"}, new String[]{"b"}).replaceRepeatedly(null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReplaceRepeatedlyCircular() {
+        new MultiPatternReplacer(new String[]{"ab", "d"}, new String[]{"d", "ab"}).replaceRepeatedly("abcde");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthsDiffer() {
+        new MultiPatternReplacer(new String[]{"a", "b"}, new String[]{"c"});
+    }
+
+    @Test
+    public void testMatchesReplaceEach() {
+        final Random random = new Random(11);
+        final char[] alphabet = "abc".toCharArray();
+        for (int n = 0; n < 20000; n++) {
+            // fewer search strings than the threshold of StringUtils, so that it searches with indexOf
+            final String[] searchList = new String[1 + random.nextInt(20)];
+            final String[] replacementList = new String[searchList.length];
+            for (int i = 0; i < searchList.length; i++) {
+                searchList[i] = random.nextInt(20) == 0 ? null
+                    : RandomStringUtils.random(random.nextInt(5), 0, 0, false, false, alphabet, random);
+                replacementList[i] = random.nextInt(20) == 0 ? null
+                    : RandomStringUtils.random(random.nextInt(4), 0, 0, false, false, alphabet, random).toUpperCase();
+            }
+            final String text = RandomStringUtils.random(random.nextInt(60), 0, 0, false, false, alphabet, random);
+            assertEquals(StringUtils.replaceEach(text, searchList, replacementList),
+                new MultiPatternReplacer(searchList, replacementList).replace(text));
+        }
+    }
+
+    @Test
+    public void testReplaceEachLongTextManySearchStrings() {
+        final Random random = new Random(13);
+        final char[] alphabet = "abc".toCharArray();
+        // enough search strings and text for StringUtils to use a replacer
+        final String[] searchList = new String[40];
+        final String[] replacementList = new String[searchList.length];
+        for (int i = 0; i < searchList.length; i++) {
+            searchList[i] = RandomStringUtils.random(1 + random.nextInt(4), 0, 0, false, false, alphabet, random);
+            replacementList[i] = RandomStringUtils.random(random.nextInt(4), 0, 0, false, false, alphabet, random);
+        }
+        final StringBuilder text = new StringBuilder();
+        final StringBuilder expected = new StringBuilder();
+        while (text.length() < 4000) {
+            // words are replaced on their own, with fewer characters than for a replacer
+            final String word = RandomStringUtils.random(random.nextInt(12), 0, 0, false, false, alphabet, random);
+            text.append(word).append(' ');
+            expected.append(StringUtils.replaceEach(word, searchList, replacementList)).append(' ');
+        }
+        assertEquals(expected.toString(), StringUtils.replaceEach(text.toString(), searchList, replacementList));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReplaceEachRepeatedlyLongTextCircular() {
+        final String[] searchList = new String[40];
+        final String[] replacementList = new String[searchList.length];
+        for (int i = 0; i < searchList.length; i++) {
+            searchList[i] = "x" + i + "y";
+            replacementList[i] = "x" + (i + 1) % searchList.length + "y";
+        }
+        StringUtils.replaceEachRepeatedly(StringUtils.repeat("x0y ", 1000), searchList, replacementList);
+    }
+
+}
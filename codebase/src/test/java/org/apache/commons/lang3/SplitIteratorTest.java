@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.SplitIterator}.
+ *
+ * @version $Id$
+ */
+public class SplitIteratorTest {
+
+    @Test
+    public void testSplit() {
+        assertArrayEquals(new String[0], toArray(SplitIterator.split(null)));
+        assertArrayEquals(new String[0], toArray(SplitIterator.split("")));
+        assertArrayEquals(new String[]{"abc", "def"}, toArray(SplitIterator.split(" abc  def ")));
+        assertArrayEquals(new String[]{"a", "b", "c"}, toArray(SplitIterator.split("a..b.c", '.')));
+        assertArrayEquals(new String[]{"ab", "cd:ef"}, toArray(SplitIterator.split("ab:cd:ef", ":", 2)));
+        assertArrayEquals(new String[]{"ab", "cd", "ef"}, toArray(SplitIterator.split("ab-cd:ef", "-:", 0)));
+    }
+
+    @Test
+    public void testSplitPreserveAllTokens() {
+        assertArrayEquals(new String[0], toArray(SplitIterator.splitPreserveAllTokens("", ',')));
+        assertArrayEquals(new String[]{"", "a", "", "b", ""},
+            toArray(SplitIterator.splitPreserveAllTokens(",a,,b,", ',')));
+        assertArrayEquals(new String[]{"", "", ""}, toArray(SplitIterator.splitPreserveAllTokens("::", ":", -1)));
+        assertArrayEquals(new String[]{"ab", "", "cd:ef"},
+            toArray(SplitIterator.splitPreserveAllTokens("ab::cd:ef", ":", 3)));
+    }
+
+    @Test
+    public void testSplitByWholeSeparator() {
+        assertArrayEquals(new String[]{"ab", "cd", "ef"},
+            toArray(SplitIterator.splitByWholeSeparator("ab-!-cd-!--!-ef", "-!-", 0)));
+        assertArrayEquals(new String[]{"ab", "cd-!-ef"},
+            toArray(SplitIterator.splitByWholeSeparator("ab-!-cd-!-ef", "-!-", 2)));
+        assertArrayEquals(new String[]{"ab", "", "cd"},
+            toArray(SplitIterator.splitByWholeSeparatorPreserveAllTokens("ab::::cd", "::", 0)));
+        assertArrayEquals(new String[]{"ab", "cd"},
+            toArray(SplitIterator.splitByWholeSeparator("ab  cd", null, 0)));
+    }
+
+    @Test
+    public void testNextToken() {
+        final String line = "id,name,,42,rest";
+        final SplitIterator fields = SplitIterator.splitPreserveAllTokens(line, ',');
+        for (int i = 0; i < 4; i++) {
+            assertTrue(fields.nextToken());
+        }
+        assertEquals(9, fields.start());
+        assertEquals(11, fields.end());
+        assertEquals("42", line.substring(fields.start(), fields.end()));
+        assertTrue(fields.hasNext());
+        assertTrue(fields.hasNext());
+        assertEquals("rest", fields.next().toString());
+        assertFalse(fields.nextToken());
+        assertFalse(fields.hasNext());
+        assertEquals(12, fields.start());
+        assertEquals(16, fields.end());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartBeforeFirstToken() {
+        SplitIterator.split("a b").start();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextAtEnd() {
+        final SplitIterator tokens = SplitIterator.split("a");
+        tokens.next();
+        tokens.next();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove() {
+        final SplitIterator tokens = SplitIterator.split("a");
+        tokens.next();
+        tokens.remove();
+    }
+
+    @Test
+    public void testSameTokensAsStringUtils() {
+        final Random random = new Random(42);
+        final char[] alphabet = "ab:; -".toCharArray();
+        final String[] separatorsList = {null, "", ":", ":;", "-", ";-:"};
+        for (int i = 0; i < 5000; i++) {
+            final String str = RandomStringUtils.random(random.nextInt(20), 0, 0, false, false, alphabet, random);
+            final StringBuilder builder = new StringBuilder(str);
+            final String separators = separatorsList[random.nextInt(separatorsList.length)];
+            final int max = random.nextInt(5) - 1;
+            final String message = "\"" + str + "\" / " + separators + " / " + max;
+
+            assertArrayEquals(message, StringUtils.split(str), toArray(SplitIterator.split(str)));
+            assertArrayEquals(message, StringUtils.split(str, ':'), toArray(SplitIterator.split(builder, ':')));
+            assertArrayEquals(message, StringUtils.split(str, separators, max),
+                toArray(SplitIterator.split(str, separators, max)));
+            assertArrayEquals(message, StringUtils.splitPreserveAllTokens(str, ':'),
+                toArray(SplitIterator.splitPreserveAllTokens(builder, ':')));
+            assertArrayEquals(message, StringUtils.splitPreserveAllTokens(str, separators, max),
+                toArray(SplitIterator.splitPreserveAllTokens(str, separators, max)));
+            assertArrayEquals(message, StringUtils.splitByWholeSeparator(str, separators, max),
+                toArray(SplitIterator.splitByWholeSeparator(str, separators, max)));
+            assertArrayEquals(message, StringUtils.splitByWholeSeparator(str, separators, max),
+                toArray(SplitIterator.splitByWholeSeparator(builder, separators, max)));
+            assertArrayEquals(message, StringUtils.splitByWholeSeparatorPreserveAllTokens(str, separators, max),
+                toArray(SplitIterator.splitByWholeSeparatorPreserveAllTokens(str, separators, max)));
+        }
+    }
+
+    private static String[] toArray(final SplitIterator tokens) {
+        final List<String> list = new ArrayList<String>();
+        while (tokens.hasNext()) {
+            list.add(tokens.next().toString());
+        }
+        return list.toArray(new String[list.size()]);
+    }
+}
@@ -25,12 +25,16 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.CharBuffer;
+import java.util.AbstractCollection;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Locale;
@@ -361,6 +365,87 @@ public class StringUtilsTest {
         assertEquals(TEXT_LIST, StringUtils.join(Arrays.asList(ARRAY_LIST), SEPARATOR));
     }
 
+    @Test
+    public void testJoin_CollectionIteratedOnce() {
+        final int[] iterators = new int[1];
+        final Collection<Integer> numbers = new AbstractCollection<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                iterators[0]++;
+                final Integer[] values = new Integer[size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = Integer.valueOf(i * 1000);
+                }
+                return Arrays.asList(values).iterator();
+            }
+
+            @Override
+            public int size() {
+                return 20;
+            }
+        };
+        final String expected = StringUtils.join(numbers.toArray(), ',');
+        iterators[0] = 0;
+        assertEquals(expected, StringUtils.join(numbers, ','));
+        assertEquals(1, iterators[0]);
+        assertEquals(expected.replace(",", ", "), StringUtils.join(numbers, ", "));
+        assertEquals(2, iterators[0]);
+    }
+
+    @Test
+    public void testJoin_ArraysOfExtremeNumbers() {
+        final long[] longs = {0, -1, 9, 10, -99, 100, Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE};
+        final StringBuilder expected = new StringBuilder();
+        for (final long value : longs) {
+            expected.append(expected.length() == 0 ? "" : ";").append(value);
+        }
+        assertEquals(expected.toString(), StringUtils.join(longs, SEPARATOR_CHAR));
+        assertEquals("-128;127", StringUtils.join(new byte[]{Byte.MIN_VALUE, Byte.MAX_VALUE}, ';'));
+        assertEquals("-32768;32767", StringUtils.join(new short[]{Short.MIN_VALUE, Short.MAX_VALUE}, ';'));
+        assertEquals("-2147483648;2147483647", StringUtils.join(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}, ';'));
+        final double[] doubles = {-1.2345678901234567E-300, 1, Double.NaN};
+        assertEquals(doubles[0] + ";1.0;NaN", StringUtils.join(doubles, ';'));
+        assertEquals("a;b", StringUtils.join(new char[]{'a', 'b'}, ';'));
+        // longer elements after those the length is estimated from
+        final int[] ints = new int[50];
+        final StringBuilder expectedInts = new StringBuilder();
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i < 10 ? i : Integer.MIN_VALUE + i;
+            expectedInts.append(i == 0 ? "" : ";").append(ints[i]);
+        }
+        assertEquals(expectedInts.toString(), StringUtils.join(ints, ';'));
+        assertEquals(expectedInts.substring(2, 19), StringUtils.join(ints, ';', 1, 10));
+    }
+
+    @Test
+    public void testJoin_Appendable() throws IOException {
+        assertEquals("1;2", StringUtils.join(LONG_PRIM_LIST, SEPARATOR_CHAR, new StringBuilder()).toString());
+        assertEquals("1;2", StringUtils.join(INT_PRIM_LIST, SEPARATOR_CHAR, new StringWriter()).toString());
+        assertEquals("1.0;2.0", StringUtils.join(DOUBLE_PRIM_LIST, SEPARATOR_CHAR, new StringBuffer()).toString());
+        assertEquals("x", StringUtils.join((long[]) null, SEPARATOR_CHAR, new StringBuilder("x")).toString());
+        assertEquals("x", StringUtils.join(new int[0], SEPARATOR_CHAR, new StringBuilder("x")).toString());
+        assertEquals(TEXT_LIST, StringUtils.join(ARRAY_LIST, SEPARATOR, new StringWriter()).toString());
+        assertEquals(",,foo", StringUtils.join(MIXED_ARRAY_LIST, SEPARATOR, new StringBuilder()).toString());
+        assertEquals("foo,2", StringUtils.join(MIXED_TYPE_LIST, SEPARATOR, new StringBuilder()).toString());
+        assertEquals(TEXT_LIST_NOSEP, StringUtils.join(Arrays.asList(ARRAY_LIST), null, new StringWriter()).toString());
+        assertEquals("", StringUtils.join((Iterator<?>) null, SEPARATOR, new StringWriter()).toString());
+
+        final int[] ints = new int[100000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 7919 - 1000000;
+        }
+        final StringWriter writer = new StringWriter();
+        assertSame(writer, StringUtils.join(ints, ',', writer));
+        assertEquals(StringUtils.join(ints, ','), writer.toString());
+        assertEquals(StringUtils.join(ints, ','), StringUtils.join(ints, ',', new StringBuilder("")).toString());
+        try {
+            StringUtils.join(ints, ',', (Appendable) null);
+            fail("expecting IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testSplit_String() {
         assertArrayEquals(null, StringUtils.split(null));
@@ -1165,6 +1250,27 @@ public class StringUtilsTest {
 
         //JAVADOC TESTS END
     }
+
+    @Test
+    public void testReplaceEach_ManySearchStrings() {
+        // enough search strings for the automaton
+        final String[] searchList = new String[40];
+        final String[] replacementList = new String[40];
+        for (int i = 0; i < searchList.length; i++) {
+            searchList[i] = "<" + i + ">";
+            replacementList[i] = i + 1 < searchList.length ? "<" + (i + 1) + ">" : "end";
+        }
+        assertEquals("a<1>b<3>c", StringUtils.replaceEach("a<0>b<2>c", searchList, replacementList));
+        assertEquals("aendbendc", StringUtils.replaceEachRepeatedly("a<0>b<2>c", searchList, replacementList));
+        final String text = "no search string";
+        assertSame(text, StringUtils.replaceEach(text, searchList, replacementList));
+
+        replacementList[39] = "<0>";
+        try {
+            StringUtils.replaceEachRepeatedly("a<0>", searchList, replacementList);
+            fail("Should be a circular reference");
+        } catch (final IllegalStateException e) {}
+    }
     
     @Test
     public void testReplaceChars_StringCharChar() {
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.text.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link org.apache.commons.lang3.text.translate.AggregateTranslator}.
+ */
+public class AggregateTranslatorTest {
+
+    @Test
+    public void testFirstTranslatorWins() {
+        final CharSequenceTranslator translator = new AggregateTranslator(
+            new LookupTranslator(new CharSequence[][] { { "a", "1" } }),
+            new LookupTranslator(new CharSequence[][] { { "a", "2" }, { "ab", "3" }, { "\u00E9", "4" } }));
+        assertEquals("1b 4 \u0100", translator.translate("ab \u00E9 \u0100"));
+    }
+
+    @Test
+    public void testNested() {
+        final CharSequenceTranslator inner = new AggregateTranslator(
+            new LookupTranslator(new CharSequence[][] { { "a", "1" } }),
+            new LookupTranslator(new CharSequence[][] { { "b", "2" } }));
+        final CharSequenceTranslator translator = new AggregateTranslator(inner,
+            new LookupTranslator(new CharSequence[][] { { "a", "x" }, { "c", "3" } }));
+        assertEquals("123d", translator.translate("abcd"));
+        assertEquals("123d", new LookupTranslator(new CharSequence[][] { { "c", "3" } }).with(inner).translate("abcd"));
+        assertTrue(inner.translates('b'));
+        assertFalse(inner.translates('c'));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals("abc", new AggregateTranslator().translate("abc"));
+        assertEquals("abc", new AggregateTranslator((CharSequenceTranslator[]) null).translate("abc"));
+    }
+
+    @Test
+    public void testUnknownTranslatorIsAlwaysTried() {
+        final CharSequenceTranslator upper = new CharSequenceTranslator() {
+            @Override
+            public int translate(final CharSequence input, final int index, final Writer out) throws IOException {
+                final char c = input.charAt(index);
+                if (Character.isLowerCase(c)) {
+                    out.write(Character.toUpperCase(c));
+                    return 1;
+                }
+                return 0;
+            }
+        };
+        final CharSequenceTranslator translator = new AggregateTranslator(
+            new LookupTranslator(new CharSequence[][] { { "b", "-" } }), upper);
+        assertEquals("A-C\u00C9\u0102", translator.translate("abc\u00E9\u0103"));
+    }
+
+    @Test
+    public void testMatchesSequentialTranslation() {
+        final CharSequenceTranslator[] translators = {
+            new LookupTranslator(EntityArrays.BASIC_ESCAPE()),
+            new LookupTranslator(EntityArrays.ISO8859_1_ESCAPE()),
+            new LookupTranslator(EntityArrays.HTML40_EXTENDED_UNESCAPE()),
+            new LookupTranslator(EntityArrays.JAVA_CTRL_CHARS_ESCAPE()),
+            new NumericEntityUnescaper(),
+            new OctalUnescaper(),
+            UnicodeEscaper.outsideOf(32, 0x7f),
+            NumericEntityEscaper.between(0x7f, 0x9f),
+            JavaUnicodeEscaper.above(0xffff),
+        };
+        final CharSequenceTranslator sequential = new CharSequenceTranslator() {
+            @Override
+            public int translate(final CharSequence input, final int index, final Writer out) throws IOException {
+                for (final CharSequenceTranslator translator : translators) {
+                    final int consumed = translator.translate(input, index, out);
+                    if (consumed != 0) {
+                        return consumed;
+                    }
+                }
+                return 0;
+            }
+        };
+        final CharSequenceTranslator aggregate = new AggregateTranslator(translators);
+        final String alphabet = "&#;\\0123xa<>\"\t\n\u0080\u0099\u00A0\u00E9\u0100\u03B1\u2665\uD83D\uDE00";
+        final Random random = new Random(17);
+        for (int n = 0; n < 10000; n++) {
+            final StringBuilder input = new StringBuilder();
+            for (int i = random.nextInt(16); i > 0; i--) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (random.nextBoolean()) {
+                input.append("&alpha;&#945;\\101");
+            }
+            assertEquals(input.toString(), sequential.translate(input), aggregate.translate(input));
+        }
+    }
+
+}
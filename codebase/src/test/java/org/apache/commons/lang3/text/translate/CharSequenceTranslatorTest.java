@@ -18,10 +18,16 @@
 package org.apache.commons.lang3.text.translate;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.apache.commons.lang3.StringEscapeUtils;
 import org.junit.Test;
 
 /**
@@ -161,4 +167,139 @@ public class CharSequenceTranslatorTest {
         };
         translator.translate("test");
     }
+
+    @Test
+    public void testTranslateUnchangedReturnsInput() {
+        final CharSequenceTranslator translator = new LookupTranslator(new CharSequence[][] { { "&", "&amp;" } });
+        final String input = "no escaping \uD835\uDC00 needed";
+        assertSame(input, translator.translate(input));
+        assertEquals("a&amp;b", translator.translate("a&b"));
+        assertEquals(input, translator.translate(new StringBuilder(input)));
+    }
+
+    @Test
+    public void testTranslateWritesRuns() throws IOException {
+        final CharSequenceTranslator translator = new LookupTranslator(new CharSequence[][] { { "&", "&amp;" } });
+        final StringBuilder calls = new StringBuilder();
+        final Writer out = new StringWriter() {
+            @Override
+            public void write(final String str) {
+                calls.append('{').append(str).append('}');
+                super.write(str);
+            }
+
+            @Override
+            public void write(final String str, final int off, final int len) {
+                calls.append('[').append(str, off, off + len).append(']');
+                super.write(str, off, len);
+            }
+
+            @Override
+            public StringWriter append(final CharSequence csq, final int start, final int end) {
+                calls.append('(').append(csq, start, end).append(')');
+                getBuffer().append(csq, start, end);
+                return this;
+            }
+        };
+        translator.translate("one & two && three", out);
+        assertEquals("one &amp; two &amp;&amp; three", out.toString());
+        assertEquals("[one ]{&amp;}[ two ]{&amp;}{&amp;}[ three]", calls.toString());
+        calls.setLength(0);
+        translator.translate(new StringBuilder("x&y"), out);
+        assertEquals("(x){&amp;}(y)", calls.toString());
+    }
+
+    @Test
+    public void testTranslateKeepsUnconsumedCharacters() {
+        // may translate '&', but only before a '#'
+        final CharSequenceTranslator translator = new NumericEntityUnescaper();
+        assertEquals("a & b &#x A A\uD835\uDC00", translator.translate("a & b &#x &#65; &#65;\uD835\uDC00"));
+    }
+
+    @Test
+    public void testTranslateStreamMatchesTranslate() throws IOException {
+        final String alphabet = "abc &<>\"'#;x01\\u\t\u00e9\u03b1\u2665\uD83D\uDE00";
+        final String[] fragments = { "&amp;", "&alpha;", "&#945;", "&#x3b1;", "&#x3B1 ", "\\u00e9", "\\uuu+00e9",
+            "\\101", "\\n" };
+        final CharSequenceTranslator[] translators = { StringEscapeUtils.ESCAPE_HTML4, StringEscapeUtils.ESCAPE_JAVA,
+            StringEscapeUtils.ESCAPE_XML, StringEscapeUtils.UNESCAPE_HTML4, StringEscapeUtils.UNESCAPE_XML,
+            new NumericEntityUnescaper(NumericEntityUnescaper.OPTION.semiColonOptional) };
+        final Random random = new Random(5);
+        for (int n = 0; n < 20; n++) {
+            final StringBuilder input = new StringBuilder();
+            for (int i = random.nextInt(40000); i > 0; i--) {
+                if (random.nextInt(8) == 0) {
+                    input.append(fragments[random.nextInt(fragments.length)]);
+                } else {
+                    input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            final String text = input.toString();
+            for (final CharSequenceTranslator translator : translators) {
+                final StringWriter out = new StringWriter();
+                translator.translateStream(new ChunkedReader(text, random), out);
+                assertEquals(translator.translate(text), out.toString());
+            }
+            final String escaped = StringEscapeUtils.escapeJava(text);
+            final StringWriter out = new StringWriter();
+            StringEscapeUtils.UNESCAPE_JAVA.translateStream(new ChunkedReader(escaped, random), out);
+            assertEquals(StringEscapeUtils.UNESCAPE_JAVA.translate(escaped), out.toString());
+        }
+    }
+
+    @Test
+    public void testTranslateStreamMatchAcrossBuffers() throws IOException {
+        final CharSequenceTranslator translator = StringEscapeUtils.UNESCAPE_HTML4;
+        for (int offset = 8170; offset < 8200; offset++) {
+            final StringBuilder input = new StringBuilder();
+            for (int i = 0; i < offset; i++) {
+                input.append('a');
+            }
+            input.append("&thetasym;&#x1F600;\uD83D\uDE00");
+            final StringWriter out = new StringWriter();
+            translator.translateStream(new StringReader(input.toString()), out);
+            assertEquals(translator.translate(input), out.toString());
+        }
+    }
+
+    @Test
+    public void testTranslateStreamNull() throws IOException {
+        final StringWriter out = new StringWriter();
+        StringEscapeUtils.ESCAPE_XML.translateStream(null, out);
+        assertEquals("", out.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTranslateStreamNullWriter() throws IOException {
+        StringEscapeUtils.ESCAPE_XML.translateStream(new StringReader("a"), null);
+    }
+
+    /**
+     * A Reader returning a random number of characters from each read.
+     */
+    private static final class ChunkedReader extends Reader {
+        private final String text;
+        private final Random random;
+        private int pos;
+
+        ChunkedReader(final String text, final Random random) {
+            this.text = text;
+            this.random = random;
+        }
+
+        @Override
+        public int read(final char[] cbuf, final int off, final int len) {
+            if (pos == text.length()) {
+                return -1;
+            }
+            final int count = Math.min(Math.min(len, 1 + random.nextInt(5000)), text.length() - pos);
+            text.getChars(pos, pos + count, cbuf, off);
+            pos += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
 }
@@ -1,6 +1,11 @@
 package org.apache.commons.lang3.text.translate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.Test;
 
 /**
@@ -65,4 +70,21 @@ public class JavaUnicodeEscaperTest {
         // Above range (98 'b') should not be escaped
         assertEquals("Above range should not be escaped", "\u0062", escaper.translate("\u0062"));
     }
+
+    @Test
+    public void testSupplementaryCodepoints() throws IOException {
+        final JavaUnicodeEscaper jue = JavaUnicodeEscaper.above(0xffff);
+        for (int codepoint = 0x10000; codepoint <= 0x10ffff; codepoint += 0x3f) {
+            final StringWriter out = new StringWriter();
+            assertTrue(jue.translate(codepoint, out));
+            assertEquals(jue.toUtf16Escape(codepoint), out.toString());
+        }
+        final JavaUnicodeEscaper custom = new JavaUnicodeEscaper(0, 0xffff, false) {
+            @Override
+            protected String toUtf16Escape(final int codepoint) {
+                return "\\U" + hex(codepoint);
+            }
+        };
+        assertEquals("\\U1F600", custom.translate("\uD83D\uDE00"));
+    }
 }
@@ -21,6 +21,9 @@ import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -49,4 +52,77 @@ public class LookupTranslatorTest  {
         assertEquals("Incorrect value", "two", out.toString());
     }
 
+    @Test
+    public void testLongestMatch() throws IOException {
+        final LookupTranslator lt = new LookupTranslator(new CharSequence[][] {
+            { "a", "1" }, { "abc", "3" }, { "ab", "2" }, { "abcde", "5" } });
+        assertEquals("3d-d", lt.translate("abcd-d"));
+        assertEquals("5", lt.translate("abcde"));
+        assertEquals("2", lt.translate("ab"));
+        assertEquals("1x", lt.translate("ax"));
+        assertEquals("xyz", lt.translate("xyz"));
+        final StringWriter out = new StringWriter();
+        assertEquals(0, lt.translate("abcd", 4, out));
+        assertEquals(0, lt.translate("b", 0, out));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void testLaterKeyReplacesEarlier() {
+        final LookupTranslator lt = new LookupTranslator(new CharSequence[][] { { "a", "1" }, { "a", "2" } });
+        assertEquals("2", lt.translate("a"));
+    }
+
+    @Test
+    public void testNonAsciiKeys() {
+        final LookupTranslator lt = new LookupTranslator(EntityArrays.HTML40_EXTENDED_ESCAPE());
+        assertEquals("&alpha;&beta; &hearts;", lt.translate("\u03B1\u03B2 \u2665"));
+        assertEquals("\uD83D\uDE00", lt.translate("\uD83D\uDE00"));
+    }
+
+    @Test
+    public void testNullLookup() {
+        final LookupTranslator lt = new LookupTranslator((CharSequence[][]) null);
+        assertEquals("abc", lt.translate("abc"));
+    }
+
+    @Test
+    public void testMatchesMapLookup() throws IOException {
+        final CharSequence[][] lookup = EntityArrays.HTML40_EXTENDED_UNESCAPE();
+        final LookupTranslator lt = new LookupTranslator(lookup);
+        final Map<String, String> map = new HashMap<String, String>();
+        int longest = 0;
+        for (final CharSequence[] seq : lookup) {
+            map.put(seq[0].toString(), seq[1].toString());
+            longest = Math.max(longest, seq[0].length());
+        }
+        final String alphabet = "&;abeglmhpsrtAZ\u00e9";
+        final Random random = new Random(3);
+        for (int n = 0; n < 10000; n++) {
+            final StringBuilder input = new StringBuilder();
+            for (int i = random.nextInt(12); i > 0; i--) {
+                if (random.nextInt(3) == 0) {
+                    input.append(lookup[random.nextInt(lookup.length)][0]);
+                } else {
+                    input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            for (int index = 0; index < input.length(); index++) {
+                String expected = "";
+                int expectedConsumed = 0;
+                for (int i = Math.min(longest, input.length() - index); i > 0; i--) {
+                    final String value = map.get(input.substring(index, index + i));
+                    if (value != null) {
+                        expected = value;
+                        expectedConsumed = i;
+                        break;
+                    }
+                }
+                final StringWriter out = new StringWriter();
+                assertEquals(input.toString(), expectedConsumed, lt.translate(input, index, out));
+                assertEquals(input.toString(), expected, out.toString());
+            }
+        }
+    }
+
 }
@@ -18,6 +18,10 @@
 package org.apache.commons.lang3.text.translate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.Test;
 
@@ -66,4 +70,19 @@ public class NumericEntityEscaperTest  {
 
     }
 
+    @Test
+    public void testAllCodepoints() throws IOException {
+        final NumericEntityEscaper nee = NumericEntityEscaper.between(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        final int[] codepoints = { Integer.MIN_VALUE, -1, 0, 9, 10, 99, 100, 0xffff, 0x10ffff, Integer.MAX_VALUE };
+        for (final int codepoint : codepoints) {
+            final StringWriter out = new StringWriter();
+            assertTrue(nee.translate(codepoint, out));
+            assertEquals("&#" + codepoint + ";", out.toString());
+        }
+        for (int codepoint = 0; codepoint <= 0x10ffff; codepoint++) {
+            final StringWriter out = new StringWriter();
+            nee.translate(codepoint, out);
+            assertEquals("&#" + codepoint + ";", out.toString());
+        }
+    }
 }
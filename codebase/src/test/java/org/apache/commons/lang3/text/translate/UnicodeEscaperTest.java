@@ -18,6 +18,12 @@
 package org.apache.commons.lang3.text.translate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Locale;
+
 import org.junit.Test;
 
 /**
@@ -61,4 +67,17 @@ public class UnicodeEscaperTest  {
             // expected path
         }
     }
+
+    @Test
+    public void testAllCodepoints() throws IOException {
+        final UnicodeEscaper ue = UnicodeEscaper.between(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        for (int codepoint = -1; codepoint <= 0x10ffff; codepoint += codepoint < 0x10000 ? 1 : 0xff) {
+            final String hex = Integer.toHexString(codepoint).toUpperCase(Locale.ENGLISH);
+            final String expected = codepoint < 0 ? "\\u000" + hex
+                : "\\u" + "000".substring(Math.min(3, hex.length() - 1)) + hex;
+            final StringWriter out = new StringWriter();
+            assertTrue(ue.translate(codepoint, out));
+            assertEquals(expected, out.toString());
+        }
+    }
 }
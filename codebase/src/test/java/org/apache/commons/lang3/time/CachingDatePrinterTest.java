@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.time.CachingDatePrinter}.
+ */
+public class CachingDatePrinterTest {
+
+    private static final String[] PATTERNS = {
+        "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
+        "dd/MMM/yyyy:HH:mm:ss Z",
+        "S-SS-SSS-SSSS h:mm a z",
+        "EEE, d MMM yyyy HH:mm zzzz",
+        "''S''",
+        "yyyy",
+    };
+
+    private static final String[] ZONES = {
+        "GMT", "America/New_York", "Australia/Lord_Howe", "Europe/Amsterdam", "Asia/Kolkata",
+    };
+
+    @Test
+    public void testFormatMatchesFastDatePrinter() {
+        for (final String zone : ZONES) {
+            final TimeZone timeZone = TimeZone.getTimeZone(zone);
+            for (final String pattern : PATTERNS) {
+                final FastDatePrinter printer = new FastDatePrinter(pattern, timeZone, Locale.US);
+                final CachingDatePrinter caching = new CachingDatePrinter(printer);
+                for (final long start : new long[] {
+                        new GregorianCalendar(2003, Calendar.NOVEMBER, 2).getTimeInMillis(),
+                        new GregorianCalendar(2004, Calendar.MARCH, 28).getTimeInMillis(),
+                        new GregorianCalendar(1935, Calendar.MAY, 15).getTimeInMillis(),
+                        -1234567L }) {
+                    // step over seconds, minutes and any offset change of the day
+                    for (long millis = start; millis < start + 2 * DateUtils.MILLIS_PER_DAY; millis += 997 * 61 + 13) {
+                        assertEquals(pattern + " " + zone, printer.format(millis), caching.format(millis));
+                        assertEquals(pattern + " " + zone, printer.format(millis + 7), caching.format(millis + 7));
+                        assertEquals(pattern + " " + zone, printer.format(millis - 1), caching.format(millis - 1));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatVariants() throws IOException {
+        final TimeZone timeZone = TimeZone.getTimeZone("America/New_York");
+        final CachingDatePrinter caching = new CachingDatePrinter("yyyy-MM-dd HH:mm:ss.SSS", timeZone, Locale.US);
+        final long millis = 1234567890123L;
+        final String expected = "2009-02-13 18:31:30.123";
+
+        assertEquals(expected, caching.format(millis));
+        assertEquals(expected, caching.format(new Date(millis)));
+        assertEquals(expected, caching.format(millis, new StringBuffer()).toString());
+        assertEquals(expected, caching.format(new Date(millis), new StringBuffer()).toString());
+        assertEquals(expected, caching.format(Long.valueOf(millis), new StringBuffer(), null).toString());
+        final StringBuilder sb = new StringBuilder("> ");
+        assertSame(sb, caching.format(millis, sb));
+        assertEquals("> " + expected, sb.toString());
+
+        final char[] chars = new char[30];
+        assertEquals(expected.length(), caching.format(millis, chars, 2));
+        assertEquals(expected, new String(chars, 2, expected.length()));
+
+        final Calendar cal = Calendar.getInstance(timeZone, Locale.US);
+        cal.setTimeInMillis(millis);
+        assertEquals(expected, caching.format(cal));
+        assertEquals(expected, caching.format(cal, new StringBuffer()).toString());
+    }
+
+    @Test
+    public void testAccessors() {
+        final TimeZone timeZone = TimeZone.getTimeZone("GMT");
+        final CachingDatePrinter caching = new CachingDatePrinter("HH:mm", timeZone, Locale.FRANCE);
+        assertEquals("HH:mm", caching.getPattern());
+        assertSame(timeZone, caching.getTimeZone());
+        assertEquals(Locale.FRANCE, caching.getLocale());
+        assertEquals(new CachingDatePrinter("HH:mm", timeZone, Locale.FRANCE), caching);
+        assertEquals(new CachingDatePrinter("HH:mm", timeZone, Locale.FRANCE).hashCode(), caching.hashCode());
+    }
+
+    @Test
+    public void testSerialization() {
+        final CachingDatePrinter caching = new CachingDatePrinter("HH:mm:ss.SSS", TimeZone.getTimeZone("GMT"), Locale.US);
+        assertEquals("00:00:01.234", caching.format(1234L));
+        final CachingDatePrinter copy = SerializationUtils.clone(caching);
+        assertEquals(caching, copy);
+        assertEquals("00:00:01.234", copy.format(1234L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPrinter() {
+        new CachingDatePrinter(null);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.time.ConcurrentStopWatch}.
+ */
+public class ConcurrentStopWatchTest {
+
+    @Test
+    public void testLaps() throws Exception {
+        final ConcurrentStopWatch watch = new ConcurrentStopWatch();
+        watch.start();
+        Thread.sleep(20);
+        final long first = watch.lap();
+        Thread.sleep(20);
+        final long second = watch.stop();
+        assertTrue(first >= 15000000L);
+        assertTrue(second >= 15000000L);
+        assertEquals(2, watch.getHistogram().getCount());
+        assertTrue(watch.getHistogram().getMax() >= Math.max(first, second));
+        assertFalse(watch.getStopWatch().isStarted());
+
+        // the watch can be started again after a stop
+        watch.start();
+        watch.stop();
+        assertEquals(3, watch.getHistogram().getCount());
+    }
+
+    @Test
+    public void testSuspendedTimeIsNotCounted() throws Exception {
+        final ConcurrentStopWatch watch = new ConcurrentStopWatch();
+        watch.start();
+        watch.suspend();
+        Thread.sleep(50);
+        watch.resume();
+        watch.split();
+        assertTrue(watch.getStopWatch().getSplitNanoTime() < 40000000L);
+        watch.unsplit();
+        assertTrue(watch.stop() < 40000000L);
+    }
+
+    @Test
+    public void testStates() {
+        final ConcurrentStopWatch watch = new ConcurrentStopWatch();
+        try {
+            watch.lap();
+            fail();
+        } catch (final IllegalStateException ise) {}
+        try {
+            watch.stop();
+            fail();
+        } catch (final IllegalStateException ise) {}
+        try {
+            watch.resume();
+            fail();
+        } catch (final IllegalStateException ise) {}
+        watch.start();
+        try {
+            watch.start();
+            fail();
+        } catch (final IllegalStateException ise) {}
+        try {
+            watch.unsplit();
+            fail();
+        } catch (final IllegalStateException ise) {}
+        assertEquals(0, watch.getHistogram().getCount());
+    }
+
+    @Test
+    public void testWatchPerThread() throws Exception {
+        final ConcurrentStopWatch watch = new ConcurrentStopWatch();
+        watch.start();
+        final AtomicReference<Object> other = new AtomicReference<Object>();
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    // not started in this thread
+                    assertFalse(watch.getStopWatch().isStarted());
+                    watch.start();
+                    watch.stop();
+                    other.set(watch.getStopWatch());
+                } catch (final Throwable t) {
+                    other.set(t);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        assertTrue(other.get() instanceof StopWatch);
+        assertNotSame(watch.getStopWatch(), other.get());
+        assertTrue(watch.getStopWatch().isStarted());
+        watch.stop();
+        assertEquals(2, watch.getHistogram().getCount());
+    }
+
+    @Test
+    public void testSharedHistogram() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final ConcurrentStopWatch watch = new ConcurrentStopWatch(histogram);
+        assertSame(histogram, watch.getHistogram());
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        watch.recordSince(System.nanoTime());
+                        watch.record(i);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000, histogram.getCount());
+        assertEquals(histogram.toString(), watch.toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullHistogram() {
+        new ConcurrentStopWatch(null);
+    }
+}
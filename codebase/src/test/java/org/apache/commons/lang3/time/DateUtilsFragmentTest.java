@@ -21,6 +21,7 @@ import org.junit.Before;
 import static org.junit.Assert.*;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
 public class DateUtilsFragmentTest {
 
@@ -548,4 +549,43 @@ testResult);
                         / DateUtils.MILLIS_PER_HOUR,
                 testResult);
     }
+
+    @Test
+    public void testFragmentsOfMillisMatchCalendar() {
+        final int[] fragments = {Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_YEAR, Calendar.DATE,
+            Calendar.HOUR_OF_DAY, Calendar.MINUTE, Calendar.SECOND, Calendar.MILLISECOND};
+        final String[] zones = {"GMT", "GMT+05:30", "America/New_York", "America/Sao_Paulo", "Australia/Lord_Howe"};
+        for (final String id : zones) {
+            final TimeZone zone = TimeZone.getTimeZone(id);
+            final Calendar cal = Calendar.getInstance(zone);
+            // over a leap year and its daylight saving changes
+            for (long millis = aDate.getTime() - 366 * DateUtils.MILLIS_PER_DAY; millis < aDate.getTime();
+                    millis += 5 * DateUtils.MILLIS_PER_HOUR + 1234567) {
+                cal.setTimeInMillis(millis);
+                for (final int fragment : fragments) {
+                    final String message = id + " " + millis + " " + fragment;
+                    assertEquals(message, DateUtils.getFragmentInMilliseconds(cal, fragment),
+                            DateUtils.getFragmentInMilliseconds(millis, fragment, zone));
+                    assertEquals(message, DateUtils.getFragmentInSeconds(cal, fragment),
+                            DateUtils.getFragmentInSeconds(millis, fragment, zone));
+                    assertEquals(message, DateUtils.getFragmentInMinutes(cal, fragment),
+                            DateUtils.getFragmentInMinutes(millis, fragment, zone));
+                    assertEquals(message, DateUtils.getFragmentInHours(cal, fragment),
+                            DateUtils.getFragmentInHours(millis, fragment, zone));
+                    assertEquals(message, DateUtils.getFragmentInDays(cal, fragment),
+                            DateUtils.getFragmentInDays(millis, fragment, zone));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFragmentOfMillisNullZone() {
+        DateUtils.getFragmentInHours(0L, Calendar.YEAR, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFragmentOfMillisInvalidFragment() {
+        DateUtils.getFragmentInHours(0L, Calendar.ERA, TimeZone.getTimeZone("GMT"));
+    }
 }
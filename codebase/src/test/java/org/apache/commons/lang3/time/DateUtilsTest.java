@@ -30,12 +30,16 @@ import java.lang.reflect.Modifier;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 
 import junit.framework.AssertionFailedError;
@@ -1217,6 +1221,49 @@ public class DateUtilsTest {
         assertEquals("Date not equal to itself ISO formatted and parsed", d.getTime(), d2.getTime() + d.getTime() % 1000); 
     }
     
+    /**
+     * Tests the arithmetic modifications of instants against those of calendars.
+     */
+    @Test
+    public void testModifyMillisMatchesCalendar() throws Exception {
+        final int[] fields = {Calendar.MILLISECOND, Calendar.SECOND, Calendar.MINUTE, Calendar.HOUR_OF_DAY,
+            Calendar.HOUR, Calendar.AM_PM, Calendar.DATE, Calendar.DAY_OF_MONTH, DateUtils.SEMI_MONTH,
+            Calendar.MONTH, Calendar.YEAR};
+        final TimeZone[] zones = {TimeZone.getTimeZone("GMT"), TimeZone.getTimeZone("GMT+05:30"),
+            TimeZone.getTimeZone("America/New_York"), TimeZone.getTimeZone("America/Sao_Paulo"),
+            TimeZone.getTimeZone("Australia/Lord_Howe"), TimeZone.getTimeZone("Europe/Amsterdam")};
+        // spans daylight saving changes, a change at midnight, an offset in seconds and negative millis
+        final long[] starts = {utcMillis(2003, 2, 29), utcMillis(2003, 9, 25),
+            utcMillis(2008, 9, 11), utcMillis(1930, 4, 14), -2 * DateUtils.MILLIS_PER_DAY};
+        for (final TimeZone zone : zones) {
+            for (final long start : starts) {
+                for (long millis = start; millis < start + 3 * DateUtils.MILLIS_PER_DAY; millis += 7 * DateUtils.MILLIS_PER_MINUTE + 29731) {
+                    final Calendar cal = Calendar.getInstance(zone);
+                    cal.setTimeInMillis(millis);
+                    for (final int field : fields) {
+                        final String message = zone.getID() + " " + millis + " " + field;
+                        assertEquals(message, DateUtils.truncate(cal, field).getTimeInMillis(),
+                                DateUtils.truncate(millis, field, zone));
+                        assertEquals(message, DateUtils.round(cal, field).getTimeInMillis(),
+                                DateUtils.round(millis, field, zone));
+                        assertEquals(message, DateUtils.ceiling(cal, field).getTimeInMillis(),
+                                DateUtils.ceiling(millis, field, zone));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncateMillisNullZone() {
+        DateUtils.truncate(0L, Calendar.HOUR, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRoundMillisUnsupportedField() {
+        DateUtils.round(0L, Calendar.DAY_OF_WEEK, TimeZone.getTimeZone("GMT"));
+    }
+
     /**
      * Tests various values with the ceiling method
      */
@@ -1540,6 +1587,79 @@ public class DateUtilsTest {
         }
     }
             
+    /**
+     * Tests the primitive iterator against the calendar iterator.
+     */
+    @Test
+    public void testIteratorMillisMatchesCalendar() throws Exception {
+        final int[] styles = {DateUtils.RANGE_MONTH_SUNDAY, DateUtils.RANGE_MONTH_MONDAY, DateUtils.RANGE_WEEK_SUNDAY,
+            DateUtils.RANGE_WEEK_MONDAY, DateUtils.RANGE_WEEK_RELATIVE, DateUtils.RANGE_WEEK_CENTER};
+        final TimeZone[] zones = {TimeZone.getTimeZone("GMT"), TimeZone.getTimeZone("GMT+05:30"),
+            TimeZone.getTimeZone("America/New_York"), TimeZone.getTimeZone("Europe/Amsterdam"),
+            TimeZone.getTimeZone("Australia/Lord_Howe"),
+            // custom IDs are unknown to java.time
+            new SimpleTimeZone((int) DateUtils.MILLIS_PER_HOUR, "MyZone"),
+            new SimpleTimeZone(-5 * (int) DateUtils.MILLIS_PER_HOUR, "MyDaylightZone",
+                Calendar.MARCH, 8, -Calendar.SUNDAY, 2 * (int) DateUtils.MILLIS_PER_HOUR,
+                Calendar.NOVEMBER, 1, -Calendar.SUNDAY, 2 * (int) DateUtils.MILLIS_PER_HOUR)};
+        for (final TimeZone zone : zones) {
+            final String id = zone.getID();
+            for (long focus = utcMillis(2007, 11, 20); focus < utcMillis(2009, 1, 10);
+                    focus += 3 * DateUtils.MILLIS_PER_DAY + 12345678) {
+                final Calendar cal = Calendar.getInstance(zone);
+                cal.setTimeInMillis(focus);
+                for (final int style : styles) {
+                    final String message = id + " " + focus + " " + style;
+                    final Iterator<Calendar> expected = DateUtils.iterator(cal, style);
+                    final PrimitiveIterator.OfLong actual = DateUtils.iterator(focus, style, zone);
+                    while (expected.hasNext()) {
+                        assertTrue(message, actual.hasNext());
+                        assertEquals(message, expected.next().getTimeInMillis(), actual.nextLong());
+                    }
+                    assertFalse(message, actual.hasNext());
+                }
+            }
+        }
+        try {
+            DateUtils.iterator(0L, -9999, TimeZone.getTimeZone("GMT"));
+            fail();
+        } catch (final IllegalArgumentException ex) {}
+        try {
+            DateUtils.iterator(0L, DateUtils.RANGE_WEEK_CENTER, null);
+            fail();
+        } catch (final IllegalArgumentException ex) {}
+        final PrimitiveIterator.OfLong it = DateUtils.iterator(0L, DateUtils.RANGE_WEEK_CENTER, TimeZone.getTimeZone("GMT"));
+        for (int i = 0; i < 7; i++) {
+            it.nextLong();
+        }
+        try {
+            it.nextLong();
+            fail();
+        } catch (final NoSuchElementException ex) {}
+    }
+
+    /**
+     * Tests the day stream over daylight saving changes, including some at midnight.
+     */
+    @Test
+    public void testDayStream() throws Exception {
+        final String[] zones = {"GMT", "America/New_York", "America/Sao_Paulo", "America/Havana", "Asia/Gaza"};
+        for (final String id : zones) {
+            final TimeZone zone = TimeZone.getTimeZone(id);
+            final ZoneId zoneId = zone.toZoneId();
+            final LocalDate first = LocalDate.of(2010, 1, 1);
+            final long start = first.atStartOfDay(zoneId).toInstant().toEpochMilli() + 5 * DateUtils.MILLIS_PER_HOUR;
+            final long end = start + 3 * 365 * DateUtils.MILLIS_PER_DAY;
+            final long[] days = DateUtils.dayStream(start, end, zone).toArray();
+            assertEquals(id, 3 * 365 + 1, days.length);
+            for (int i = 0; i < days.length; i++) {
+                assertEquals(id + " " + i, first.plusDays(i).atStartOfDay(zoneId).toInstant().toEpochMilli(), days[i]);
+            }
+        }
+        assertEquals(1, DateUtils.dayStream(0L, 0L, TimeZone.getTimeZone("GMT")).count());
+        assertEquals(0, DateUtils.dayStream(DateUtils.MILLIS_PER_DAY, 0L, TimeZone.getTimeZone("GMT")).count());
+    }
+
     /**
      * Tests the calendar iterator for month-based ranges
      */
@@ -1677,6 +1797,16 @@ public class DateUtilsTest {
         assertCalendarsEquals("", end, cal, 0);
     }
 
+    /**
+     * Gets the first instant of a day in UTC.
+     */
+    private static long utcMillis(final int year, final int month, final int day) {
+        final Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, day);
+        return cal.getTimeInMillis();
+    }
+
     /**
      * Used to check that Calendar objects are close enough
      * delta is in milliseconds
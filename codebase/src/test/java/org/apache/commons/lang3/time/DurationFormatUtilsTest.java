@@ -20,6 +20,9 @@ package org.apache.commons.lang3.time;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 
 import static org.junit.Assert.assertEquals;
@@ -603,4 +606,64 @@ public class DurationFormatUtilsTest {
         }
     }
 
+    @Test
+    public void testFormatPeriodFixedOffsetMatchesCalendar() {
+        final String[] formats = {"y M d H m s S", "M d H m s S", "d H m s S", "y d H m s S", "y", "M", "d", "H",
+            "yyyy-MM-dd", "mmm ss", DurationFormatUtils.ISO_EXTENDED_FORMAT_PATTERN};
+        final String[] zones = {"UTC", "GMT+05:30", "GMT-14:00"};
+        final Random random = new Random(42);
+        for (final String id : zones) {
+            final TimeZone zone = TimeZone.getTimeZone(id);
+            for (final String format : formats) {
+                final DurationFormatter formatter = DurationFormatter.getInstance(format);
+                for (int i = 0; i < 2000; i++) {
+                    // from 1583 to 2350, over a few hours up to a few centuries, often from the end of a month
+                    final long start = i % 2 == 0 ? -12212553600000L + (long) (random.nextDouble() * 24200000000000L)
+                        : utcMillis(2000 + random.nextInt(10), random.nextInt(12), 28 + random.nextInt(4), 0, 0, 0)
+                            - zone.getRawOffset() + random.nextInt(86400000);
+                    final long end = start + (long) (Math.pow(random.nextDouble(), 3) * 300 * 365 * DateUtils.MILLIS_PER_DAY);
+                    assertEquals(id + " " + format + " " + start + " " + end,
+                            DurationFormatUtils.formatPeriodWithCalendar(start, end, formatter, zone),
+                            DurationFormatUtils.formatPeriodFixedOffset(start, end, formatter, zone.getRawOffset()));
+                }
+            }
+        }
+        // leap days, year and month ends
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        final long[][] periods = {
+            {utcMillis(2000, 1, 29, 0, 0, 0), utcMillis(2001, 1, 28, 0, 0, 0)},
+            {utcMillis(2000, 1, 29, 0, 0, 0), utcMillis(2004, 1, 29, 0, 0, 0)},
+            {utcMillis(2001, 0, 31, 0, 0, 0), utcMillis(2001, 1, 28, 0, 0, 0)},
+            {utcMillis(2000, 0, 1, 0, 0, 0), utcMillis(2001, 0, 1, 0, 0, 0)},
+            {utcMillis(1999, 11, 31, 23, 59, 59) + 999, utcMillis(2000, 0, 1, 0, 0, 0)}};
+        for (final long[] period : periods) {
+            for (final String format : formats) {
+                assertEquals(DurationFormatUtils.formatPeriodWithCalendar(period[0], period[1],
+                        DurationFormatter.getInstance(format, false), utc),
+                        DurationFormatUtils.formatPeriod(period[0], period[1], format, false, utc));
+            }
+        }
+    }
+
+    @Test
+    public void testFormatPeriodCustomTimeZone() {
+        // custom IDs are unknown to java.time
+        final TimeZone zone = new SimpleTimeZone(3600000, "MyZone");
+        final long start = utcMillis(2000, 0, 31, 0, 0, 0);
+        final long end = start + 40 * DateUtils.MILLIS_PER_DAY;
+        assertEquals("1 11", DurationFormatUtils.formatPeriod(start, end, "M d", false, zone));
+        assertEquals(DurationFormatUtils.formatPeriodWithCalendar(start, end, DurationFormatter.getInstance("M d", false), zone),
+                DurationFormatUtils.formatPeriod(start, end, "M d", false, zone));
+        assertEquals("1 9", DurationFormatUtils.formatPeriod(0, 40 * DateUtils.MILLIS_PER_DAY, "M d", false,
+                new SimpleTimeZone(0, "MyZone")));
+    }
+
+    private static long utcMillis(final int year, final int month, final int day, final int hour, final int minute,
+            final int second) {
+        final Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, day, hour, minute, second);
+        return cal.getTimeInMillis();
+    }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.time.DurationFormatter}.
+ */
+public class DurationFormatterTest {
+
+    private static final long DURATION = ((2 * 24 + 3) * 60 * 60 + 4 * 60 + 5) * 1000L + 6;
+
+    @Test
+    public void testGetInstance() {
+        final DurationFormatter formatter = DurationFormatter.getInstance("H:mm:ss.SSS");
+        assertSame(formatter, DurationFormatter.getInstance("H:mm:ss.SSS", true));
+        assertNotSame(formatter, DurationFormatter.getInstance("H:mm:ss.SSS", false));
+        assertEquals("H:mm:ss.SSS", formatter.getFormat());
+        assertTrue(formatter.isPadWithZeros());
+        assertFalse(DurationFormatter.getInstance("H:mm:ss.SSS", false).isPadWithZeros());
+        assertEquals(formatter, DurationFormatter.getInstance(new String("H:mm:ss.SSS")));
+        assertEquals(formatter.hashCode(), DurationFormatter.getInstance(new String("H:mm:ss.SSS")).hashCode());
+        assertFalse(formatter.equals(DurationFormatter.getInstance("H:mm:ss.SSS", false)));
+        assertEquals("DurationFormatter[H:mm:ss.SSS]", formatter.toString());
+    }
+
+    @Test
+    public void testGetInstanceCacheIsBounded() {
+        final int capacity = FormatCache.getDefaultCapacity();
+        for (int i = 0; i <= capacity; i++) {
+            final String format = "'" + i + "' H:m";
+            assertEquals(i + " 51:4", DurationFormatter.getInstance(format, i % 2 == 0).format(DURATION));
+            assertEquals(i + " 51:4", DurationFormatter.getInstance(format, i % 2 != 0).format(DURATION));
+        }
+        assertTrue(DurationFormatter.getCacheSize() <= 2 * capacity);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetInstanceNull() {
+        DurationFormatter.getInstance(null);
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("51:04:05.006", DurationFormatter.getInstance("H:mm:ss.SSS").format(DURATION));
+        assertEquals("2 3:4:5.006", DurationFormatter.getInstance("d H:m:s.S", false).format(DURATION));
+        assertEquals("0002 03:04:05.006", DurationFormatter.getInstance("dddd HH:mm:ss.S").format(DURATION));
+        assertEquals("183845006", DurationFormatter.getInstance("S").format(DURATION));
+        assertEquals("1 min", DurationFormatter.getInstance("m' min'").format(60000));
+        assertEquals("", DurationFormatter.getInstance("").format(DURATION));
+    }
+
+    @Test
+    public void testFormatNegative() {
+        // the same output as Integer.toString padded by StringUtils.leftPad
+        assertEquals("0-5", DurationFormatter.getInstance("SSS").format(-5));
+        assertEquals("-5", DurationFormatter.getInstance("SSS", false).format(-5));
+        assertEquals("-1:-1.-1", DurationFormatter.getInstance("H:mm.ss").format(-3661000));
+        assertEquals("-2147483648", DurationFormatter.getInstance("S").format(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testFormatMillisecondsAfterSeconds() {
+        assertEquals("5.006", DurationFormatter.getInstance("s.S").format(5006));
+        assertEquals("5.006", DurationFormatter.getInstance("s.SSS").format(5006));
+        assertEquals("5.1006", DurationFormatter.getInstance("s.SSSSS").format(5006));
+        assertEquals("5.006", DurationFormatter.getInstance("s.S", false).format(5006));
+        assertEquals("0.95", DurationFormatter.getInstance("s.S").format(-5));
+    }
+
+    @Test
+    public void testFormatAppendable() throws Exception {
+        final DurationFormatter formatter = DurationFormatter.getInstance("d'd' HH:mm:ss.SSS");
+        final StringBuilder sb = new StringBuilder("took ");
+        assertSame(sb, formatter.format(DURATION, sb));
+        assertEquals("took 2d 03:04:05.006", sb.toString());
+        final StringWriter writer = new StringWriter();
+        formatter.format(DURATION, writer);
+        assertEquals(formatter.format(DURATION), writer.toString());
+    }
+}
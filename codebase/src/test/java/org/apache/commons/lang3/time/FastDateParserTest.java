@@ -18,10 +18,14 @@ package org.apache.commons.lang3.time;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import java.io.Serializable;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.BitSet;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -406,6 +410,161 @@ public class FastDateParserTest {
         }
     }
 
+    @Test
+    public void testParseDirectMatchesRegex() throws Exception {
+        final String[] formats= {yMdHmsSZ, LONG_FORMAT, SHORT_FORMAT, "yyyyMMddHHmmssSSS", "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "''yyyyMMdd'A''B'HHmmssSSS''", "h:mm a, z"};
+        final Calendar cal= Calendar.getInstance(NEW_YORK, Locale.US);
+        cal.clear();
+        cal.set(2003, 1, 10, 15, 33, 20);
+        cal.set(Calendar.MILLISECOND, 989);
+        for(final Locale locale : new Locale[]{Locale.US, Locale.GERMANY, SWEDEN, Locale.JAPAN}) {
+            for(final String format : formats) {
+                final SimpleDateFormat sdf= new SimpleDateFormat(format, locale);
+                sdf.setTimeZone(NEW_YORK);
+                final String source= "#" + sdf.format(cal.getTime()) + "#";
+                final FastDateParser fdp= new FastDateParser(format, NEW_YORK, locale);
+
+                final Calendar direct= Calendar.getInstance(NEW_YORK, locale);
+                direct.clear();
+                final ParsePosition directPos= new ParsePosition(1);
+                assertTrue(format + " " + locale + " " + source, fdp.parseDirect(source, directPos, direct));
+
+                final Calendar regex= Calendar.getInstance(NEW_YORK, locale);
+                regex.clear();
+                final ParsePosition regexPos= new ParsePosition(1);
+                assertTrue(format + " " + locale + " " + source, fdp.parseRegex(source, regexPos, regex));
+
+                assertEquals(format + " " + locale + " " + source, regex.getTime(), direct.getTime());
+                assertEquals(source.length()-1, directPos.getIndex());
+                assertEquals(regexPos.getIndex(), directPos.getIndex());
+            }
+        }
+    }
+
+    @Test
+    public void testParseZoneNamesDirectMatchesRegex() {
+        FastDateParser.preloadTimeZoneNames(Locale.US, Locale.FRANCE);
+        for(final Locale locale : new Locale[]{Locale.US, Locale.FRANCE}) {
+            final FastDateParser fdp= new FastDateParser("z'|'", GMT, locale);
+            for(final String id : TimeZone.getAvailableIDs()) {
+                final TimeZone tz= TimeZone.getTimeZone(id);
+                for(final int style : new int[]{TimeZone.SHORT, TimeZone.LONG}) {
+                    final String source= tz.getDisplayName(tz.useDaylightTime(), style, locale) + "|";
+
+                    final Calendar direct= Calendar.getInstance(GMT, locale);
+                    direct.clear();
+                    final ParsePosition directPos= new ParsePosition(0);
+                    final boolean directParsed= fdp.parseDirect(source, directPos, direct);
+
+                    final Calendar regex= Calendar.getInstance(GMT, locale);
+                    regex.clear();
+                    final ParsePosition regexPos= new ParsePosition(0);
+                    if(!fdp.parseRegex(source, regexPos, regex)) {
+                        // names differing only in case are listed once, in the case seen first
+                        assertFalse(locale + " " + source, directParsed);
+                        continue;
+                    }
+
+                    if(directParsed) {
+                        assertEquals(locale + " " + source, regex.getTimeZone().getRawOffset(), direct.getTimeZone().getRawOffset());
+                        assertEquals(locale + " " + source, regex.getTime(), direct.getTime());
+                        assertEquals(regexPos.getIndex(), directPos.getIndex());
+                    }
+                    else {
+                        // only a shorter name that the rest of the pattern rejects stops the direct strategy
+                        assertEquals(0, directPos.getIndex());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseDirectFailureLeavesPosition() {
+        final FastDateParser fdp= new FastDateParser(YMD_SLASH, NEW_YORK, Locale.US);
+        final Calendar cal= Calendar.getInstance(NEW_YORK, Locale.US);
+        final ParsePosition pos= new ParsePosition(2);
+        assertFalse(fdp.parseDirect("xx2003/02/x1", pos, cal));
+        assertEquals(2, pos.getIndex());
+        assertNull(fdp.parse("xx2003/02/x1", pos));
+        assertEquals(2, pos.getIndex());
+    }
+
+    @Test
+    public void testParseFallsBackToRegex() throws ParseException {
+        // the direct strategy takes three offset digits and cannot back off to two
+        final FastDateParser fdp= new FastDateParser("z'1'", NEW_YORK, Locale.US);
+        final Calendar cal= Calendar.getInstance(NEW_YORK, Locale.US);
+        assertFalse(fdp.parseDirect("GMT+051", new ParsePosition(0), cal));
+
+        final Calendar expected= Calendar.getInstance(TimeZone.getTimeZone("GMT+05:00"), Locale.US);
+        expected.clear();
+        expected.set(1970, 0, 1);
+        assertEquals(expected.getTime(), fdp.parse("GMT+051"));
+    }
+
+    @Test
+    public void testParseInstant() throws ParseException {
+        final DateParser fdp= getInstance(yMdHmsSZ, NEW_YORK, Locale.US);
+        final String source= "2003-02-10T15:33:20.123 -0500";
+        final long millis= fdp.parse(source).getTime();
+        assertEquals(Instant.ofEpochMilli(millis), fdp.parseInstant(source));
+        assertEquals(Instant.ofEpochMilli(millis), fdp.parseInstant(new StringBuilder(source)));
+        assertEquals(millis*1000000L, fdp.parseEpochNanos(source));
+
+        final ParsePosition pos= new ParsePosition(3);
+        assertEquals(Instant.ofEpochMilli(millis), fdp.parseInstant("-- "+source+" --", pos));
+        assertEquals(3+source.length(), pos.getIndex());
+        assertNull(fdp.parseInstant("2003-02-10", new ParsePosition(0)));
+    }
+
+    @Test(expected=ParseException.class)
+    public void testParseInstantUnparseable() throws ParseException {
+        getInstance(YMD_SLASH).parseInstant("2003-02-10");
+    }
+
+    @Test(expected=ArithmeticException.class)
+    public void testParseEpochNanosOverflow() throws ParseException {
+        getInstance(YMD_SLASH, GMT).parseEpochNanos("2263/01/01");
+    }
+
+    @Test
+    public void testParseAll() throws ParseException {
+        final DateParser fdp= getInstance(yMdHmsSZ, NEW_YORK, Locale.US);
+        final CharSequence[] sources= {
+                "2003-02-10T15:33:20.123 -0500",
+                new StringBuilder("2003-11-02T01:30:00.000 -0400"),
+                "2003-02-10 15:33",
+                null,
+                "2003-02-10T15:33:20.123 GMT+05:00",
+                "2012-12-31T23:59:59.999 +0000 and more" };
+        final long[] millis= new long[sources.length + 1];
+        millis[2]= -1;
+        final BitSet errors= new BitSet();
+        errors.set(0);
+        errors.set(sources.length);
+
+        assertEquals(4, fdp.parseAll(sources, millis, errors));
+        for(int i= 0; i<sources.length; ++i) {
+            if(errors.get(i)) {
+                assertTrue(i==2 || i==3);
+            }
+            else {
+                assertEquals(fdp.parse(sources[i].toString()).getTime(), millis[i]);
+            }
+        }
+        assertEquals(-1, millis[2]);
+        assertEquals(0, millis[3]);
+        assertEquals(3, errors.cardinality());
+        assertTrue(errors.get(sources.length));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testParseAllShortOutput() {
+        getInstance(YMD_SLASH).parseAll(new CharSequence[] { "2003/02/10" }, new long[0], new BitSet());
+    }
+
     @Test
     public void testDayOf() throws ParseException {
         final Calendar cal= Calendar.getInstance(NEW_YORK, Locale.US);
@@ -19,14 +19,28 @@ package org.apache.commons.lang3.time;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.Serializable;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Locale;
+import java.util.SimpleTimeZone;
 import java.util.TimeZone;
 
 import org.apache.commons.lang3.SerializationUtils;
@@ -70,6 +84,16 @@ public class FastDatePrinterTest {
         return new FastDatePrinter(format, timeZone, locale);
     }
 
+    /**
+     * Gets the first instant of a day in UTC.
+     */
+    private static long utcMillis(final int year, final int month, final int day) {
+        final Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, day);
+        return cal.getTimeInMillis();
+    }
+
     @Test
     public void testFormat() {
         final Locale realDefaultLocale = Locale.getDefault();
@@ -189,6 +213,196 @@ public class FastDatePrinterTest {
         assertEquals("0001/03/02", format.format(cal));
     }
 
+    @Test
+    public void testFormatMillisMatchesCalendar() {
+        final String pattern = "G yyyy yy MMMM MM M dd d DDD EEEE E F w W a hh h HH H kk K mm ss SSS z zzzz Z ZZ";
+        final TimeZone[] zones = {TimeZone.getTimeZone("GMT"), TimeZone.getTimeZone("GMT+05:30"), NEW_YORK,
+            TimeZone.getTimeZone("Australia/Lord_Howe"), TimeZone.getTimeZone("Asia/Kolkata")};
+        // spans the New York transitions of 2003 and dates before the Gregorian cutover
+        final long[] starts = {utcMillis(2003, 3, 5), utcMillis(2003, 9, 25),
+            utcMillis(900, 0, 1), utcMillis(1582, 9, 1), 0L};
+        for (final TimeZone zone : zones) {
+            final DatePrinter printer = getInstance(pattern, zone, Locale.US);
+            for (final long start : starts) {
+                for (long millis = start; millis < start + 3 * 24 * 60 * 60 * 1000L; millis += 17 * 60 * 1000L + 321) {
+                    final Calendar cal = Calendar.getInstance(zone, Locale.US);
+                    cal.setTimeInMillis(millis);
+                    final String expected = printer.format(cal);
+                    assertEquals(zone.getID() + " " + millis, expected, printer.format(millis));
+                    assertEquals(zone.getID() + " " + millis, expected, printer.format(new Date(millis)));
+                    assertEquals(zone.getID() + " " + millis, expected, printer.format(millis, new StringBuffer()).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatToAppendable() throws Exception {
+        final Calendar cal = Calendar.getInstance(NEW_YORK, Locale.US);
+        cal.clear();
+        cal.set(2003, 1, 10, 15, 33, 20);
+        final DatePrinter printer = getInstance("yyyy-MM-dd'T'HH:mm:ss ZZ", NEW_YORK, Locale.US);
+        final String expected = "2003-02-10T15:33:20 -05:00";
+
+        final StringBuilder sb = new StringBuilder("[");
+        assertSame(sb, printer.format(cal.getTimeInMillis(), sb));
+        assertEquals("[" + expected, sb.toString());
+        assertEquals(expected, printer.format(cal.getTime(), new StringBuilder()).toString());
+        assertEquals(expected, printer.format(cal, new StringBuilder()).toString());
+
+        final StringWriter writer = new StringWriter();
+        printer.format(cal.getTimeInMillis(), writer);
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void testFormatTemporalMatchesCalendar() throws Exception {
+        final String pattern = "G yyyy yy MMMM MM M dd d DDD EEEE E F w W a hh h HH H kk K mm ss SSS z zzzz Z ZZ";
+        final TimeZone[] zones = {TimeZone.getTimeZone("GMT"), TimeZone.getTimeZone("GMT+05:30"), NEW_YORK,
+            TimeZone.getTimeZone("Australia/Lord_Howe"), TimeZone.getTimeZone("Asia/Kolkata")};
+        // spans the New York transitions of 2003 and the turn of a year; the ISO and
+        // Gregorian calendars only agree after the Gregorian cutover
+        final long[] starts = {utcMillis(2003, 3, 5), utcMillis(2003, 9, 25),
+            utcMillis(2008, 11, 29), 0L};
+        final DatePrinter inGmt = getInstance(pattern, TimeZone.getTimeZone("GMT"), Locale.US);
+        for (final TimeZone zone : zones) {
+            final DatePrinter printer = getInstance(pattern, zone, Locale.US);
+            final ZoneId zoneId = zone.toZoneId();
+            for (final long start : starts) {
+                for (long millis = start; millis < start + 3 * 24 * 60 * 60 * 1000L; millis += 17 * 60 * 1000L + 321) {
+                    final String expected = printer.format(millis);
+                    final Instant instant = Instant.ofEpochMilli(millis);
+                    final ZonedDateTime dateTime = ZonedDateTime.ofInstant(instant, zoneId);
+                    assertEquals(zone.getID() + " " + millis, expected, printer.format(instant));
+                    assertEquals(zone.getID() + " " + millis, expected, printer.format(dateTime));
+                    assertEquals(zone.getID() + " " + millis, expected, inGmt.format(dateTime));
+                    if (zoneId.getRules().getValidOffsets(dateTime.toLocalDateTime()).size() == 1) {
+                        // a local date-time in an overlap takes the earlier offset
+                        assertEquals(zone.getID() + " " + millis, expected, printer.format(dateTime.toLocalDateTime()));
+                    }
+                    assertEquals(zone.getID() + " " + millis, expected,
+                            printer.format(dateTime, new StringBuilder()).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatTemporalBeforeGregorianCutover() throws Exception {
+        final String pattern = "G yyyy-MM-dd EEE D w HH:mm z";
+        final TimeZone[] zones = {TimeZone.getTimeZone("UTC"), NEW_YORK, TimeZone.getTimeZone("GMT-10:00")};
+        for (final TimeZone zone : zones) {
+            final DatePrinter printer = getInstance(pattern, zone, Locale.US);
+            final DatePrinter inGmt = getInstance(pattern, TimeZone.getTimeZone("GMT"), Locale.US);
+            for (long millis = -15000000000000L; millis < utcMillis(1582, 11, 31); millis += 37 * 24 * 60 * 60 * 1000L + 4321) {
+                final String expected = printer.format(millis);
+                final Instant instant = Instant.ofEpochMilli(millis);
+                assertEquals(zone.getID() + " " + millis, expected, printer.format(instant));
+                assertEquals(zone.getID() + " " + millis, expected, inGmt.format(ZonedDateTime.ofInstant(instant, zone.toZoneId())));
+            }
+        }
+        assertEquals("1494-08-23 AD", getInstance("yyyy-MM-dd G", TimeZone.getTimeZone("UTC"), Locale.US)
+                .format(Instant.ofEpochMilli(-15000000000000L)));
+    }
+
+    @Test
+    public void testFormatTemporalCustomTimeZone() throws Exception {
+        // custom IDs are unknown to java.time
+        final TimeZone zone = new SimpleTimeZone(3600000, "MyZone");
+        final DatePrinter printer = getInstance("yyyy-MM-dd HH:mm z", zone, Locale.US);
+        assertEquals("1970-01-01 01:00 " + zone.getDisplayName(false, TimeZone.SHORT, Locale.US),
+                printer.format(Instant.EPOCH));
+        assertEquals("1970-01-01 00:00 UTC", printer.format(ZonedDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC)));
+        assertEquals("1970-01-01 00:00 " + zone.getDisplayName(false, TimeZone.SHORT, Locale.US),
+                printer.format(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        assertEquals(printer.format(-3600000L), printer.format(LocalDateTime.of(1970, 1, 1, 0, 0)));
+        // a known ID with other rules is not the zone of that ID
+        final DatePrinter shifted = getInstance("HH:mm Z", new SimpleTimeZone(3600000, "UTC"), Locale.US);
+        assertEquals("00:00 +0000", shifted.format(ZonedDateTime.ofInstant(Instant.EPOCH, ZoneId.of("UTC"))));
+        assertEquals("01:00 +0100", shifted.format(Instant.EPOCH));
+    }
+
+    @Test
+    public void testFormatTemporal() throws Exception {
+        final DatePrinter printer = getInstance("yyyy-MM-dd'T'HH:mm:ss.SSS ZZ", NEW_YORK, Locale.US);
+        final ZonedDateTime dateTime = ZonedDateTime.of(2003, 2, 10, 15, 33, 20, 123456789, NEW_YORK.toZoneId());
+        assertEquals("2003-02-10T15:33:20.123 -05:00", printer.format(dateTime));
+        assertEquals("2003-02-10T15:33:20.123 -05:00", printer.format(dateTime.toInstant()));
+        assertEquals("2003-02-10T15:33:20.123 +01:00",
+                printer.format(OffsetDateTime.of(2003, 2, 10, 15, 33, 20, 123456789, ZoneOffset.ofHours(1))));
+        assertEquals("2003-02-10T15:33:20.123 -05:00",
+                printer.format(LocalDateTime.of(2003, 2, 10, 15, 33, 20, 123456789)));
+
+        final StringWriter writer = new StringWriter();
+        assertSame(writer, printer.format(dateTime, writer));
+        assertEquals("2003-02-10T15:33:20.123 -05:00", writer.toString());
+
+        try {
+            printer.format(LocalDate.of(2003, 2, 10));
+            fail("Expected DateTimeException");
+        } catch (final DateTimeException e) {
+            // expected, there is no time of day
+        }
+    }
+
+    @Test
+    public void testFormatToCharArray() {
+        final Calendar cal = Calendar.getInstance(NEW_YORK, Locale.US);
+        cal.clear();
+        cal.set(2003, 1, 10, 15, 33, 20);
+        final DatePrinter printer = getInstance("yyyy-MM-dd HH:mm:ss", NEW_YORK, Locale.US);
+        final String expected = "2003-02-10 15:33:20";
+
+        final char[] chars = new char[25];
+        assertEquals(expected.length(), printer.format(cal.getTimeInMillis(), chars, 3));
+        assertEquals(expected, new String(chars, 3, expected.length()));
+
+        final CharBuffer buffer = CharBuffer.allocate(40);
+        buffer.put('[');
+        assertEquals(expected.length(), printer.format(cal.getTimeInMillis(), buffer));
+        assertEquals(1 + expected.length(), buffer.position());
+        buffer.flip();
+        assertEquals("[" + expected, buffer.toString());
+
+        final CharBuffer small = CharBuffer.allocate(10);
+        small.put('[');
+        try {
+            printer.format(cal.getTimeInMillis(), small);
+            fail("Expected BufferOverflowException");
+        } catch (final BufferOverflowException e) {
+            assertEquals(1, small.position());
+        }
+    }
+
+    @Test
+    public void testSubclassApplyRulesIsUsed() throws Exception {
+        final FastDatePrinter printer = new FastDatePrinter("yyyy-MM-dd", NEW_YORK, Locale.US) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected StringBuffer applyRules(final Calendar calendar, final StringBuffer buf) {
+                return super.applyRules(calendar, buf.append('<')).append('>');
+            }
+        };
+        final Calendar cal = Calendar.getInstance(NEW_YORK, Locale.US);
+        cal.clear();
+        cal.set(2003, 1, 10, 15, 33, 20);
+        final long millis = cal.getTimeInMillis();
+        final String expected = "<2003-02-10>";
+
+        assertEquals(expected, printer.format(millis));
+        assertEquals(expected, printer.format(cal.getTime()));
+        assertEquals(expected, printer.format(cal));
+        assertEquals(expected, printer.format(millis, new StringBuffer()).toString());
+        assertEquals(expected, printer.format(cal.getTime(), new StringBuffer()).toString());
+        assertEquals(expected, printer.format(millis, new StringBuilder()).toString());
+        assertEquals(expected, printer.format(cal.getTime(), new StringWriter()).toString());
+        assertEquals(expected, printer.format(cal, new StringBuilder()).toString());
+        final char[] chars = new char[20];
+        assertEquals(expected.length(), printer.format(millis, chars, 0));
+        assertEquals(expected, new String(chars, 0, expected.length()));
+    }
+
     @Test
     public void testLang303() {
         final Calendar cal = Calendar.getInstance();
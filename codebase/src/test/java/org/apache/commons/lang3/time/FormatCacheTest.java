@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the bounded cache of {@link org.apache.commons.lang3.time.FormatCache}.
+ */
+public class FormatCacheTest {
+
+    private static final TimeZone GMT = TimeZone.getTimeZone("GMT");
+
+    private static FormatCache<FastDateFormat> newCache(final int capacity) {
+        return new FormatCache<FastDateFormat>(capacity) {
+            @Override
+            protected FastDateFormat createInstance(final String pattern, final TimeZone timeZone, final Locale locale) {
+                return new FastDateFormat(pattern, timeZone, locale);
+            }
+        };
+    }
+
+    @Test
+    public void testCounters() {
+        final FormatCache<FastDateFormat> cache = newCache(10);
+        final FastDateFormat first = cache.getInstance("yyyy", GMT, Locale.US);
+        assertSame(first, cache.getInstance("yyyy", GMT, Locale.US));
+        assertSame(first, cache.getInstance("yyyy", GMT, Locale.US));
+        cache.getInstance("MM", GMT, Locale.US);
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.getCapacity());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        final FormatCache<FastDateFormat> cache = newCache(5);
+        for (int i = 1; i <= 50; ++i) {
+            cache.getInstance("'" + i + "'yyyy", GMT, Locale.US);
+            assertTrue(cache.size() <= 5);
+        }
+        assertEquals(45, cache.getEvictionCount());
+        assertEquals(50, cache.getMissCount());
+    }
+
+    @Test
+    public void testReusedInstanceSurvivesEviction() {
+        final FormatCache<FastDateFormat> cache = newCache(3);
+        final FastDateFormat reused = cache.getInstance("yyyy-MM-dd", GMT, Locale.US);
+        for (int i = 1; i <= 20; ++i) {
+            assertSame(reused, cache.getInstance("yyyy-MM-dd", GMT, Locale.US));
+            cache.getInstance("'" + i + "'HH:mm", GMT, Locale.US);
+        }
+        assertEquals(20, cache.getHitCount());
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testEvictedInstanceIsRecreated() {
+        final FormatCache<FastDateFormat> cache = newCache(1);
+        final FastDateFormat first = cache.getInstance("yyyy", GMT, Locale.US);
+        cache.getInstance("MM", GMT, Locale.US);
+        final FastDateFormat second = cache.getInstance("yyyy", GMT, Locale.US);
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        newCache(0);
+    }
+
+    @Test
+    public void testDefaultCapacity() {
+        final String previous = System.getProperty(FormatCache.CAPACITY_PROPERTY);
+        try {
+            System.setProperty(FormatCache.CAPACITY_PROPERTY, "42");
+            assertEquals(42, FormatCache.getDefaultCapacity());
+            System.setProperty(FormatCache.CAPACITY_PROPERTY, "-1");
+            assertEquals(FormatCache.DEFAULT_CAPACITY, FormatCache.getDefaultCapacity());
+            System.setProperty(FormatCache.CAPACITY_PROPERTY, "many");
+            assertEquals(FormatCache.DEFAULT_CAPACITY, FormatCache.getDefaultCapacity());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(FormatCache.CAPACITY_PROPERTY);
+            } else {
+                System.setProperty(FormatCache.CAPACITY_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    public void testFastDateFormatCounters() {
+        final long hits = FastDateFormat.getCacheHitCount();
+        FastDateFormat.getInstance("yyyy-MM-dd'T'HH:mm", GMT, Locale.US);
+        FastDateFormat.getInstance("yyyy-MM-dd'T'HH:mm", GMT, Locale.US);
+        assertTrue(FastDateFormat.getCacheHitCount() > hits);
+        assertTrue(FastDateFormat.getCacheMissCount() > 0);
+        assertTrue(FastDateFormat.getCacheEvictionCount() >= 0);
+        assertEquals(FormatCache.getDefaultCapacity(), FastDateFormat.getCacheCapacity());
+    }
+}
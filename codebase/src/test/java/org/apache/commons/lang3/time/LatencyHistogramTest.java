@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.time.LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (int precision = 1; precision <= 10; precision++) {
+            final LatencyHistogram histogram = new LatencyHistogram(precision);
+            assertEquals(precision, histogram.getPrecision());
+            long previousHighest = -1;
+            final int last = histogram.getBucketIndex(Long.MAX_VALUE);
+            for (int i = 0; i <= last; i++) {
+                final long lowest = histogram.getLowestValue(i);
+                final long highest = histogram.getHighestValue(i);
+                // the buckets are contiguous and each value maps back to its bucket
+                assertEquals(previousHighest + 1, lowest);
+                assertTrue(highest >= lowest);
+                assertEquals(i, histogram.getBucketIndex(lowest));
+                assertEquals(i, histogram.getBucketIndex(highest));
+                // the width of a bucket is within the precision of its values
+                assertTrue(highest - lowest <= lowest >> precision);
+                previousHighest = highest;
+            }
+            assertEquals(Long.MAX_VALUE, previousHighest);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(10, histogram.getMax());
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(9, histogram.getValueAtPercentile(90));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(5.5, histogram.getMean(), 0.0);
+        assertEquals("LatencyHistogram[count=10,min=1,p50=5,p90=9,p99=10,max=10]", histogram.toString());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Random random = new Random(1);
+        final long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 30);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        final double[] percentiles = {1, 10, 50, 90, 99, 99.9, 100};
+        for (final double percentile : percentiles) {
+            final long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            final long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(percentile + " " + expected + " " + actual, actual >= expected);
+            assertTrue(percentile + " " + expected + " " + actual, actual - expected <= expected / 32);
+        }
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100000; i++) {
+                        histogram.record(i % 1000);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400000, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(1007, histogram.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordNegative() {
+        new LatencyHistogram().record(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrecisionTooHigh() {
+        new LatencyHistogram(11);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileOutOfRange() {
+        new LatencyHistogram().getValueAtPercentile(100.5);
+    }
+}
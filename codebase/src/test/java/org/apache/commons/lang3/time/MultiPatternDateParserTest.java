@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.lang3.time;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+/**
+ * Unit tests {@link org.apache.commons.lang3.time.MultiPatternDateParser}.
+ */
+public class MultiPatternDateParserTest {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+
+    private static Date date(final int year, final int month, final int day, final int hour, final int minute) {
+        final Calendar cal = new GregorianCalendar(NEW_YORK, Locale.US);
+        cal.clear();
+        cal.set(year, month, day, hour, minute);
+        return cal.getTime();
+    }
+
+    @Test
+    public void testParse() throws ParseException {
+        final MultiPatternDateParser parser = new MultiPatternDateParser(NEW_YORK, Locale.US,
+                "yyyy-MM-dd", "yyyy-MM-dd HH:mm", "dd MMM yyyy", "yyyy-MM-dd'T'HH:mmZZ");
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 0, 0), parser.parse("2003-02-10"));
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 15, 33), parser.parse("2003-02-10 15:33"));
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 0, 0), parser.parse("10 Feb 2003"));
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 15, 33), parser.parse("2003-02-10T15:33-05:00"));
+        // the last match is tried first, but the others are still found
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 15, 33), parser.parse("2003-02-10 15:33"));
+        assertEquals(date(2003, Calendar.FEBRUARY, 10, 15, 33), parser.parse("2003-02-10 15:33"));
+        assertEquals(date(2003, Calendar.FEBRUARY, 11, 0, 0), parser.parse("2003-02-11"));
+    }
+
+    @Test
+    public void testParseMatchesDateUtils() throws ParseException {
+        final String[] patterns = {"yyyy-MM-dd", "yyyy-MM-dd HH:mm", "dd MMM yyyy"};
+        final MultiPatternDateParser parser = new MultiPatternDateParser(Locale.US, patterns);
+        for (final String source : new String[] {"2003-02-10", "1999-12-31 23:59", "01 Jan 2000", "2003-02-10"}) {
+            assertEquals(source, DateUtils.parseDate(source, Locale.US, patterns), parser.parse(source));
+        }
+    }
+
+    @Test(expected = ParseException.class)
+    public void testParseTrailingText() throws ParseException {
+        new MultiPatternDateParser(NEW_YORK, Locale.US, "yyyy-MM-dd").parse("2003-02-10 15:33");
+    }
+
+    @Test(expected = ParseException.class)
+    public void testParseNoPatterns() throws ParseException {
+        new MultiPatternDateParser(NEW_YORK, Locale.US).parse("2003-02-10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseNull() throws ParseException {
+        new MultiPatternDateParser(NEW_YORK, Locale.US, "yyyy-MM-dd").parse(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPatterns() {
+        new MultiPatternDateParser(NEW_YORK, Locale.US, (String[]) null);
+    }
+
+    @Test
+    public void testGetPatterns() {
+        final MultiPatternDateParser parser = new MultiPatternDateParser("yyyy", "MM/dd");
+        assertArrayEquals(new String[] {"yyyy", "MM/dd"}, parser.getPatterns());
+        assertEquals("MultiPatternDateParser[yyyy,MM/dd]", parser.toString());
+    }
+}